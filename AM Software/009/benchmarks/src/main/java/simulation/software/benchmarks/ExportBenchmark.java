@@ -0,0 +1,62 @@
+package simulation.software.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.software.codebase.AMSignal;
+import simulation.software.codebase.DataExporter;
+import simulation.software.codebase.SignalStorage;
+import simulation.software.codebase.SimulationOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV export of all channels through {@link DataExporter#exportToCSV}, for both storage precisions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportBenchmark {
+    @Param({"1024", "4096", "16384"})
+    public int samples;
+
+    @Param({"DOUBLE", "FLOAT"})
+    public SignalStorage storage;
+
+    private AMSignal signal;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        SimulationOptions options = new SimulationOptions();
+        options.setStorage(storage);
+        signal = new AMSignal("DSB-AM", 1000, new double[]{100, 230}, new double[]{1, 0.5}, 0.5, 0, "Sine",
+                "White", 0.05, "Coherent", 50, samples, 0.1, 0.2, options);
+        file = Files.createTempFile("am-export-benchmark", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void exportToCsv() throws IOException {
+        DataExporter.exportToCSV(signal, file.toString());
+    }
+}
@@ -0,0 +1,527 @@
+package simulation.software.benchmarks;
+
+import simulation.software.codebase.AMSignal;
+import simulation.software.codebase.DoubleSignalBuffer;
+import simulation.software.codebase.HarmonicDistortionAnalysis;
+import simulation.software.codebase.SignalBuffer;
+import simulation.software.codebase.SignalColumn;
+import simulation.software.codebase.SignalStorage;
+import simulation.software.codebase.SignalToNoiseAnalysis;
+import simulation.software.codebase.SimulationOptions;
+import simulation.software.codebase.SimulationScratch;
+import simulation.software.codebase.StreamingModulator;
+import simulation.software.codebase.SweepResult;
+import simulation.software.codebase.SweepSpecification;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Golden-output harness for numerical equivalence of optimized code paths.
+ * <p>
+ * {@code --record} runs a fixed matrix of configurations (every variant, both demodulators, sine and square messages,
+ * without noise and with seeded Gaussian noise) through the current implementation and stores every signal channel
+ * plus the THD and SNR results. {@code --verify} runs the same matrix through an engine and compares each value with
+ * the recording: it passes when the two are within {@code --max-ulps} units in the last place, or when the difference
+ * is within {@code --rel-tol} of the channel's peak magnitude (so values near zero are judged against the scale of
+ * the signal, not their own). The typical workflow is to record on the commit before a rewrite and verify after it.
+ * <p>
+ * Engines: {@code reference} (default options, the same path that records), {@code float-storage} (signals kept
+ * in single precision, see {@link SignalStorage}), {@code complex-baseband} (the I/Q engine, upconverted),
+ * {@code multirate} (message at a quarter of the rate, then interpolated), {@code streaming}
+ * ({@link StreamingModulator}) and {@code trial-kernel} (the modulated-only path of Monte Carlo trials). Each compares
+ * the channels and configurations in which it models the reference, with default tolerances that the command line
+ * can override.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar simulation.software.benchmarks.GoldenOutputHarness
+ * (--record | --verify) [--file target/golden-outputs.bin.gz] [--engine reference] [--max-ulps N] [--rel-tol X]
+ * [--verbose]}
+ */
+public final class GoldenOutputHarness {
+    private static final int MAGIC = 0x414D474F; // "AMGO"
+    private static final int FORMAT_VERSION = 1;
+    private static final String[] VARIANTS = {"DSB-AM", "DSB-SC", "SSB", "VSB", "QAM"};
+    private static final String[] DEMODULATIONS = {"Coherent", "Non-Coherent"};
+    private static final String[] WAVEFORMS = {"Sine", "Square"};
+    private static final String[] NOISE_TYPES = {"None", "Gaussian"};
+    private static final double NOISE_AMPLITUDE = 0.1;
+    private static final long NOISE_SEED = 0x5EED_2026L;
+    private static final int SAMPLES = 4096;
+    private static final double DURATION = 0.5;
+    private static final double CARRIER_FREQUENCY = 1000;
+    private static final double[] MESSAGE_FREQUENCIES = {100, 230};
+    private static final double[] MESSAGE_AMPLITUDES = {1, 0.5};
+    private static final double MODULATION_INDEX = 0.5;
+    private static final double PHASE_SHIFT = 45;
+    private static final double PULSE_DUTY_CYCLE = 50;
+    private static final double FILTER_ALPHA = 0.2;
+    private static final int MULTIRATE_FACTOR = 4;
+    private static final int MULTIRATE_EDGE = 64; // Samples at each end that the interpolation filters cannot settle
+    private static final SimulationScratch TRIAL_SCRATCH = new SimulationScratch(); // Reused, as a trial worker does
+    private static final Map<String, Engine> ENGINES = new LinkedHashMap<>();
+
+    static {
+        ENGINES.put("reference", new Engine(configuration -> channels(simulate(configuration, options -> { })),
+                0, 0, 0));
+        // Float storage rounds each sample to 24 bits (about 6e-8 of the peak); THD, a ratio of small harmonic
+        // magnitudes, sees that rounding amplified to a few 1e-6
+        ENGINES.put("float-storage", new Engine(configuration -> channels(simulate(configuration,
+                options -> options.setStorage(SignalStorage.FLOAT))), 0, 1e-5, 0));
+        // Envelope interpolated to the passband rate: about 1e-3 of the peak at the recorded instants
+        ENGINES.put("complex-baseband", new Engine(GoldenOutputHarness::complexBaseband, 0, 2e-3, 0));
+        // Quarter-rate message through the polyphase interpolator: under 3e-3 of the peak once the interpolator's
+        // edge transients are left out
+        ENGINES.put("multirate", new Engine(GoldenOutputHarness::multirate, 0, 5e-3, MULTIRATE_EDGE));
+        // Same kernels and noise sequence block by block: identical wherever the stream is aligned to t = 0
+        ENGINES.put("streaming", new Engine(GoldenOutputHarness::streamed, 0, 0, 0));
+        // Same modulated signal, written to reused scratch buffers: identical THD and SNR
+        ENGINES.put("trial-kernel", new Engine(GoldenOutputHarness::trial, 0, 0, 0));
+    }
+
+    private GoldenOutputHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        Path file = Paths.get(options.getOrDefault("file", "target/golden-outputs.bin.gz"));
+        if (options.containsKey("record")) {
+            List<Output> outputs = run(ENGINES.get("reference"));
+            write(file, outputs);
+            System.out.println("Recorded " + outputs.size() + " configurations to " + file.toAbsolutePath());
+        } else if (options.containsKey("verify")) {
+            String engineName = options.getOrDefault("engine", "reference");
+            Engine engine = ENGINES.get(engineName);
+            if (engine == null) {
+                throw new IllegalArgumentException("Unknown engine " + engineName + "; available: " + ENGINES.keySet());
+            }
+            long maxUlps = Long.parseLong(options.getOrDefault("max-ulps", String.valueOf(engine.maxUlps)));
+            double relTol = Double.parseDouble(options.getOrDefault("rel-tol", String.valueOf(engine.relTol)));
+            List<Output> golden = read(file);
+            List<Output> actual = run(engine);
+            int failures = compare(golden, actual, maxUlps, relTol, engine.edgeSamples, options.containsKey("verbose"));
+            int compared = 0;
+            for (Output output : actual) {
+                if (!output.values.isEmpty()) {
+                    compared++;
+                }
+            }
+            System.out.printf(Locale.ROOT, "%s: %d of %d compared configurations outside %d ulps / %.3g relative%n",
+                    engineName, failures, compared, maxUlps, relTol);
+            if (failures > 0) {
+                System.exit(1);
+            }
+        } else {
+            throw new IllegalArgumentException("Specify --record or --verify");
+        }
+    }
+
+    /**
+     * A way of running the simulation, with the tolerances it is expected to meet against the recording. An engine
+     * may produce only the channels and configurations in which it models the reference; the others are not
+     * compared. Edge samples are left out at both ends of every channel, scaled to the channel's length.
+     */
+    private static final class Engine {
+        final Function<Configuration, Map<String, double[]>> simulator;
+        final long maxUlps;
+        final double relTol;
+        final int edgeSamples;
+
+        Engine(Function<Configuration, Map<String, double[]>> simulator, long maxUlps, double relTol,
+               int edgeSamples) {
+            this.simulator = simulator;
+            this.maxUlps = maxUlps;
+            this.relTol = relTol;
+            this.edgeSamples = edgeSamples;
+        }
+    }
+
+    /**
+     * One configuration of the matrix.
+     */
+    private static final class Configuration {
+        final String variant;
+        final String demodulation;
+        final String waveform;
+        final String noise;
+
+        Configuration(String variant, String demodulation, String waveform, String noise) {
+            this.variant = variant;
+            this.demodulation = demodulation;
+            this.waveform = waveform;
+            this.noise = noise;
+        }
+
+        String name() {
+            return variant + "/" + demodulation + "/" + waveform + "/" + noise;
+        }
+
+        double noiseAmplitude() {
+            return noise.equals("None") ? 0 : NOISE_AMPLITUDE;
+        }
+    }
+
+    /**
+     * Recorded channels and scalar results of one configuration.
+     */
+    private static final class Output {
+        final String name;
+        final Map<String, double[]> values = new LinkedHashMap<>();
+
+        Output(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Runs the configuration matrix through an engine.
+     */
+    private static List<Output> run(Engine engine) {
+        List<Output> outputs = new ArrayList<>();
+        for (String variant : VARIANTS) {
+            for (String demodulation : DEMODULATIONS) {
+                for (String waveform : WAVEFORMS) {
+                    for (String noise : NOISE_TYPES) {
+                        Configuration configuration = new Configuration(variant, demodulation, waveform, noise);
+                        Output output = new Output(configuration.name());
+                        output.values.putAll(engine.simulator.apply(configuration));
+                        outputs.add(output);
+                    }
+                }
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Simulates a configuration through {@link AMSignal} with seeded noise and adjusted options.
+     */
+    private static AMSignal simulate(Configuration configuration, Consumer<SimulationOptions> configurer) {
+        SimulationOptions options = new SimulationOptions();
+        options.setNoiseSeed(NOISE_SEED);
+        configurer.accept(options);
+        return new AMSignal(configuration.variant, CARRIER_FREQUENCY, MESSAGE_FREQUENCIES, MESSAGE_AMPLITUDES,
+                MODULATION_INDEX, PHASE_SHIFT, configuration.waveform, configuration.noise,
+                configuration.noiseAmplitude(), configuration.demodulation, PULSE_DUTY_CYCLE, SAMPLES, DURATION,
+                FILTER_ALPHA, options);
+    }
+
+    /**
+     * Collects every recorded channel of a simulated signal.
+     */
+    private static Map<String, double[]> channels(AMSignal signal) {
+        Map<String, double[]> values = new LinkedHashMap<>();
+        values.put("time", toArray(signal.getTimeBuffer()));
+        values.put("signal", toArray(signal.getSignalBuffer()));
+        values.put("message", toArray(signal.getMessageBuffer()));
+        values.put("carrier", toArray(signal.getCarrierBuffer()));
+        values.put("demodulated", toArray(signal.getDemodulatedBuffer()));
+        values.put("decimated", toArray(signal.getDecimatedDemodulatedBuffer()));
+        values.put("frequency", toArray(signal.getFrequencyBuffer()));
+        values.put("spectrum", toArray(signal.getSpectrumBuffer()));
+        values.put("thd", new double[]{new HarmonicDistortionAnalysis(signal).getThdPercentage()});
+        values.put("snr", new double[]{new SignalToNoiseAnalysis(signal).getSnrDb()});
+        return values;
+    }
+
+    /**
+     * Simulates a configuration with the complex-baseband engine and takes the upconverted channels at the recorded
+     * sample instants. Its I/Q demodulator, two-sided spectrum and analyses (whose fixed windows span less time at
+     * the upconverted rate) have no passband counterpart, and VSB is shaped on the envelope, which treats the
+     * harmonics near the vestige differently, so those are not compared.
+     */
+    private static Map<String, double[]> complexBaseband(Configuration configuration) {
+        AMSignal signal = simulate(configuration, options -> options.setComplexBaseband(true));
+        int step = signal.getSignalBuffer().length() / SAMPLES;
+        Map<String, double[]> values = new LinkedHashMap<>();
+        values.put("time", every(toArray(signal.getTimeBuffer()), step));
+        if (!configuration.variant.equals("VSB")) {
+            values.put("signal", every(toArray(signal.getSignalBuffer()), step));
+        }
+        values.put("message", every(toArray(signal.getMessageBuffer()), step));
+        values.put("carrier", every(toArray(signal.getCarrierBuffer()), step));
+        return values;
+    }
+
+    /**
+     * Simulates a configuration in multirate mode. Only sine messages without noise are compared: at the quarter
+     * rate, square-wave harmonics alias and fewer noise samples are drawn. The analyses and spectrum see the edge
+     * transients, and a carrier loop has no stable lock on SSB, so those channels are left out too.
+     */
+    private static Map<String, double[]> multirate(Configuration configuration) {
+        Map<String, double[]> values = new LinkedHashMap<>();
+        if (!configuration.waveform.equals("Sine") || !configuration.noise.equals("None")) {
+            return values;
+        }
+        Map<String, double[]> all = channels(simulate(configuration,
+                options -> options.setInterpolationFactor(MULTIRATE_FACTOR)));
+        for (String channel : new String[]{"time", "signal", "message", "carrier", "demodulated", "decimated"}) {
+            values.put(channel, all.get(channel));
+        }
+        if (configuration.variant.equals("SSB") && configuration.demodulation.equals("Coherent")) {
+            values.remove("demodulated");
+            values.remove("decimated");
+        }
+        return values;
+    }
+
+    private static double[] every(double[] values, int step) {
+        double[] result = new double[values.length / step];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values[i * step];
+        }
+        return result;
+    }
+
+    /**
+     * Streams a configuration through {@link StreamingModulator} as one block at the recorded sample rate. The
+     * stream has no decimated copy or spectrum, and SSB and VSB start after a filter latency, so only their channels
+     * before the latency (time, carrier and, for VSB, the message) are compared.
+     */
+    private static Map<String, double[]> streamed(Configuration configuration) {
+        StreamingModulator modulator = new StreamingModulator(configuration.variant, CARRIER_FREQUENCY,
+                MESSAGE_FREQUENCIES, MESSAGE_AMPLITUDES, MODULATION_INDEX, PHASE_SHIFT, configuration.waveform,
+                configuration.noise, configuration.noiseAmplitude(), configuration.demodulation, PULSE_DUTY_CYCLE,
+                SAMPLES / DURATION, FILTER_ALPHA, NOISE_SEED);
+        double[][] block = new double[StreamingModulator.COLUMNS.length][SAMPLES];
+        modulator.nextBlock(block, SAMPLES);
+        Map<String, double[]> values = new LinkedHashMap<>();
+        values.put("time", block[SignalColumn.TIME.ordinal()]);
+        values.put("carrier", block[SignalColumn.CARRIER.ordinal()]);
+        if (configuration.variant.equals("VSB")) {
+            values.put("message", block[SignalColumn.MESSAGE.ordinal()]);
+        }
+        if (configuration.variant.equals("SSB") || configuration.variant.equals("VSB")) {
+            return values;
+        }
+        values.put("signal", block[SignalColumn.MODULATED.ordinal()]);
+        values.put("message", block[SignalColumn.MESSAGE.ordinal()]);
+        values.put("demodulated", block[SignalColumn.DEMODULATED.ordinal()]);
+        SignalBuffer signal = new DoubleSignalBuffer(block[SignalColumn.MODULATED.ordinal()]);
+        SignalBuffer time = new DoubleSignalBuffer(block[SignalColumn.TIME.ordinal()]);
+        values.put("thd", new double[]{new HarmonicDistortionAnalysis(signal, time).getThdPercentage()});
+        values.put("snr", new double[]{new SignalToNoiseAnalysis(signal, time).getSnrDb()});
+        return values;
+    }
+
+    /**
+     * Evaluates a configuration as one Monte Carlo trial, through the modulated-only kernel and a reused scratch.
+     * Trials only report THD and SNR.
+     */
+    private static Map<String, double[]> trial(Configuration configuration) {
+        Properties properties = new Properties();
+        properties.setProperty("variants", configuration.variant);
+        properties.setProperty("demodulations", configuration.demodulation);
+        properties.setProperty("carrierFrequencies", String.valueOf(CARRIER_FREQUENCY));
+        properties.setProperty("modulationIndices", String.valueOf(MODULATION_INDEX));
+        properties.setProperty("noiseAmplitudes", String.valueOf(configuration.noiseAmplitude()));
+        properties.setProperty("samples", String.valueOf(SAMPLES));
+        properties.setProperty("messageFrequencies", join(MESSAGE_FREQUENCIES));
+        properties.setProperty("messageAmplitudes", join(MESSAGE_AMPLITUDES));
+        properties.setProperty("waveform", configuration.waveform);
+        properties.setProperty("noiseType", configuration.noise);
+        properties.setProperty("phaseShift", String.valueOf(PHASE_SHIFT));
+        properties.setProperty("pulseDutyCycle", String.valueOf(PULSE_DUTY_CYCLE));
+        properties.setProperty("duration", String.valueOf(DURATION));
+        properties.setProperty("filterAlpha", String.valueOf(FILTER_ALPHA));
+        SweepResult result = new SweepSpecification(properties).points().get(0).evaluate(NOISE_SEED, TRIAL_SCRATCH);
+        if (result.getError() != null) {
+            throw new IllegalStateException(configuration.name() + " failed as a trial: " + result.getError());
+        }
+        Map<String, double[]> values = new LinkedHashMap<>();
+        values.put("thd", new double[]{result.getThdPercentage()});
+        values.put("snr", new double[]{result.getSnrDb()});
+        return values;
+    }
+
+    private static String join(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (double value : values) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    private static double[] toArray(SignalBuffer buffer) {
+        double[] values = new double[buffer.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Compares every channel that the engine produced for every configuration and prints the ones out of tolerance.
+     *
+     * @return number of configurations with at least one failing channel
+     */
+    private static int compare(List<Output> golden, List<Output> actual, long maxUlps, double relTol, int edgeSamples,
+                               boolean verbose) {
+        Map<String, Output> byName = new LinkedHashMap<>();
+        for (Output output : actual) {
+            byName.put(output.name, output);
+        }
+        int failures = 0;
+        System.out.printf(Locale.ROOT, "%-36s %-12s %14s %12s  %s%n", "Configuration", "Channel", "Max ulps",
+                "Max rel err", "Status");
+        for (Output expected : golden) {
+            Output output = byName.get(expected.name);
+            boolean failed = false;
+            if (output == null) {
+                System.out.printf(Locale.ROOT, "%-36s %-12s %14s %12s  %s%n", expected.name, "-", "-", "-", "MISSING");
+                failures++;
+                continue;
+            }
+            for (Map.Entry<String, double[]> channel : expected.values.entrySet()) {
+                double[] reference = channel.getValue();
+                double[] values = output.values.get(channel.getKey());
+                String status;
+                long worstUlps = 0;
+                double worstRelative = 0;
+                if (values == null) {
+                    status = "skipped";
+                } else if (values.length != reference.length) {
+                    status = "LENGTH";
+                    failed = true;
+                } else {
+                    double scale = 0;
+                    for (double v : reference) {
+                        if (Double.isFinite(v)) {
+                            scale = Math.max(scale, Math.abs(v));
+                        }
+                    }
+                    boolean pass = true;
+                    int edge = (int) ((long) edgeSamples * reference.length / SAMPLES);
+                    for (int i = edge; i < reference.length - edge; i++) {
+                        long ulps = ulpDistance(reference[i], values[i]);
+                        double relative = ulps == 0 ? 0 : Math.abs(values[i] - reference[i]) / (scale == 0 ? 1 : scale);
+                        worstUlps = Math.max(worstUlps, ulps);
+                        if (!(relative <= worstRelative)) {
+                            worstRelative = relative; // Also keeps NaN, which fails below
+                        }
+                        if (ulps > maxUlps && !(relative <= relTol)) {
+                            pass = false;
+                        }
+                    }
+                    status = pass ? "ok" : "FAIL";
+                    failed |= !pass;
+                }
+                if (verbose || !(status.equals("ok") || status.equals("skipped"))) {
+                    System.out.printf(Locale.ROOT, "%-36s %-12s %14d %12.3g  %s%n", expected.name, channel.getKey(),
+                            worstUlps, worstRelative, status);
+                }
+            }
+            if (failed) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Counts the doubles between two values (0 for identical values, including equal NaNs and infinities).
+     */
+    private static long ulpDistance(double a, double b) {
+        if (Double.doubleToLongBits(a) == Double.doubleToLongBits(b) || a == b) {
+            return 0;
+        }
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            return Long.MAX_VALUE;
+        }
+        long x = ordered(a);
+        long y = ordered(b);
+        long distance = x - y;
+        // Overflow only happens for values of opposite sign far apart, which are out of any tolerance
+        return ((x ^ y) & (x ^ distance)) < 0 ? Long.MAX_VALUE : Math.abs(distance);
+    }
+
+    /**
+     * Maps a double onto a long that increases monotonically with the value.
+     */
+    private static long ordered(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        return bits < 0 ? Long.MIN_VALUE - bits : bits;
+    }
+
+    private static void write(Path file, List<Output> outputs) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(outputs.size());
+            for (Output output : outputs) {
+                out.writeUTF(output.name);
+                out.writeInt(output.values.size());
+                for (Map.Entry<String, double[]> channel : output.values.entrySet()) {
+                    out.writeUTF(channel.getKey());
+                    out.writeInt(channel.getValue().length);
+                    for (double v : channel.getValue()) {
+                        out.writeLong(Double.doubleToRawLongBits(v));
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<Output> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not a golden-output recording of this version");
+            }
+            int count = in.readInt();
+            List<Output> outputs = new ArrayList<>(count);
+            for (int c = 0; c < count; c++) {
+                Output output = new Output(in.readUTF());
+                int channels = in.readInt();
+                for (int k = 0; k < channels; k++) {
+                    String name = in.readUTF();
+                    double[] values = new double[in.readInt()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = Double.longBitsToDouble(in.readLong());
+                    }
+                    output.values.put(name, values);
+                }
+                outputs.add(output);
+            }
+            return outputs;
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(key, args[++i]);
+            } else {
+                options.put(key, "");
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,47 @@
+package simulation.software.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.software.codebase.ModulationAndDemodulation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full modulation and demodulation pass for every AM variant and demodulation type across the sample counts
+ * offered by the control panel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModulationBenchmark {
+    private static final double CARRIER_FREQ = 1000;
+    private static final double[] MESSAGE_FREQS = {100, 230};
+    private static final double[] AMPLITUDES = {1, 0.5};
+    private static final double DURATION = 0.1;
+
+    @Param({"DSB-AM", "DSB-SC", "SSB", "VSB", "QAM"})
+    public String variant;
+
+    @Param({"None", "Coherent", "Non-Coherent"})
+    public String demodulation;
+
+    @Param({"1024", "4096", "16384"})
+    public int samples;
+
+    @Benchmark
+    public ModulationAndDemodulation modulateAndDemodulate() {
+        return new ModulationAndDemodulation(variant, CARRIER_FREQ, MESSAGE_FREQS, AMPLITUDES, 0.5, 45, "Sine",
+                "None", 0, demodulation, 50, samples, DURATION, 0.2);
+    }
+}
@@ -0,0 +1,445 @@
+package simulation.software.benchmarks;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Performance regression suite across the repository snapshots ({@code AM Software/001} to {@code 009}).
+ * <p>
+ * Each snapshot is compiled from source with the system Java compiler into its own output directory and loaded in an
+ * isolated class loader, so the differing {@code AMSignal} signatures never meet. Constructor arguments are bound by
+ * parameter name (the sources are compiled with {@code -parameters}), which lets one configuration drive every
+ * snapshot; early snapshots that fix the sample count internally run at their own size, which the report shows.
+ * By default every snapshot is measured in a fresh JVM so JIT profiles do not leak between versions. The compiled
+ * snapshots are deleted at the end unless {@code --keep-work} is given.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar simulation.software.benchmarks.SnapshotRegressionSuite
+ * [--root "AM Software"] [--samples 4096] [--warmup-ms 2000] [--measure-ms 3000] [--output file.json] [--in-process]
+ * [--keep-work]}
+ */
+public final class SnapshotRegressionSuite {
+    private static final String SIGNAL_CLASS = "simulation.software.codebase.AMSignal";
+    private static final String[] VARIANTS = {"DSB-AM", "DSB-SC", "SSB", "VSB", "QAM"};
+    private static final String[] DEMODULATIONS = {"Coherent", "Non-Coherent"};
+    private static final String RESULT_PREFIX = "RESULT\t";
+
+    private SnapshotRegressionSuite() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("child")) {
+            runChild(options);
+            return;
+        }
+        Path work = Files.createTempDirectory("am-snapshots");
+        try {
+            run(options, work);
+        } finally {
+            if (options.containsKey("keep-work")) {
+                System.err.println("Compiled snapshots kept in " + work);
+            } else {
+                deleteRecursively(work);
+            }
+        }
+    }
+
+    /**
+     * Compiles and measures every snapshot, using {@code work} for the compiled classes, and writes the report.
+     */
+    private static void run(Map<String, String> options, Path work) throws Exception {
+        Path root = Paths.get(options.getOrDefault("root", "AM Software"));
+        List<Path> snapshots;
+        try (Stream<Path> dirs = Files.list(root)) {
+            snapshots = dirs.filter(d -> d.getFileName().toString().matches("\\d{3}") && Files.isDirectory(d.resolve("src")))
+                    .sorted().collect(Collectors.toList());
+        }
+        if (snapshots.isEmpty()) {
+            throw new IllegalArgumentException("No snapshots found under " + root.toAbsolutePath());
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Path snapshot : snapshots) {
+            String version = snapshot.getFileName().toString();
+            Path classes = work.resolve(version);
+            String error = compile(snapshot.resolve("src"), classes);
+            if (error != null) {
+                System.err.println(version + ": compilation failed, skipped\n" + error);
+                continue;
+            }
+            System.err.println(version + ": measuring");
+            if (options.containsKey("in-process")) {
+                results.addAll(measure(version, classes, options));
+            } else {
+                results.addAll(fork(version, classes, options));
+            }
+        }
+
+        printTable(results);
+        Path output = Paths.get(options.getOrDefault("output", "target/snapshot-regression.json"));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Files.write(output, toJson(results).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * Deletes a directory tree, children first. Failures are reported but do not fail the run.
+     */
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e);
+        }
+    }
+
+    /**
+     * One measured configuration of one snapshot.
+     */
+    private static final class Result {
+        final String version;
+        final String variant;
+        final String demodulation;
+        final int samples;
+        final double nanosPerOp;
+        final double bytesPerOp;
+        final String error;
+
+        Result(String version, String variant, String demodulation, int samples, double nanosPerOp, double bytesPerOp,
+               String error) {
+            this.version = version;
+            this.variant = variant;
+            this.demodulation = demodulation;
+            this.samples = samples;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.error = error;
+        }
+
+        String toLine() {
+            return RESULT_PREFIX + String.join("\t", version, variant, demodulation, Integer.toString(samples),
+                    Double.toString(nanosPerOp), Double.toString(bytesPerOp), error == null ? "" : error);
+        }
+
+        static Result fromLine(String line) {
+            String[] f = line.substring(RESULT_PREFIX.length()).split("\t", -1);
+            return new Result(f[0], f[1], f[2], Integer.parseInt(f[3]), Double.parseDouble(f[4]),
+                    Double.parseDouble(f[5]), f[6].isEmpty() ? null : f[6]);
+        }
+    }
+
+    /**
+     * Compiles a snapshot's sources, returning the diagnostics on failure and null on success. Files that fail to
+     * compile (some snapshots shipped broken Swing windows) are dropped and the rest retried, since only the signal
+     * chain is measured.
+     */
+    private static String compile(Path sources, Path classes) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("A JDK is required to compile the snapshots");
+        }
+        Files.createDirectories(classes);
+        List<File> files;
+        try (Stream<Path> walk = Files.walk(sources)) {
+            files = walk.filter(p -> p.toString().endsWith(".java")).map(p -> p.toAbsolutePath().toFile()).collect(Collectors.toList());
+        }
+        List<String> compileOptions = Arrays.asList("-d", classes.toString(), "-parameters", "-encoding", "UTF-8",
+                "-nowarn", "-Xlint:none");
+        while (true) {
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+                    StandardCharsets.UTF_8)) {
+                boolean ok = compiler.getTask(null, fileManager, diagnostics, compileOptions, null,
+                        fileManager.getJavaFileObjectsFromFiles(files)).call();
+                if (ok) {
+                    return null;
+                }
+                List<File> broken = diagnostics.getDiagnostics().stream()
+                        .filter(d -> d.getKind() == Diagnostic.Kind.ERROR && d.getSource() != null)
+                        .map(d -> new File(d.getSource().toUri()))
+                        .distinct().collect(Collectors.toList());
+                boolean signalBroken = broken.stream().anyMatch(f -> f.getName().equals("AMSignal.java"));
+                if (broken.isEmpty() || signalBroken || !files.removeAll(broken)) {
+                    return diagnostics.getDiagnostics().stream().map(Object::toString)
+                            .collect(Collectors.joining("\n"));
+                }
+                System.err.println("  excluded from compilation: " + broken.stream().map(File::getName)
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+    }
+
+    /**
+     * Measures one snapshot in a separate JVM and collects its result lines.
+     */
+    private static List<Result> fork(String version, Path classes, Map<String, String> options)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Djava.awt.headless=true");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SnapshotRegressionSuite.class.getName());
+        command.add("--child");
+        command.add(version);
+        command.add("--classes");
+        command.add(classes.toString());
+        for (String key : new String[]{"samples", "warmup-ms", "measure-ms"}) {
+            if (options.containsKey(key)) {
+                command.add("--" + key);
+                command.add(options.get(key));
+            }
+        }
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        List<Result> results = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    results.add(Result.fromLine(line));
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0) {
+            System.err.println(version + ": measurement JVM exited with status " + exit);
+        }
+        return results;
+    }
+
+    private static void runChild(Map<String, String> options) throws Exception {
+        for (Result result : measure(options.get("child"), Paths.get(options.get("classes")), options)) {
+            System.out.println(result.toLine());
+        }
+    }
+
+    /**
+     * Drives every configuration through one compiled snapshot.
+     */
+    private static List<Result> measure(String version, Path classes, Map<String, String> options) throws Exception {
+        int samples = Integer.parseInt(options.getOrDefault("samples", "4096"));
+        long warmupNanos = Long.parseLong(options.getOrDefault("warmup-ms", "2000")) * 1_000_000L;
+        long measureNanos = Long.parseLong(options.getOrDefault("measure-ms", "3000")) * 1_000_000L;
+        List<Result> results = new ArrayList<>();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                ClassLoader.getPlatformClassLoader())) {
+            Class<?> signalClass = loader.loadClass(SIGNAL_CLASS);
+            Constructor<?> constructor = selectConstructor(signalClass);
+            Method getTime = signalClass.getMethod("getTime");
+            for (String variant : VARIANTS) {
+                for (String demodulation : DEMODULATIONS) {
+                    Object[] arguments = bind(constructor, variant, demodulation, samples);
+                    try {
+                        Object signal = constructor.newInstance(arguments);
+                        int actualSamples = ((double[]) getTime.invoke(signal)).length;
+                        run(constructor, arguments, warmupNanos);
+                        long allocatedBefore = allocatedBytes();
+                        long start = System.nanoTime();
+                        long ops = run(constructor, arguments, measureNanos);
+                        long elapsed = System.nanoTime() - start;
+                        long allocated = allocatedBytes() - allocatedBefore;
+                        results.add(new Result(version, variant, demodulation, actualSamples, (double) elapsed / ops,
+                                allocatedBefore < 0 ? Double.NaN : (double) allocated / ops, null));
+                    } catch (InvocationTargetException e) {
+                        results.add(new Result(version, variant, demodulation, samples, Double.NaN, Double.NaN,
+                                String.valueOf(e.getCause()).replace('\t', ' ').replace('\n', ' ')));
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static long run(Constructor<?> constructor, Object[] arguments, long durationNanos) throws Exception {
+        long ops = 0;
+        long end = System.nanoTime() + durationNanos;
+        Object sink = null;
+        do {
+            sink = constructor.newInstance(arguments);
+            ops++;
+        } while (System.nanoTime() < end);
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return ops;
+    }
+
+    /**
+     * Picks the public constructor with the most parameters among those that only take JDK types, i.e. the
+     * snapshot's full parameter set without later option objects.
+     */
+    private static Constructor<?> selectConstructor(Class<?> signalClass) {
+        return Arrays.stream(signalClass.getConstructors())
+                .filter(c -> Arrays.stream(c.getParameterTypes())
+                        .allMatch(t -> t.isPrimitive() || t.getComponentType() != null || t == String.class))
+                .max((a, b) -> Integer.compare(a.getParameterCount(), b.getParameterCount()))
+                .orElseThrow(() -> new IllegalStateException("No usable AMSignal constructor"));
+    }
+
+    /**
+     * Binds the shared configuration to a constructor by parameter name.
+     */
+    private static Object[] bind(Constructor<?> constructor, String variant, String demodulation, int samples) {
+        Parameter[] parameters = constructor.getParameters();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            String name = parameters[i].getName();
+            switch (name) {
+                case "variant":
+                    arguments[i] = variant;
+                    break;
+                case "carrierFreq":
+                    arguments[i] = 1000.0;
+                    break;
+                case "messageFreqs":
+                    arguments[i] = new double[]{100, 230};
+                    break;
+                case "amplitudes":
+                    arguments[i] = new double[]{1, 0.5};
+                    break;
+                case "modulationIndex":
+                    arguments[i] = 0.5;
+                    break;
+                case "phaseShift":
+                    arguments[i] = 45.0;
+                    break;
+                case "waveformType":
+                    arguments[i] = "Sine";
+                    break;
+                case "noiseType":
+                    arguments[i] = "White";
+                    break;
+                case "noiseAmplitude":
+                    arguments[i] = 0.05;
+                    break;
+                case "demodulationType":
+                    arguments[i] = demodulation;
+                    break;
+                case "pulseDutyCycle":
+                    arguments[i] = 50.0;
+                    break;
+                case "samples":
+                    arguments[i] = samples;
+                    break;
+                case "duration":
+                    arguments[i] = 0.05;
+                    break;
+                case "filterAlpha":
+                    arguments[i] = 0.2;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown AMSignal parameter '" + name
+                            + "' (snapshots must be compiled with -parameters)");
+            }
+        }
+        return arguments;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static void printTable(List<Result> results) {
+        PrintWriter out = new PrintWriter(System.out, true);
+        out.printf("%-8s %-7s %-13s %8s %12s %14s %12s%n", "Version", "Variant", "Demodulation", "Samples",
+                "us/op", "KB/op", "samples/us");
+        for (Result r : results) {
+            if (r.error != null) {
+                out.printf("%-8s %-7s %-13s %8d   failed: %s%n", r.version, r.variant, r.demodulation, r.samples, r.error);
+            } else {
+                out.printf("%-8s %-7s %-13s %8d %12.1f %14.1f %12.2f%n", r.version, r.variant, r.demodulation,
+                        r.samples, r.nanosPerOp / 1000, r.bytesPerOp / 1024, r.samples * 1000 / r.nanosPerOp);
+            }
+        }
+        // Geometric mean of the per-sample throughput, so snapshots with a fixed sample count stay comparable
+        Map<String, double[]> summary = new LinkedHashMap<>();
+        for (Result r : results) {
+            if (r.error == null) {
+                double[] s = summary.computeIfAbsent(r.version, v -> new double[2]);
+                s[0] += Math.log(r.samples * 1000 / r.nanosPerOp);
+                s[1]++;
+            }
+        }
+        out.println();
+        out.printf("%-8s %22s%n", "Version", "geomean samples/us");
+        summary.forEach((version, s) -> out.printf("%-8s %22.2f%n", version, Math.exp(s[0] / s[1])));
+    }
+
+    private static String toJson(List<Result> results) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append("  {\"snapshot\": \"").append(r.version)
+                    .append("\", \"variant\": \"").append(r.variant)
+                    .append("\", \"demodulation\": \"").append(r.demodulation)
+                    .append("\", \"samples\": ").append(r.samples);
+            if (r.error != null) {
+                json.append(", \"error\": \"").append(r.error.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            } else {
+                json.append(", \"nanosPerOp\": ").append(r.nanosPerOp)
+                        .append(", \"bytesPerOp\": ").append(Double.isNaN(r.bytesPerOp) ? "null" : r.bytesPerOp);
+            }
+            json.append(i + 1 < results.size() ? "},\n" : "}\n");
+        }
+        return json.append("]\n").toString();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            if (key.equals("in-process") || key.equals("keep-work")) {
+                options.put(key, "true");
+            } else if (i + 1 < args.length) {
+                options.put(key, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + key);
+            }
+        }
+        return options;
+    }
+}
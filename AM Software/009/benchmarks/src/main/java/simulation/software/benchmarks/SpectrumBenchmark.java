@@ -0,0 +1,72 @@
+package simulation.software.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.software.codebase.AMSignal;
+import simulation.software.codebase.FastFourierTransform;
+import simulation.software.codebase.SignalView;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FFT paths of the analysis windows. {@code SpectrumAnalysisFFT}, {@code TotalHarmonicDistortion} and
+ * {@code SignalToNoiseRatio} compute their spectra with {@link FastFourierTransform#hammingSpectrum} on a
+ * 1024-sample view of the modulated signal; the plain transform is measured over the simulation sizes as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectrumBenchmark {
+    private static final int ANALYSIS_WINDOW = 1024;
+
+    @Param({"1024", "4096", "16384"})
+    public int size;
+
+    private SignalView window;
+    private double[] signal;
+    private double[] re;
+    private double[] im;
+    private double[] windowRe;
+    private double[] windowIm;
+    private double[] magnitudes;
+
+    @Setup
+    public void setUp() {
+        AMSignal am = new AMSignal("DSB-AM", 1000, new double[]{100, 230}, new double[]{1, 0.5}, 0.5, 0, "Sine",
+                "White", 0.05, "None", 50, size, 0.1, 0.2);
+        window = SignalView.of(am.getSignalBuffer()).slice(0, ANALYSIS_WINDOW);
+        signal = am.getSignal();
+        re = new double[size];
+        im = new double[size];
+        windowRe = new double[ANALYSIS_WINDOW];
+        windowIm = new double[ANALYSIS_WINDOW];
+        magnitudes = new double[ANALYSIS_WINDOW / 2];
+    }
+
+    @Benchmark
+    public double[] analysisWindowSpectrum() {
+        FastFourierTransform.hammingSpectrum(window, windowRe, windowIm, magnitudes);
+        return magnitudes;
+    }
+
+    @Benchmark
+    public double[] fullSignalTransform() {
+        System.arraycopy(signal, 0, re, 0, size);
+        Arrays.fill(im, 0);
+        FastFourierTransform.transform(re, im);
+        return re;
+    }
+}
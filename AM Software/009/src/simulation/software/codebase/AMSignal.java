@@ -1,17 +1,35 @@
 package simulation.software.codebase;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
 /**
  * Represents an amplitude modulation signal with time, message, carrier, modulated, demodulated signals, and spectrum.
  */
 public class AMSignal {
-    private double[] time;
-    private double[] signal;
-    private double[] message;
-    private double[] carrier;
-    private double[] demodulatedSignal;
-    private double[] frequency;
-    private double[] spectrum;
+    // Signals still reachable anywhere in the application, for the memory metrics; AMSignal keeps identity equality
+    private static final Set<AMSignal> LIVE_SIGNALS = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+    private SignalBuffer time;
+    private SignalBuffer signal;
+    private SignalBuffer message;
+    private SignalBuffer carrier;
+    private SignalBuffer demodulatedSignal;
+    private SignalBuffer decimatedDemodulatedSignal;
+    private int decimationFactor;
+    private SignalBuffer frequency;
+    private SignalBuffer spectrum;
     private String variant;
+    private double carrierLockTime;
+    private double carrierPhaseErrorRms;
+    private double sampleRate;
+    private PipelineProfile profile;
+    private ComplexBasebandModulation complexBaseband;
 
     /**
      * Constructor for AMSignal.
@@ -35,73 +53,377 @@ public class AMSignal {
     public AMSignal(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes, double modulationIndex,
                     double phaseShift, String waveformType, String noiseType, double noiseAmplitude,
                     String demodulationType, double pulseDutyCycle, int samples, double duration, double filterAlpha) {
+        this(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift, waveformType, noiseType,
+                noiseAmplitude, demodulationType, pulseDutyCycle, samples, duration, filterAlpha, new SimulationOptions());
+    }
+
+    /**
+     * Constructor for AMSignal with optional simulation settings.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq    Carrier frequency in Hz (50–5000)
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift     Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param demodulationType Demodulation type (None, Coherent, Non-Coherent)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param samples        Number of samples (1024–16384)
+     * @param duration       Signal duration in seconds (0.01–1)
+     * @param filterAlpha    Low-pass filter alpha (0.01–1)
+     * @param options        Optional simulation settings (multirate mode, complex-baseband engine)
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public AMSignal(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes, double modulationIndex,
+                    double phaseShift, String waveformType, String noiseType, double noiseAmplitude,
+                    String demodulationType, double pulseDutyCycle, int samples, double duration, double filterAlpha,
+                    SimulationOptions options) {
         this.variant = variant;
+        long started = System.nanoTime();
+        if (options.isComplexBaseband()) {
+            upconvert(new ComplexBasebandModulation(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex,
+                    phaseShift, waveformType, noiseType, noiseAmplitude, demodulationType, pulseDutyCycle, samples,
+                    duration, filterAlpha, options), options.getStorage());
+            SimulationMetrics.recordSimulation(SimulationMetrics.COMPLEX_BASEBAND, System.nanoTime() - started);
+            LIVE_SIGNALS.add(this);
+            return;
+        }
+        this.sampleRate = samples / duration;
         ModulationAndDemodulation modDemod = new ModulationAndDemodulation(variant, carrierFreq, messageFreqs, amplitudes,
                 modulationIndex, phaseShift, waveformType, noiseType, noiseAmplitude, demodulationType, pulseDutyCycle,
-                samples, duration, filterAlpha);
-        
-        this.time = modDemod.getTime();
-        this.signal = modDemod.getModulatedSignal();
-        this.message = modDemod.getMessageSignal();
-        this.carrier = modDemod.getCarrierSignal();
-        this.demodulatedSignal = modDemod.getDemodulatedSignal();
-        this.frequency = modDemod.getFrequency();
-        this.spectrum = modDemod.getSpectrum();
+                samples, duration, filterAlpha, options);
+        SimulationMetrics.recordSimulation(SimulationMetrics.PASSBAND, System.nanoTime() - started);
+
+        SignalStorage storage = options.getStorage();
+        this.time = modDemod.getTimeBuffer();
+        this.signal = SignalBuffer.of(modDemod.getModulatedSignal(), storage);
+        this.message = SignalBuffer.of(modDemod.getMessageSignal(), storage);
+        this.carrier = modDemod.getCarrierBuffer();
+        this.demodulatedSignal = SignalBuffer.of(modDemod.getDemodulatedSignal(), storage);
+        this.decimationFactor = modDemod.getDecimationFactor();
+        this.decimatedDemodulatedSignal = decimationFactor == 1 ? demodulatedSignal
+                : SignalBuffer.of(modDemod.getDecimatedDemodulatedSignal(), storage);
+        this.frequency = SignalBuffer.of(modDemod.getFrequency(), storage);
+        this.spectrum = SignalBuffer.of(modDemod.getSpectrum(), storage);
+        this.carrierLockTime = modDemod.getCarrierLockTime();
+        this.carrierPhaseErrorRms = modDemod.getCarrierPhaseErrorRms();
+        this.profile = modDemod.getProfile();
+        LIVE_SIGNALS.add(this);
+    }
+
+    /**
+     * Fills the channels from a complex-baseband simulation, upconverted by the smallest factor that represents the
+     * carrier. The demodulated signal stays at the baseband rate as the decimated channel.
+     */
+    private void upconvert(ComplexBasebandModulation baseband, SignalStorage storage) {
+        int factor = baseband.getMinimumUpconversionFactor();
+        double[][] passband = baseband.toPassband(factor);
+        double rate = baseband.getSampleRate() * factor;
+        int length = passband[1].length;
+        this.complexBaseband = baseband;
+        this.sampleRate = rate;
+        this.time = new ComputedSignalBuffer(length, i -> i / rate);
+        this.signal = SignalBuffer.of(passband[1], storage);
+        this.message = SignalBuffer.of(new PolyphaseInterpolator(factor).interpolateAligned(baseband.getMessageSignal()),
+                storage);
+        this.carrier = ComputedSignalBuffer.cosine(length, baseband.getCarrierFrequency(), 1 / rate);
+        this.demodulatedSignal = SignalBuffer.of(
+                new PolyphaseInterpolator(factor).interpolateAligned(baseband.getDemodulatedSignal()), storage);
+        this.decimatedDemodulatedSignal = SignalBuffer.of(baseband.getDemodulatedSignal(), storage);
+        this.decimationFactor = factor;
+        this.frequency = SignalBuffer.of(baseband.getFrequency(), storage);
+        this.spectrum = SignalBuffer.of(baseband.getSpectrum(), storage);
+        this.carrierLockTime = Double.NaN;
+        this.carrierPhaseErrorRms = Double.NaN;
+        this.profile = baseband.getProfile();
+        if (profile != null) {
+            profile.mark(PipelineStage.INTERPOLATION);
+        }
     }
 
     /**
-     * Gets the time array.
+     * Constructor for AMSignal from a window of a recorded capture. Channels missing from the capture are left at
+     * zero, time is measured from the start of the window (as the analysis windows expect), and the spectrum is
+     * computed from the modulated channel.
+     *
+     * @param source Capture to read
+     * @param offset Index of the first sample of the window
+     * @param length Number of samples in the window
+     * @throws IOException if the capture cannot be read
+     */
+    public AMSignal(SignalSource source, long offset, int length) throws IOException {
+        if (length < 2 || offset < 0 || offset + length > source.getLength()) {
+            throw new IllegalArgumentException("Import window must lie inside the capture and hold at least two samples");
+        }
+        this.variant = "Imported";
+        this.sampleRate = source.getSampleRate();
+        double[] message = new double[length];
+        double[] carrier = new double[length];
+        double[] signal = new double[length];
+        double[] demodulatedSignal = new double[length];
+        double[][] channels = {message, carrier, signal, demodulatedSignal};
+        SignalColumn[] columns = {SignalColumn.MESSAGE, SignalColumn.CARRIER, SignalColumn.MODULATED,
+                SignalColumn.DEMODULATED};
+        for (int c = 0; c < columns.length; c++) {
+            if (source.hasColumn(columns[c])) {
+                source.read(columns[c], offset, channels[c], 0, length);
+            }
+        }
+        double rate = sampleRate;
+        this.time = new ComputedSignalBuffer(length, i -> i / rate);
+        this.message = new DoubleSignalBuffer(message);
+        this.carrier = new DoubleSignalBuffer(carrier);
+        this.signal = new DoubleSignalBuffer(signal);
+        this.demodulatedSignal = new DoubleSignalBuffer(demodulatedSignal);
+        this.decimatedDemodulatedSignal = this.demodulatedSignal;
+        this.decimationFactor = 1;
+        this.carrierLockTime = Double.NaN;
+        this.carrierPhaseErrorRms = Double.NaN;
+
+        // Single-sided amplitude spectrum, zero-padded to a power of two
+        int n = Integer.highestOneBit(length - 1) << 1;
+        double[] re = new double[n];
+        double[] im = new double[n];
+        System.arraycopy(signal, 0, re, 0, length);
+        FastFourierTransform.transform(re, im);
+        double[] frequency = new double[n / 2];
+        double[] spectrum = new double[n / 2];
+        for (int i = 0; i < n / 2; i++) {
+            frequency[i] = i * sampleRate / n;
+            spectrum[i] = 2 * Math.sqrt(re[i] * re[i] + im[i] * im[i]) / length;
+        }
+        this.frequency = new DoubleSignalBuffer(frequency);
+        this.spectrum = new DoubleSignalBuffer(spectrum);
+        LIVE_SIGNALS.add(this);
+    }
+
+    /**
+     * Gets the time array. The time axis is computed on demand, so this materializes a new array.
      * @return time array
      */
     public double[] getTime() {
+        return time.toDoubleArray();
+    }
+
+    /**
+     * Gets the time axis as a buffer evaluated on demand.
+     * @return time buffer
+     */
+    public SignalBuffer getTimeBuffer() {
         return time;
     }
 
     /**
      * Gets the modulated signal array.
-     * @return modulated signal array
+     * @return modulated signal array (a copy when stored as float)
      */
     public double[] getSignal() {
+        return signal.toDoubleArray();
+    }
+
+    /**
+     * Gets the stored modulated signal samples without widening them to a double array.
+     * @return modulated signal buffer
+     */
+    public SignalBuffer getSignalBuffer() {
         return signal;
     }
 
     /**
      * Gets the message signal array.
-     * @return message signal array
+     * @return message signal array (a copy when stored as float)
      */
     public double[] getMessage() {
+        return message.toDoubleArray();
+    }
+
+    /**
+     * Gets the stored message signal samples without widening them to a double array.
+     * @return message signal buffer
+     */
+    public SignalBuffer getMessageBuffer() {
         return message;
     }
 
     /**
-     * Gets the carrier signal array.
+     * Gets the carrier signal array. Generated carriers are computed on demand, so this materializes a new array.
      * @return carrier signal array
      */
     public double[] getCarrier() {
+        return carrier.toDoubleArray();
+    }
+
+    /**
+     * Gets the carrier signal as a buffer (evaluated on demand for generated signals).
+     * @return carrier signal buffer
+     */
+    public SignalBuffer getCarrierBuffer() {
         return carrier;
     }
 
     /**
      * Gets the demodulated signal array.
-     * @return demodulated signal array
+     * @return demodulated signal array (a copy when stored as float)
      */
     public double[] getDemodulatedSignal() {
+        return demodulatedSignal.toDoubleArray();
+    }
+
+    /**
+     * Gets the stored demodulated signal samples without widening them to a double array.
+     * @return demodulated signal buffer
+     */
+    public SignalBuffer getDemodulatedBuffer() {
         return demodulatedSignal;
     }
 
+    /**
+     * Gets the demodulated signal at the reduced (decimated) rate.
+     * Sample i corresponds to full-rate sample i * {@link #getDecimationFactor()}.
+     * @return decimated demodulated signal array (a copy when stored as float)
+     */
+    public double[] getDecimatedDemodulatedSignal() {
+        return decimatedDemodulatedSignal.toDoubleArray();
+    }
+
+    /**
+     * Gets the stored decimated demodulated samples without widening them to a double array.
+     * @return decimated demodulated signal buffer
+     */
+    public SignalBuffer getDecimatedDemodulatedBuffer() {
+        return decimatedDemodulatedSignal;
+    }
+
+    /**
+     * Gets the decimation factor between the full simulation rate and the decimated demodulated signal.
+     * @return decimation factor
+     */
+    public int getDecimationFactor() {
+        return decimationFactor;
+    }
+
     /**
      * Gets the frequency array.
-     * @return frequency array
+     * @return frequency array (a copy when stored as float)
      */
     public double[] getFrequency() {
+        return frequency.toDoubleArray();
+    }
+
+    /**
+     * Gets the stored frequency samples without widening them to a double array.
+     * @return frequency buffer
+     */
+    public SignalBuffer getFrequencyBuffer() {
         return frequency;
     }
 
     /**
      * Gets the spectrum array.
-     * @return spectrum array
+     * @return spectrum array (a copy when stored as float)
      */
     public double[] getSpectrum() {
+        return spectrum.toDoubleArray();
+    }
+
+    /**
+     * Gets the stored spectrum samples without widening them to a double array.
+     * @return spectrum buffer
+     */
+    public SignalBuffer getSpectrumBuffer() {
         return spectrum;
     }
+
+    /**
+     * Gets the time the coherent demodulator's carrier recovery loop needed to lock.
+     * @return lock time in seconds, or NaN if not coherently demodulated or never locked
+     */
+    public double getCarrierLockTime() {
+        return carrierLockTime;
+    }
+
+    /**
+     * Gets the sample rate.
+     * @return sample rate in Hz
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Gets the precision the signal samples are stored in.
+     * @return storage precision
+     */
+    public SignalStorage getStorage() {
+        return signal.storage();
+    }
+
+    /**
+     * Gets the RMS phase error of the carrier recovery loop while locked.
+     * @return RMS phase error in radians, or NaN if not coherently demodulated or never locked
+     */
+    public double getCarrierPhaseErrorRms() {
+        return carrierPhaseErrorRms;
+    }
+
+    /**
+     * Gets the per-stage timing and allocation of the pipeline run that produced this signal.
+     * @return pipeline profile, or null if profiling was disabled or the signal was imported
+     */
+    public PipelineProfile getPipelineProfile() {
+        return profile;
+    }
+
+    /**
+     * Gets the I/Q envelope this signal was upconverted from.
+     * @return complex-baseband simulation, or null if the signal was simulated at passband or imported
+     */
+    public ComplexBasebandModulation getComplexBaseband() {
+        return complexBaseband;
+    }
+
+    /**
+     * Gets the memory held by the stored sample buffers. Computed channels hold none, and a buffer shared by two
+     * channels is counted once.
+     * @return sample memory in bytes
+     */
+    public long getRetainedBytes() {
+        Set<SignalBuffer> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(buffers, time, signal, message, carrier, demodulatedSignal, decimatedDemodulatedSignal,
+                frequency, spectrum);
+        long bytes = 0;
+        for (SignalBuffer buffer : buffers) {
+            if (!(buffer instanceof ComputedSignalBuffer)) {
+                bytes += (long) buffer.length() * (buffer.storage() == SignalStorage.FLOAT ? Float.BYTES : Double.BYTES);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Counts the signals that have not been reclaimed by the garbage collector yet.
+     * @return live signal count
+     */
+    public static int getLiveSignalCount() {
+        return LIVE_SIGNALS.size();
+    }
+
+    /**
+     * Sums {@link #getRetainedBytes()} over the signals that have not been reclaimed by the garbage collector yet.
+     * @return sample memory in bytes
+     */
+    public static long getLiveSignalBytes() {
+        List<AMSignal> signals;
+        synchronized (LIVE_SIGNALS) {
+            signals = new ArrayList<>(LIVE_SIGNALS);
+        }
+        long bytes = 0;
+        for (AMSignal signal : signals) {
+            bytes += signal.getRetainedBytes();
+        }
+        return bytes;
+    }
 }
\ No newline at end of file
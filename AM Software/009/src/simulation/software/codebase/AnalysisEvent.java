@@ -0,0 +1,29 @@
+package simulation.software.codebase;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a THD or SNR analysis.
+ */
+@Name("simulation.software.Analysis")
+@Label("Signal Analysis")
+@Category({"AM Simulation", "Analysis"})
+@Description("Total harmonic distortion or signal-to-noise ratio analysis of a signal window")
+class AnalysisEvent extends Event {
+    @Label("Analysis")
+    String analysis;
+
+    @Label("Variant")
+    String variant;
+
+    @Label("Window Samples")
+    int samples;
+
+    @Label("Result")
+    @Description("THD in percent or SNR in dB")
+    double result;
+}
@@ -0,0 +1,149 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Decouples a slow {@link SignalBlockSink} from the producer: blocks are copied into pooled buffers and written
+ * by a dedicated I/O thread. The pool is bounded, so a producer that outruns the disk blocks until a buffer is
+ * free (backpressure) instead of queueing without limit. Write failures are reported on the next call to
+ * {@link #write} or on {@link #close}.
+ */
+public class AsyncExportSink implements SignalBlockSink {
+    private static final Block END = new Block(0, 0);
+
+    private final SignalBlockSink delegate;
+    private final int channels;
+    private final int blockCapacity;
+    private final BlockingQueue<Block> free;
+    private final BlockingQueue<Block> pending;
+    private final Thread writer;
+    private volatile IOException failure;
+    private boolean closed;
+
+    /**
+     * Constructor for AsyncExportSink.
+     *
+     * @param delegate      Sink that performs the actual writes (closed together with this sink)
+     * @param channels      Number of channels per block
+     * @param blockCapacity Maximum frames per block
+     * @param queueDepth    Number of blocks that may be in flight before the producer blocks
+     */
+    public AsyncExportSink(SignalBlockSink delegate, int channels, int blockCapacity, int queueDepth) {
+        if (channels < 1 || blockCapacity < 1 || queueDepth < 1) {
+            throw new IllegalArgumentException("Channels, block capacity and queue depth must be positive");
+        }
+        this.delegate = delegate;
+        this.channels = channels;
+        this.blockCapacity = blockCapacity;
+        this.free = new ArrayBlockingQueue<>(queueDepth);
+        this.pending = new ArrayBlockingQueue<>(queueDepth + 1);
+        for (int i = 0; i < queueDepth; i++) {
+            free.add(new Block(channels, blockCapacity));
+        }
+        this.writer = new Thread(this::drain, "signal-export");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Copies a block into a pooled buffer and queues it, waiting while all buffers are in flight.
+     * Blocks longer than the capacity are split.
+     */
+    @Override
+    public void write(double[][] data, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Sink is closed");
+        }
+        if (data.length != channels) {
+            throw new IllegalArgumentException("Expected " + channels + " channels, got " + data.length);
+        }
+        int done = 0;
+        while (done < length) {
+            checkFailure();
+            Block block = take(free);
+            int run = Math.min(blockCapacity, length - done);
+            for (int c = 0; c < channels; c++) {
+                System.arraycopy(data[c], offset + done, block.data[c], 0, run);
+            }
+            block.length = run;
+            pending.add(block);
+            done += run;
+        }
+    }
+
+    /**
+     * Waits for all queued blocks to be written, then closes the delegate.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for pending export blocks");
+        } finally {
+            try {
+                delegate.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        checkFailure();
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Block block = pending.take();
+                if (block == END) {
+                    return;
+                }
+                if (failure == null) {
+                    try {
+                        delegate.write(block.data, 0, block.length);
+                    } catch (IOException | RuntimeException e) {
+                        failure = e instanceof IOException ? (IOException) e : new IOException(e);
+                    }
+                }
+                // Buffers are recycled even after a failure so the producer never waits forever
+                free.add(block);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Block take(BlockingQueue<Block> queue) throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free export buffer");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Asynchronous export failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    private static final class Block {
+        final double[][] data;
+        int length;
+
+        Block(int channels, int capacity) {
+            this.data = new double[channels][capacity];
+        }
+    }
+}
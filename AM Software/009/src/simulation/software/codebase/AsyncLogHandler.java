@@ -0,0 +1,159 @@
+package simulation.software.codebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Log handler that queues records and publishes them to a delegate handler on a background thread, so logging
+ * callers never wait for message formatting or console I/O. When the queue is full, records are dropped and counted
+ * instead of blocking the caller. Records published after the handler is closed are discarded.
+ */
+public class AsyncLogHandler extends Handler {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final long POLL_MILLIS = 100;
+
+    private final Handler delegate;
+    private final BlockingQueue<LogRecord> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object progress = new Object();
+    private final Thread writer;
+    private long published; // Guarded by progress
+    private volatile boolean closed;
+
+    /**
+     * Constructor for AsyncLogHandler.
+     *
+     * @param delegate Handler that formats and writes the records
+     * @param capacity Maximum number of queued records
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public AsyncLogHandler(Handler delegate, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        setLevel(delegate.getLevel());
+        writer = new Thread(this::drain, "am-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Routes every handler of the root logger through an AsyncLogHandler. Calling it again has no effect.
+     */
+    public static synchronized void install() {
+        Logger root = Logger.getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            if (!(handler instanceof AsyncLogHandler)) {
+                root.removeHandler(handler);
+                root.addHandler(new AsyncLogHandler(handler, DEFAULT_CAPACITY));
+            }
+        }
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // JUL finds the calling method lazily from the current stack, so it must happen here, not on the writer thread
+        record.getSourceClassName();
+        if (queue.offer(record)) {
+            // The handler may have closed after the check above; take the record back unless the writer already has it
+            if (closed && queue.remove(record)) {
+                return;
+            }
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until the writer thread has published every record queued before the call, then flushes the delegate.
+     * Records are only published on the caller's thread if the writer has stopped.
+     */
+    @Override
+    public void flush() {
+        long target = enqueued.get();
+        if (Thread.currentThread() != writer) {
+            synchronized (progress) {
+                while (published < target && writer.isAlive()) {
+                    try {
+                        progress.wait(POLL_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        if (!writer.isAlive()) {
+            List<LogRecord> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            for (LogRecord record : pending) {
+                delegate.publish(record);
+            }
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (dropped.get() > 0) {
+            LogRecord record = new LogRecord(Level.WARNING, "{0,number,#} log records were dropped because the queue was full");
+            record.setParameters(new Object[]{dropped.get()});
+            delegate.publish(record);
+        }
+        delegate.close();
+    }
+
+    /**
+     * Gets the number of records dropped because the queue was full.
+     * @return dropped record count
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                LogRecord record = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    continue;
+                }
+                batch.add(record);
+                queue.drainTo(batch);
+                for (LogRecord pending : batch) {
+                    delegate.publish(pending);
+                }
+                synchronized (progress) {
+                    published += batch.size();
+                    progress.notifyAll();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Command-line runner for parameter sweeps, separate from the Swing application in {@link Main}. It reads a
+ * {@link SweepSpecification}, simulates every combination on a bounded thread pool and writes the THD, SNR and
+ * timing of each one. No AWT or Swing component is created, so it also runs on headless machines.
+ * <p>
+ * With {@code --trials N} every point is instead simulated N times with different noise seeds on a
+ * {@link TrialExecutor}, and the statistics of each point are written as one {@link TrialSummary} row.
+ * {@code --export-dir DIR} additionally exports the signal of the first trial of every point.
+ * <p>
+ * Usage: {@code java -cp am-simulation.jar simulation.software.codebase.BatchRunner sweep.properties
+ * [--output results.csv] [--binary] [--threads N] [--trials N] [--export-dir DIR]}
+ */
+public final class BatchRunner {
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(BatchRunner.class);
+    private static final int IN_FLIGHT_PER_THREAD = 4; // Keeps workers busy while bounding queued results
+    private static final int PROGRESS_STEPS = 10;
+    private static final long PROGRESS_INTERVAL_SECONDS = 1;
+
+    private BatchRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        AsyncLogHandler.install();
+        Path specification = null;
+        Path output = null;
+        boolean binary = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int trials = 0;
+        Path exportDirectory = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--output":
+                    output = Paths.get(argument(args, ++i));
+                    break;
+                case "--binary":
+                    binary = true;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(argument(args, ++i));
+                    break;
+                case "--trials":
+                    trials = Integer.parseInt(argument(args, ++i));
+                    break;
+                case "--export-dir":
+                    exportDirectory = Paths.get(argument(args, ++i));
+                    break;
+                default:
+                    if (args[i].startsWith("--") || specification != null) {
+                        usage("Unexpected argument " + args[i]);
+                    }
+                    specification = Paths.get(args[i]);
+            }
+        }
+        if (specification == null) {
+            usage("Missing sweep specification");
+        }
+        if (threads < 1) {
+            usage("Thread count must be positive");
+        }
+        if (trials < 0) {
+            usage("Trial count must be positive");
+        }
+        if (exportDirectory != null && trials == 0) {
+            usage("--export-dir requires --trials");
+        }
+        if (output == null) {
+            output = Paths.get(binary ? "sweep-results.bin" : "sweep-results.csv");
+        }
+
+        try {
+            SweepSpecification sweep = SweepSpecification.load(specification);
+            long started = System.nanoTime();
+            int failures;
+            try (SweepResultWriter writer = binary ? SweepResultWriter.binary(output) : SweepResultWriter.csv(output)) {
+                failures = trials > 0 ? runTrials(sweep, writer, threads, trials, exportDirectory)
+                        : run(sweep, writer, threads);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long simulations = (long) sweep.size() * Math.max(trials, 1);
+            System.out.printf(Locale.ROOT, "%d points (%d failed) in %.2f s, %.1f simulations/s on %d threads; "
+                    + "results in %s%n", sweep.size(), failures, seconds, simulations / seconds, threads,
+                    output.toAbsolutePath());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid sweep specification: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Runs every point of a sweep and writes the results in sweep order. At most a few points per thread are queued
+     * or waiting to be written at any time, so memory stays bounded however large the sweep is.
+     *
+     * @param sweep   Sweep to run
+     * @param writer  Destination of the results
+     * @param threads Number of worker threads
+     * @return number of points that could not be simulated
+     * @throws IOException if a result cannot be written
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public static int run(SweepSpecification sweep, SweepResultWriter writer, int threads)
+            throws IOException, InterruptedException {
+        List<SweepPoint> points = sweep.points();
+        Long seed = sweep.getNoiseSeed();
+        AtomicInteger workerCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "am-sweep-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<SweepResult>> pending = new ArrayDeque<>();
+        int failures = 0;
+        int written = 0;
+        int nextReport = 1;
+        try {
+            for (int i = 0; i <= points.size(); i++) {
+                // Write the oldest result when the window is full, and everything once all points are submitted
+                while (!pending.isEmpty() && (i == points.size() || pending.size() >= threads * IN_FLIGHT_PER_THREAD)) {
+                    SweepResult result = pending.removeFirst().get();
+                    writer.write(result);
+                    if (result.getError() != null) {
+                        failures++;
+                    }
+                    written++;
+                    if (written * PROGRESS_STEPS >= nextReport * points.size()) {
+                        LOGGER.log(Level.INFO, "Completed {0,number,#} of {1,number,#} sweep points", written, points.size());
+                        nextReport = written * PROGRESS_STEPS / points.size() + 1;
+                    }
+                }
+                if (i < points.size()) {
+                    SweepPoint point = points.get(i);
+                    pending.addLast(pool.submit(() -> point.evaluate(seed)));
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep point failed unexpectedly", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return failures;
+    }
+
+    /**
+     * Runs the seeded trials of every point of a sweep and writes one summary per point, in sweep order. The trials of
+     * each point are spread over all workers, and a few points per worker are in flight at once so that small trial
+     * counts still use every core. Trial i of every point uses the same noise seed, so points are compared under
+     * identical noise. Progress is logged every second.
+     *
+     * @param sweep           Sweep to run
+     * @param writer          Destination of the trial summaries
+     * @param threads         Number of worker threads
+     * @param trials          Number of trials per point
+     * @param exportDirectory Directory for the first-trial signal of every point, or null to export nothing
+     * @return number of points of which at least one trial could not be simulated
+     * @throws IOException if a summary or an export cannot be written
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public static int runTrials(SweepSpecification sweep, SweepResultWriter writer, int threads, int trials,
+                                Path exportDirectory) throws IOException, InterruptedException {
+        List<SweepPoint> points = sweep.points();
+        long seed;
+        if (sweep.getNoiseSeed() != null) {
+            seed = sweep.getNoiseSeed();
+        } else {
+            seed = new SplittableRandom().nextLong();
+            LOGGER.log(Level.INFO, "No seed in the sweep specification; using seed {0,number,#}", seed);
+        }
+        if (exportDirectory != null) {
+            Files.createDirectories(exportDirectory);
+        }
+        long total = (long) points.size() * trials;
+        List<CompletableFuture<Void>> exports = new ArrayList<>();
+        Deque<Future<TrialSummary>> pending = new ArrayDeque<>();
+        int failures = 0;
+        int written = 0;
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "am-trial-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (TrialExecutor executor = new TrialExecutor(threads)) {
+            long started = System.nanoTime();
+            progress.scheduleAtFixedRate(() -> {
+                long done = executor.getCompletedTrials();
+                double seconds = (System.nanoTime() - started) / 1e9;
+                LOGGER.log(Level.INFO, "Completed {0,number,#} of {1,number,#} trials ({2,number,#.#} trials/s)",
+                        done, total, done / seconds);
+            }, PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            for (int i = 0; i <= points.size(); i++) {
+                // Write the oldest summary when the window is full, and everything once all points are submitted
+                while (!pending.isEmpty() && (i == points.size() || pending.size() >= threads * IN_FLIGHT_PER_THREAD)) {
+                    int index = written++;
+                    TrialSummary summary = pending.removeFirst().get();
+                    writer.write(summary);
+                    if (summary.getFailures() > 0) {
+                        failures++;
+                    }
+                    if (exportDirectory != null && summary.getFailures() < trials) {
+                        String filename = exportDirectory.resolve("point-" + index + "."
+                                + ExportFormat.CSV.getExtension()).toString();
+                        exports.add(executor.exportFirstTrial(points.get(index), seed, filename, ExportFormat.CSV));
+                    }
+                }
+                if (i < points.size()) {
+                    pending.addLast(executor.submit(points.get(i), trials, seed));
+                }
+            }
+            try {
+                CompletableFuture.allOf(exports.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                throw new IOException("Signal export failed", e.getCause());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Trials of a sweep point failed unexpectedly", e.getCause());
+        } finally {
+            progress.shutdownNow();
+        }
+        return failures;
+    }
+
+    private static String argument(String[] args, int index) {
+        if (index >= args.length) {
+            usage("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: BatchRunner sweep.properties [--output results.csv] [--binary] [--threads N] "
+                + "[--trials N] [--export-dir DIR]");
+        System.exit(2);
+    }
+}
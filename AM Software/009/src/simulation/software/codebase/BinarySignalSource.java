@@ -0,0 +1,305 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped reader for interleaved binary captures: the raw format written by {@link BinarySignalWriter},
+ * headerless float32 captures, and PCM or float WAV files. Samples are decoded only when read.
+ */
+public class BinarySignalSource implements SignalSource {
+    private enum Encoding { PCM8, PCM16, PCM24, PCM32, FLOAT32, FLOAT64 }
+
+    private final MappedFileWindows file;
+    private final long dataOffset;
+    private final int channels;
+    private final int sampleBytes;
+    private final Encoding encoding;
+    private final long length;
+    private final double sampleRate;
+    private final int[] columnChannels = new int[SignalColumn.values().length];
+
+    private BinarySignalSource(MappedFileWindows file, long dataOffset, long dataBytes, int channels,
+                               Encoding encoding, int sampleBytes, double sampleRate) {
+        if (channels < 1 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Capture must have at least one channel and a positive sample rate");
+        }
+        this.file = file;
+        this.dataOffset = dataOffset;
+        this.channels = channels;
+        this.encoding = encoding;
+        this.sampleBytes = sampleBytes;
+        this.length = dataBytes / ((long) channels * sampleBytes);
+        this.sampleRate = sampleRate;
+        Arrays.fill(columnChannels, -1);
+    }
+
+    /**
+     * Opens a raw capture. Files starting with the {@link BinarySignalWriter} header are described by it;
+     * anything else is read as headerless mono float32 holding the modulated signal.
+     *
+     * @param path       Capture file
+     * @param sampleRate Sample rate in Hz for headerless files (ignored when the header provides one)
+     * @return the opened source
+     * @throws IOException if the file cannot be opened
+     */
+    public static BinarySignalSource openRaw(Path path, double sampleRate) throws IOException {
+        MappedFileWindows file = new MappedFileWindows(path);
+        try {
+            BinarySignalSource source;
+            if (file.size() >= BinarySignalWriter.RAW_HEADER_SIZE && file.getInt(0) == BinarySignalWriter.RAW_MAGIC) {
+                int bytes = file.getShort(6);
+                int channels = file.getInt(8);
+                long frames = file.getLong(12);
+                double rate = file.getDouble(20);
+                long available = file.size() - BinarySignalWriter.RAW_HEADER_SIZE;
+                long dataBytes = Math.min(available, frames * channels * bytes);
+                source = new BinarySignalSource(file, BinarySignalWriter.RAW_HEADER_SIZE, dataBytes, channels,
+                        bytes == 4 ? Encoding.FLOAT32 : Encoding.FLOAT64, bytes, rate);
+                source.assignColumns(false);
+            } else {
+                source = new BinarySignalSource(file, 0, file.size(), 1, Encoding.FLOAT32, 4, sampleRate);
+                source.columnChannels[SignalColumn.MODULATED.ordinal()] = 0;
+            }
+            return source;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a NumPy .npy capture holding a little-endian float32 or float64 array of shape (samples,) or
+     * (samples, channels), as written by {@link BinarySignalWriter#writeNpy}.
+     *
+     * @param path       Capture file
+     * @param sampleRate Sample rate in Hz (.npy files do not record one)
+     * @return the opened source
+     * @throws IOException if the file cannot be opened or holds an unsupported array
+     */
+    public static BinarySignalSource openNpy(Path path, double sampleRate) throws IOException {
+        MappedFileWindows file = new MappedFileWindows(path);
+        try {
+            if (file.size() < 10 || (file.get(0) & 0xFF) != 0x93 || file.get(1) != 'N') {
+                throw new IOException("Not a NumPy .npy file: " + path);
+            }
+            int major = file.get(6);
+            long headerLength = major == 1 ? file.getShort(8) & 0xFFFF : file.getInt(8) & 0xFFFFFFFFL;
+            long dataOffset = (major == 1 ? 10 : 12) + headerLength;
+            StringBuilder header = new StringBuilder();
+            for (long p = dataOffset - headerLength; p < dataOffset; p++) {
+                header.append((char) file.get(p));
+            }
+            String dict = header.toString().replace(" ", "");
+            Encoding encoding;
+            if (dict.contains("'descr':'<f8'")) {
+                encoding = Encoding.FLOAT64;
+            } else if (dict.contains("'descr':'<f4'")) {
+                encoding = Encoding.FLOAT32;
+            } else {
+                throw new IOException("Unsupported .npy dtype (expected <f4 or <f8): " + header.toString().trim());
+            }
+            if (dict.contains("'fortran_order':True")) {
+                throw new IOException("Fortran-ordered .npy arrays are not supported");
+            }
+            String shape = dict.substring(dict.indexOf("'shape':(") + 9);
+            String[] dims = shape.substring(0, shape.indexOf(')')).split(",");
+            int channels = dims.length > 1 && !dims[1].isEmpty() ? Integer.parseInt(dims[1]) : 1;
+            int bytes = encoding == Encoding.FLOAT64 ? 8 : 4;
+            long dataBytes = Math.min(file.size() - dataOffset, Long.parseLong(dims[0]) * channels * bytes);
+            BinarySignalSource source = new BinarySignalSource(file, dataOffset, dataBytes, channels, encoding, bytes,
+                    sampleRate);
+            source.assignColumns(false);
+            return source;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a WAV capture (8/16/24/32-bit PCM or 32/64-bit float, including WAVE_FORMAT_EXTENSIBLE).
+     *
+     * @param path Capture file
+     * @return the opened source
+     * @throws IOException if the file cannot be opened or is not a supported WAV file
+     */
+    public static BinarySignalSource openWav(Path path) throws IOException {
+        MappedFileWindows file = new MappedFileWindows(path);
+        try {
+            if (file.size() < 12 || file.getInt(0) != fourCC("RIFF") || file.getInt(8) != fourCC("WAVE")) {
+                throw new IOException("Not a RIFF/WAVE file: " + path);
+            }
+            int formatTag = -1;
+            int channels = 0;
+            int sampleRate = 0;
+            int bits = 0;
+            long position = 12;
+            while (position + 8 <= file.size()) {
+                int id = file.getInt(position);
+                long chunkSize = file.getInt(position + 4) & 0xFFFFFFFFL;
+                long body = position + 8;
+                if (id == fourCC("fmt ")) {
+                    formatTag = file.getShort(body) & 0xFFFF;
+                    channels = file.getShort(body + 2) & 0xFFFF;
+                    sampleRate = file.getInt(body + 4);
+                    bits = file.getShort(body + 14) & 0xFFFF;
+                    if (formatTag == 0xFFFE && chunkSize >= 26) {
+                        formatTag = file.getShort(body + 24) & 0xFFFF; // Sub-format GUID starts with the format tag
+                    }
+                } else if (id == fourCC("data")) {
+                    if (formatTag < 0) {
+                        throw new IOException("WAV data chunk precedes the fmt chunk");
+                    }
+                    Encoding encoding = wavEncoding(formatTag, bits);
+                    long dataBytes = Math.min(chunkSize, file.size() - body);
+                    BinarySignalSource source = new BinarySignalSource(file, body, dataBytes, channels, encoding,
+                            bits / 8, sampleRate);
+                    source.assignColumns(true);
+                    return source;
+                }
+                position = body + chunkSize + (chunkSize & 1); // Chunks are word aligned
+            }
+            throw new IOException("WAV file has no data chunk: " + path);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public boolean hasColumn(SignalColumn column) {
+        return columnChannels[column.ordinal()] >= 0;
+    }
+
+    @Override
+    public void read(SignalColumn column, long offset, double[] destination, int destOffset, int count)
+            throws IOException {
+        int channel = columnChannels[column.ordinal()];
+        if (channel < 0) {
+            throw new IllegalArgumentException("Capture has no " + column.getHeader() + " channel");
+        }
+        if (offset < 0 || offset + count > length) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + count + " outside 0.." + length);
+        }
+        int frameBytes = channels * sampleBytes;
+        long position = dataOffset + offset * frameBytes + (long) channel * sampleBytes;
+        // Decode window by window: one mapped view per run of frames instead of a window lookup per sample
+        for (int i = 0; i < count; ) {
+            long remaining = (long) (count - i - 1) * frameBytes + sampleBytes;
+            ByteBuffer view = file.view(position, (int) Math.min(Integer.MAX_VALUE, remaining));
+            int frames = Math.min(count - i, (view.limit() - sampleBytes) / frameBytes + 1);
+            decode(view, frameBytes, frames, destination, destOffset + i);
+            i += frames;
+            position += (long) frames * frameBytes;
+        }
+    }
+
+    /**
+     * Decodes one sample per frame from the start of a view.
+     */
+    private void decode(ByteBuffer view, int frameBytes, int frames, double[] destination, int destOffset) {
+        int end = frames * frameBytes;
+        int d = destOffset;
+        switch (encoding) {
+            case PCM8:
+                for (int p = 0; p < end; p += frameBytes) {
+                    destination[d++] = ((view.get(p) & 0xFF) - 128) / 128.0; // 8-bit WAV is unsigned
+                }
+                break;
+            case PCM16:
+                for (int p = 0; p < end; p += frameBytes) {
+                    destination[d++] = view.getShort(p) / 32768.0;
+                }
+                break;
+            case PCM24:
+                for (int p = 0; p < end; p += frameBytes) {
+                    int s24 = (view.get(p) & 0xFF) | (view.get(p + 1) & 0xFF) << 8 | view.get(p + 2) << 16;
+                    destination[d++] = s24 / 8388608.0;
+                }
+                break;
+            case PCM32:
+                for (int p = 0; p < end; p += frameBytes) {
+                    destination[d++] = view.getInt(p) / 2147483648.0;
+                }
+                break;
+            case FLOAT32:
+                for (int p = 0; p < end; p += frameBytes) {
+                    destination[d++] = view.getFloat(p);
+                }
+                break;
+            default:
+                if (frameBytes == Double.BYTES) {
+                    view.asDoubleBuffer().get(destination, destOffset, frames); // Mono float64: one bulk copy
+                } else {
+                    for (int p = 0; p < end; p += frameBytes) {
+                        destination[d++] = view.getDouble(p);
+                    }
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Maps channels to signal columns using the layouts written by {@link DataExporter}; otherwise the first
+     * channel is taken as the modulated signal.
+     */
+    private void assignColumns(boolean wav) {
+        SignalColumn[] layout;
+        if (!wav && channels == SignalColumn.values().length) {
+            layout = SignalColumn.values();
+        } else if (wav && channels == ExportFormat.WAV_PCM16.defaultColumns().length) {
+            layout = ExportFormat.WAV_PCM16.defaultColumns();
+        } else if (!wav && channels == 2) {
+            layout = new SignalColumn[]{SignalColumn.TIME, SignalColumn.DEMODULATED}; // Decimated export
+        } else {
+            layout = new SignalColumn[]{SignalColumn.MODULATED};
+        }
+        for (int c = 0; c < layout.length; c++) {
+            columnChannels[layout[c].ordinal()] = c;
+        }
+    }
+
+    private static Encoding wavEncoding(int formatTag, int bits) throws IOException {
+        if (formatTag == 1) {
+            switch (bits) {
+                case 8:
+                    return Encoding.PCM8;
+                case 16:
+                    return Encoding.PCM16;
+                case 24:
+                    return Encoding.PCM24;
+                case 32:
+                    return Encoding.PCM32;
+            }
+        } else if (formatTag == 3) {
+            if (bits == 32) {
+                return Encoding.FLOAT32;
+            } else if (bits == 64) {
+                return Encoding.FLOAT64;
+            }
+        }
+        throw new IOException("Unsupported WAV encoding (format " + formatTag + ", " + bits + " bits)");
+    }
+
+    private static int fourCC(String id) {
+        return id.charAt(0) | id.charAt(1) << 8 | id.charAt(2) << 16 | id.charAt(3) << 24;
+    }
+}
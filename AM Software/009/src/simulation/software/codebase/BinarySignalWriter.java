@@ -0,0 +1,293 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary signal writers (raw interleaved samples, WAV and NumPy .npy). Channels are interleaved sample by sample
+ * into a reusable direct buffer and written through a {@link FileChannel}, so no objects are allocated per sample.
+ * All formats are little-endian.
+ */
+public final class BinarySignalWriter {
+    /** Magic number at the start of raw files ("AMRW"). */
+    public static final int RAW_MAGIC = 0x57524D41;
+    /** Version of the raw file header. */
+    public static final short RAW_VERSION = 1;
+    /** Size of the raw file header in bytes. */
+    public static final int RAW_HEADER_SIZE = 32;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long MAX_WAV_DATA_BYTES = 0xFFFFFFFFL - 64;
+
+    private BinarySignalWriter() {
+    }
+
+    /**
+     * Writes a raw file: a 32-byte header (magic, version, bytes per sample, channel count, sample count,
+     * sample rate, reserved) followed by interleaved float32 or float64 samples.
+     *
+     * @param path       Output file
+     * @param channels   Channel arrays of equal length
+     * @param sampleRate Sample rate in Hz (stored in the header)
+     * @param float32    True for float32 samples, false for float64
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeRaw(Path path, double[][] channels, double sampleRate, boolean float32) throws IOException {
+        writeRaw(path, wrap(channels), sampleRate, float32);
+    }
+
+    /**
+     * Writes a raw file from stored signal buffers, reading float storage without widening it to arrays first.
+     *
+     * @param path       Output file
+     * @param channels   Channel buffers of equal length
+     * @param sampleRate Sample rate in Hz (stored in the header)
+     * @param float32    True for float32 samples, false for float64
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeRaw(Path path, SignalBuffer[] channels, double sampleRate, boolean float32)
+            throws IOException {
+        int length = checkChannels(channels);
+        ByteBuffer buffer = newBuffer();
+        buffer.putInt(RAW_MAGIC);
+        buffer.putShort(RAW_VERSION);
+        buffer.putShort((short) (float32 ? 4 : 8));
+        buffer.putInt(channels.length);
+        buffer.putLong(length);
+        buffer.putDouble(sampleRate);
+        buffer.putInt(0);
+        try (FileChannel channel = open(path)) {
+            writeInterleaved(channel, buffer, channels, length, float32 ? SampleEncoding.FLOAT32 : SampleEncoding.FLOAT64, 1);
+        }
+    }
+
+    /**
+     * Writes a WAV file. PCM formats are normalized by the peak of all channels so relative levels are kept;
+     * float WAV stores the samples unscaled.
+     *
+     * @param path       Output file
+     * @param channels   Channel arrays of equal length
+     * @param sampleRate Sample rate in Hz (rounded to an integer)
+     * @param format     One of the WAV export formats
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the format is not WAV or the data exceeds the 4 GB WAV limit
+     */
+    public static void writeWav(Path path, double[][] channels, double sampleRate, ExportFormat format) throws IOException {
+        writeWav(path, wrap(channels), sampleRate, format);
+    }
+
+    /**
+     * Writes a WAV file from stored signal buffers.
+     *
+     * @param path       Output file
+     * @param channels   Channel buffers of equal length
+     * @param sampleRate Sample rate in Hz (rounded to an integer)
+     * @param format     One of the WAV export formats
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the format is not WAV or the data exceeds the 4 GB WAV limit
+     */
+    public static void writeWav(Path path, SignalBuffer[] channels, double sampleRate, ExportFormat format)
+            throws IOException {
+        if (!format.isWav()) {
+            throw new IllegalArgumentException("Not a WAV format: " + format);
+        }
+        int length = checkChannels(channels);
+        SampleEncoding encoding;
+        switch (format) {
+            case WAV_PCM16:
+                encoding = SampleEncoding.PCM16;
+                break;
+            case WAV_PCM24:
+                encoding = SampleEncoding.PCM24;
+                break;
+            case WAV_PCM32:
+                encoding = SampleEncoding.PCM32;
+                break;
+            default:
+                encoding = SampleEncoding.FLOAT32;
+                break;
+        }
+        int blockAlign = channels.length * encoding.bytes;
+        long dataBytes = (long) length * blockAlign;
+        if (dataBytes > MAX_WAV_DATA_BYTES) {
+            throw new IllegalArgumentException("Signal too large for a WAV file; use raw or .npy export");
+        }
+        int rate = (int) Math.round(sampleRate);
+        boolean isFloat = encoding == SampleEncoding.FLOAT32;
+
+        ByteBuffer buffer = newBuffer();
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) ((isFloat ? 50 : 36) + dataBytes));
+        buffer.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        buffer.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(isFloat ? 18 : 16);
+        buffer.putShort((short) (isFloat ? 3 : 1)); // WAVE_FORMAT_IEEE_FLOAT or WAVE_FORMAT_PCM
+        buffer.putShort((short) channels.length);
+        buffer.putInt(rate);
+        buffer.putInt(rate * blockAlign);
+        buffer.putShort((short) blockAlign);
+        buffer.putShort((short) (encoding.bytes * 8));
+        if (isFloat) {
+            // Non-PCM formats carry an extension size and a fact chunk
+            buffer.putShort((short) 0);
+            buffer.put("fact".getBytes(StandardCharsets.US_ASCII));
+            buffer.putInt(4);
+            buffer.putInt(length);
+        }
+        buffer.put("data".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt((int) dataBytes);
+
+        double scale = 1;
+        if (!isFloat) {
+            double peak = 0;
+            for (SignalBuffer channel : channels) {
+                for (int i = 0; i < length; i++) {
+                    peak = Math.max(peak, Math.abs(channel.get(i)));
+                }
+            }
+            scale = peak > 0 ? 1 / peak : 0;
+        }
+        try (FileChannel channel = open(path)) {
+            writeInterleaved(channel, buffer, channels, length, encoding, scale);
+        }
+    }
+
+    /**
+     * Writes a NumPy .npy file (format version 1.0) holding a float64 array of shape (samples, channels),
+     * or (samples,) for a single channel.
+     *
+     * @param path     Output file
+     * @param channels Channel arrays of equal length
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeNpy(Path path, double[][] channels) throws IOException {
+        writeNpy(path, wrap(channels));
+    }
+
+    /**
+     * Writes a NumPy .npy file from stored signal buffers.
+     *
+     * @param path     Output file
+     * @param channels Channel buffers of equal length
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeNpy(Path path, SignalBuffer[] channels) throws IOException {
+        int length = checkChannels(channels);
+        String shape = channels.length == 1 ? "(" + length + ",)" : "(" + length + ", " + channels.length + ")";
+        StringBuilder header = new StringBuilder("{'descr': '<f8', 'fortran_order': False, 'shape': ")
+                .append(shape).append(", }");
+        // Magic (6) + version (2) + header length (2) + header, padded with spaces to a multiple of 64 and ended by '\n'
+        int total = 10 + header.length() + 1;
+        int padding = (64 - total % 64) % 64;
+        for (int i = 0; i < padding; i++) {
+            header.append(' ');
+        }
+        header.append('\n');
+
+        ByteBuffer buffer = newBuffer();
+        buffer.put((byte) 0x93);
+        buffer.put("NUMPY".getBytes(StandardCharsets.US_ASCII));
+        buffer.put((byte) 1);
+        buffer.put((byte) 0);
+        buffer.putShort((short) header.length());
+        buffer.put(header.toString().getBytes(StandardCharsets.US_ASCII));
+        try (FileChannel channel = open(path)) {
+            writeInterleaved(channel, buffer, channels, length, SampleEncoding.FLOAT64, 1);
+        }
+    }
+
+    private enum SampleEncoding {
+        PCM16(2), PCM24(3), PCM32(4), FLOAT32(4), FLOAT64(8);
+
+        final int bytes;
+
+        SampleEncoding(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Interleaves the channels into the buffer (which may already hold a header) and drains it to the file.
+     */
+    private static void writeInterleaved(FileChannel channel, ByteBuffer buffer, SignalBuffer[] channels, int length,
+                                         SampleEncoding encoding, double scale) throws IOException {
+        int frameBytes = channels.length * encoding.bytes;
+        for (int i = 0; i < length; i++) {
+            if (buffer.remaining() < frameBytes) {
+                drain(channel, buffer);
+            }
+            for (SignalBuffer data : channels) {
+                double v = data.get(i);
+                switch (encoding) {
+                    case PCM16:
+                        buffer.putShort((short) quantize(v * scale, Short.MAX_VALUE));
+                        break;
+                    case PCM24:
+                        int s24 = (int) quantize(v * scale, 0x7FFFFF);
+                        buffer.put((byte) s24);
+                        buffer.put((byte) (s24 >> 8));
+                        buffer.put((byte) (s24 >> 16));
+                        break;
+                    case PCM32:
+                        buffer.putInt((int) quantize(v * scale, Integer.MAX_VALUE));
+                        break;
+                    case FLOAT32:
+                        buffer.putFloat((float) v);
+                        break;
+                    default:
+                        buffer.putDouble(v);
+                        break;
+                }
+            }
+        }
+        drain(channel, buffer);
+    }
+
+    private static long quantize(double v, long fullScale) {
+        long q = Math.round(v * fullScale);
+        return Math.max(-fullScale, Math.min(fullScale, q));
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static SignalBuffer[] wrap(double[][] channels) {
+        SignalBuffer[] buffers = new SignalBuffer[channels.length];
+        for (int c = 0; c < channels.length; c++) {
+            buffers[c] = new DoubleSignalBuffer(channels[c]);
+        }
+        return buffers;
+    }
+
+    private static int checkChannels(SignalBuffer[] channels) {
+        if (channels.length == 0) {
+            throw new IllegalArgumentException("At least one channel is required");
+        }
+        int length = channels[0].length();
+        for (SignalBuffer channel : channels) {
+            if (channel.length() != length) {
+                throw new IllegalArgumentException("All channels must have the same length");
+            }
+        }
+        return length;
+    }
+
+    private static ByteBuffer newBuffer() {
+        return ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
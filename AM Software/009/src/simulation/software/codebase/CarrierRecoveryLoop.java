@@ -0,0 +1,170 @@
+package simulation.software.codebase;
+
+/**
+ * Costas-loop carrier recovery with a second-order loop filter and a table-driven NCO.
+ * The loop keeps its state between calls to {@link #process}, so it can run block by block on streamed signals
+ * and track a carrier whose frequency is offset from the nominal value.
+ */
+public class CarrierRecoveryLoop {
+    private static final int TABLE_SIZE = 4096;
+    private static final double[] SINE_TABLE = new double[TABLE_SIZE + 1];
+    private static final double TWO_PI = 2 * Math.PI;
+    private static final double TABLE_SCALE = TABLE_SIZE / TWO_PI;
+    private static final double LOCK_THRESHOLD = 0.9; // Smoothed cos(2 * phase error) required to declare lock
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SINE_TABLE[i] = Math.sin(TWO_PI * i / TABLE_SIZE);
+        }
+    }
+
+    private final double sampleRate;
+    private final double nominalIncrement;
+    private final double proportionalGain;
+    private final double integralGain;
+    private final double armAlpha;
+    private final double lockAlpha;
+
+    private double phase;
+    private double integrator;
+    private double i1, i2, q1, q2;
+    private double lockMetric;
+    private long samplesProcessed;
+    private long lockSample = -1;
+    private long lockedSamples;
+    private double phaseErrorSquaredSum;
+
+    /**
+     * Constructor for CarrierRecoveryLoop.
+     *
+     * @param nominalFreq   Nominal carrier frequency in Hz
+     * @param sampleRate    Sample rate in Hz
+     * @param loopBandwidth Loop noise bandwidth in Hz
+     * @param damping       Loop damping factor (0.707 for a critically damped response)
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public CarrierRecoveryLoop(double nominalFreq, double sampleRate, double loopBandwidth, double damping) {
+        if (nominalFreq <= 0 || nominalFreq >= sampleRate / 2) {
+            throw new IllegalArgumentException("Carrier frequency must be between 0 and the Nyquist frequency");
+        }
+        if (loopBandwidth <= 0 || damping <= 0) {
+            throw new IllegalArgumentException("Loop bandwidth and damping must be positive");
+        }
+        this.sampleRate = sampleRate;
+        this.nominalIncrement = TWO_PI * nominalFreq / sampleRate;
+
+        // Second-order loop filter gains from noise bandwidth and damping (detector and NCO gains of one)
+        double theta = loopBandwidth / sampleRate / (damping + 1 / (4 * damping));
+        double denominator = 1 + 2 * damping * theta + theta * theta;
+        this.proportionalGain = 4 * damping * theta / denominator;
+        this.integralGain = 4 * theta * theta / denominator;
+
+        // Arm filters reject the 2fc mixing product; the lock detector settles with the loop
+        this.armAlpha = 1 - Math.exp(-TWO_PI * (nominalFreq / 4) / sampleRate);
+        this.lockAlpha = Math.min(1, TWO_PI * loopBandwidth / sampleRate);
+    }
+
+    /**
+     * Mixes one block of the received signal with the recovered carrier and advances the loop.
+     *
+     * @param input     Received passband samples
+     * @param inOffset  Offset of the first input sample
+     * @param output    In-phase mixer output (received signal times recovered carrier)
+     * @param outOffset Offset of the first output sample
+     * @param length    Number of samples to process
+     */
+    public void process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        for (int n = 0; n < length; n++) {
+            double x = input[inOffset + n];
+            double index = phase * TABLE_SCALE;
+            int i0 = (int) index;
+            double frac = index - i0;
+            i0 &= TABLE_SIZE - 1; // Rounding can leave the phase at exactly 2 pi
+            double sin = SINE_TABLE[i0] + frac * (SINE_TABLE[i0 + 1] - SINE_TABLE[i0]);
+            int c0 = (i0 + TABLE_SIZE / 4) & (TABLE_SIZE - 1);
+            double cos = SINE_TABLE[c0] + frac * (SINE_TABLE[c0 + 1] - SINE_TABLE[c0]);
+
+            double inPhase = x * cos;
+            double quadrature = -x * sin;
+            output[outOffset + n] = inPhase;
+
+            i1 += armAlpha * (inPhase - i1);
+            i2 += armAlpha * (i1 - i2);
+            q1 += armAlpha * (quadrature - q1);
+            q2 += armAlpha * (q1 - q2);
+
+            // Costas detector normalized by arm power: sin(2 * error) / 2, i.e. the phase error for small errors
+            double power = i2 * i2 + q2 * q2;
+            double error = power > 0 ? i2 * q2 / power : 0;
+            double lock = power > 0 ? (i2 * i2 - q2 * q2) / power : 0;
+
+            integrator += integralGain * error;
+            phase += nominalIncrement + proportionalGain * error + integrator;
+            if (phase >= TWO_PI) {
+                phase -= TWO_PI;
+            } else if (phase < 0) {
+                phase += TWO_PI;
+            }
+
+            lockMetric += lockAlpha * (lock - lockMetric);
+            if (lockMetric >= LOCK_THRESHOLD) {
+                if (lockSample < 0) {
+                    lockSample = samplesProcessed;
+                }
+                lockedSamples++;
+                phaseErrorSquaredSum += error * error;
+            } else {
+                lockSample = -1;
+                lockedSamples = 0;
+                phaseErrorSquaredSum = 0;
+            }
+            samplesProcessed++;
+        }
+    }
+
+    /**
+     * Clears the loop state.
+     */
+    public void reset() {
+        phase = 0;
+        integrator = 0;
+        i1 = i2 = q1 = q2 = 0;
+        lockMetric = 0;
+        samplesProcessed = 0;
+        lockSample = -1;
+        lockedSamples = 0;
+        phaseErrorSquaredSum = 0;
+    }
+
+    /**
+     * Checks whether the loop is currently locked.
+     * @return true if locked
+     */
+    public boolean isLocked() {
+        return lockSample >= 0;
+    }
+
+    /**
+     * Gets the time from the start of processing until the loop (last) achieved lock.
+     * @return lock time in seconds, or NaN if the loop is not locked
+     */
+    public double getLockTime() {
+        return lockSample >= 0 ? lockSample / sampleRate : Double.NaN;
+    }
+
+    /**
+     * Gets the RMS phase error while locked.
+     * @return RMS phase error in radians, or NaN if the loop is not locked
+     */
+    public double getPhaseErrorRms() {
+        return lockedSamples > 0 ? Math.sqrt(phaseErrorSquaredSum / lockedSamples) : Double.NaN;
+    }
+
+    /**
+     * Gets the recovered frequency offset relative to the nominal carrier.
+     * @return frequency offset in Hz
+     */
+    public double getFrequencyOffset() {
+        return integrator * sampleRate / TWO_PI;
+    }
+}
@@ -0,0 +1,289 @@
+package simulation.software.codebase;
+
+/**
+ * Complex-baseband (I/Q) equivalent of {@link ModulationAndDemodulation}.
+ * The modulated signal is represented by its complex envelope, s(t) = I(t) cos(2 pi fc t) - Q(t) sin(2 pi fc t),
+ * so the sample rate only has to cover the message band instead of the carrier. Upconversion to passband is
+ * available for display and export.
+ */
+public class ComplexBasebandModulation {
+    private static final int MAX_SAMPLES = 1 << 22;
+
+    private double[] time;
+    private double[] messageSignal;
+    private double[] inPhase;
+    private double[] quadrature;
+    private double[] demodulatedSignal;
+    private double[] frequency;
+    private double[] spectrum;
+    private final double carrierFreq;
+    private final double sampleRate;
+    private PipelineProfile profile;
+
+    /**
+     * Constructor for ComplexBasebandModulation.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq    Carrier frequency in Hz (any positive value; only used for labelling and upconversion)
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift     Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param demodulationType Demodulation type (None, Coherent, Non-Coherent)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param samples        Number of baseband samples (power of two, 1024–4194304)
+     * @param duration       Signal duration in seconds
+     * @param filterAlpha    Low-pass filter alpha (0.01–1), applied at the baseband rate
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public ComplexBasebandModulation(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                                     double modulationIndex, double phaseShift, String waveformType, String noiseType,
+                                     double noiseAmplitude, String demodulationType, double pulseDutyCycle,
+                                     int samples, double duration, double filterAlpha) {
+        this(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift, waveformType, noiseType,
+                noiseAmplitude, demodulationType, pulseDutyCycle, samples, duration, filterAlpha, new SimulationOptions());
+    }
+
+    /**
+     * Constructor for ComplexBasebandModulation with optional simulation settings.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq    Carrier frequency in Hz (any positive value; only used for labelling and upconversion)
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift     Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param demodulationType Demodulation type (None, Coherent, Non-Coherent)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param samples        Number of baseband samples (power of two, 1024–4194304)
+     * @param duration       Signal duration in seconds
+     * @param filterAlpha    Low-pass filter alpha (0.01–1), applied at the baseband rate
+     * @param options        Optional simulation settings (the noise seed and profiling apply to the baseband engine)
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public ComplexBasebandModulation(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                                     double modulationIndex, double phaseShift, String waveformType, String noiseType,
+                                     double noiseAmplitude, String demodulationType, double pulseDutyCycle,
+                                     int samples, double duration, double filterAlpha, SimulationOptions options) {
+        if (carrierFreq <= 0) {
+            throw new IllegalArgumentException("Carrier frequency must be positive");
+        }
+        if (messageFreqs.length == 0 || messageFreqs.length != amplitudes.length) {
+            throw new IllegalArgumentException("Message frequencies and amplitudes must be non-empty and match in length");
+        }
+        if (modulationIndex < 0 || modulationIndex > 2) {
+            throw new IllegalArgumentException("Modulation index must be between 0 and 2");
+        }
+        if (variant.equalsIgnoreCase("QAM") && (phaseShift < 0 || phaseShift > 360)) {
+            throw new IllegalArgumentException("Phase shift must be between 0 and 360 degrees for QAM");
+        }
+        if (pulseDutyCycle < 0 || pulseDutyCycle > 100) {
+            throw new IllegalArgumentException("Pulse duty cycle must be between 0 and 100%");
+        }
+        if (noiseAmplitude < 0 || noiseAmplitude > 1) {
+            throw new IllegalArgumentException("Noise amplitude must be between 0 and 1");
+        }
+        if (samples < 1024 || samples > MAX_SAMPLES || Integer.bitCount(samples) != 1) {
+            throw new IllegalArgumentException("Sample count must be a power of two between 1024 and " + MAX_SAMPLES);
+        }
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        if (filterAlpha < 0.01 || filterAlpha > 1) {
+            throw new IllegalArgumentException("Filter alpha must be between 0.01 and 1");
+        }
+
+        this.carrierFreq = carrierFreq;
+        this.sampleRate = samples / duration;
+        profile = options.isProfilingEnabled() ? new PipelineProfile() : null;
+        Long noiseSeed = options.getNoiseSeed();
+        MessageGenerator generator = noiseSeed == null
+                ? new MessageGenerator(messageFreqs, amplitudes, waveformType, pulseDutyCycle, noiseType, noiseAmplitude)
+                : new MessageGenerator(messageFreqs, amplitudes, waveformType, pulseDutyCycle, noiseType, noiseAmplitude,
+                        noiseSeed);
+        if (sampleRate / 2 <= generator.getMaxFrequency()) {
+            throw new IllegalArgumentException("Baseband sample rate must exceed twice the highest message frequency");
+        }
+
+        time = new double[samples];
+        messageSignal = new double[samples];
+        inPhase = new double[samples];
+        quadrature = new double[samples];
+        demodulatedSignal = new double[samples];
+
+        double dt = duration / samples;
+        mark(PipelineStage.SETUP);
+        for (int i = 0; i < samples; i++) {
+            time[i] = i * dt;
+            messageSignal[i] = generator.message(time[i]);
+        }
+        mark(PipelineStage.MESSAGE);
+        for (int i = 0; i < samples; i++) {
+            messageSignal[i] += generator.noise();
+        }
+        mark(PipelineStage.NOISE);
+
+        // Complex envelope per variant
+        switch (variant.toLowerCase()) {
+            case "dsb-am":
+                for (int i = 0; i < samples; i++) {
+                    inPhase[i] = 1 + modulationIndex * messageSignal[i];
+                }
+                break;
+            case "dsb-sc":
+                for (int i = 0; i < samples; i++) {
+                    inPhase[i] = modulationIndex * messageSignal[i];
+                }
+                break;
+            case "ssb":
+                double[] hilbert = FastFourierTransform.hilbert(messageSignal);
+                mark(PipelineStage.HILBERT);
+                for (int i = 0; i < samples; i++) {
+                    inPhase[i] = modulationIndex * messageSignal[i];
+                    quadrature[i] = modulationIndex * hilbert[i];
+                }
+                break;
+            case "vsb":
+                for (int i = 0; i < samples; i++) {
+                    inPhase[i] = 1 + modulationIndex * messageSignal[i];
+                }
+                applyVestigialFilter(inPhase, quadrature,
+                        ModulationAndDemodulation.VESTIGE_FRACTION * generator.getMaxFrequency());
+                break;
+            case "qam":
+                double phase = Math.toRadians(phaseShift);
+                for (int i = 0; i < samples; i++) {
+                    inPhase[i] = modulationIndex * messageSignal[i] * (1 + Math.cos(phase));
+                    quadrature[i] = modulationIndex * messageSignal[i] * Math.sin(phase);
+                }
+                break;
+        }
+
+        mark(PipelineStage.MODULATION);
+
+        // Demodulation on the envelope: coherent keeps I/2, envelope detection averages |s| to 2/pi |I + jQ|
+        if (demodulationType.equals("Coherent")) {
+            for (int i = 0; i < samples; i++) {
+                demodulatedSignal[i] = inPhase[i] / 2;
+            }
+            lowPass(demodulatedSignal, filterAlpha);
+        } else if (demodulationType.equals("Non-Coherent")) {
+            for (int i = 0; i < samples; i++) {
+                demodulatedSignal[i] = 2 / Math.PI * Math.sqrt(inPhase[i] * inPhase[i] + quadrature[i] * quadrature[i]);
+            }
+            lowPass(demodulatedSignal, filterAlpha);
+        }
+        if (!demodulationType.equals("None")) {
+            mark(PipelineStage.DEMODULATION);
+        }
+
+        computeSpectrum();
+        mark(PipelineStage.SPECTRUM);
+    }
+
+    /**
+     * Ends a pipeline stage when profiling is enabled.
+     */
+    private void mark(PipelineStage stage) {
+        if (profile != null) {
+            profile.mark(stage);
+        }
+    }
+
+    /**
+     * Applies the baseband equivalent of the VSB shaping filter: a linear ramp from -fv to +fv.
+     */
+    private void applyVestigialFilter(double[] re, double[] im, double vestigeWidth) {
+        int n = re.length;
+        FastFourierTransform.transform(re, im);
+        for (int i = 0; i < n; i++) {
+            double f = (i < n / 2 ? i : i - n) * sampleRate / n;
+            double gain = Math.max(0, Math.min(1, (f + vestigeWidth) / (2 * vestigeWidth)));
+            re[i] *= gain;
+            im[i] *= gain;
+        }
+        FastFourierTransform.inverse(re, im);
+    }
+
+    /**
+     * Applies the same one-pole low-pass used by the passband demodulators.
+     */
+    private void lowPass(double[] signal, double filterAlpha) {
+        for (int i = 1; i < signal.length; i++) {
+            signal[i] = filterAlpha * signal[i] + (1 - filterAlpha) * signal[i - 1];
+        }
+    }
+
+    /**
+     * Computes the spectrum of the envelope, shifted to the carrier, in the same single-sided amplitude scale as the
+     * passband spectrum.
+     */
+    private void computeSpectrum() {
+        int n = inPhase.length;
+        double[] re = inPhase.clone();
+        double[] im = quadrature.clone();
+        FastFourierTransform.transform(re, im);
+        frequency = new double[n];
+        spectrum = new double[n];
+        for (int i = 0; i < n; i++) {
+            int bin = (i + n / 2) % n; // Negative envelope frequencies first
+            frequency[i] = carrierFreq + (i - n / 2) * sampleRate / n;
+            spectrum[i] = Math.sqrt(re[bin] * re[bin] + im[bin] * im[bin]) / n;
+        }
+    }
+
+    /**
+     * Upconverts the envelope to a real passband signal for display or export.
+     *
+     * @param factor Interpolation factor from the baseband rate to the passband rate
+     * @return array of {time, passband signal} at the passband rate
+     * @throws IllegalArgumentException if the passband rate cannot represent the carrier
+     */
+    public double[][] toPassband(int factor) {
+        double passbandRate = sampleRate * factor;
+        if (carrierFreq + sampleRate / 2 >= passbandRate / 2) {
+            throw new IllegalArgumentException("Upconversion factor too small for the carrier frequency");
+        }
+        double[] i = new PolyphaseInterpolator(factor).interpolateAligned(inPhase);
+        double[] q = new PolyphaseInterpolator(factor).interpolateAligned(quadrature);
+        double[] t = new double[i.length];
+        double[] s = new double[i.length];
+        for (int n = 0; n < s.length; n++) {
+            t[n] = n / passbandRate;
+            double angle = 2 * Math.PI * carrierFreq * t[n];
+            s[n] = i[n] * Math.cos(angle) - q[n] * Math.sin(angle);
+        }
+        return new double[][]{t, s};
+    }
+
+    /**
+     * Gets the smallest power-of-two upconversion factor whose passband rate holds the carrier and the whole envelope
+     * band, i.e. the cheapest valid argument of {@link #toPassband(int)}.
+     *
+     * @return upconversion factor
+     */
+    public int getMinimumUpconversionFactor() {
+        int factor = 2;
+        while (carrierFreq + sampleRate / 2 >= sampleRate * factor / 2) {
+            factor <<= 1;
+        }
+        return factor;
+    }
+
+    public double[] getTime() { return time; }
+    public double[] getMessageSignal() { return messageSignal; }
+    public double[] getInPhase() { return inPhase; }
+    public double[] getQuadrature() { return quadrature; }
+    public double[] getDemodulatedSignal() { return demodulatedSignal; }
+    public double[] getFrequency() { return frequency; }
+    public double[] getSpectrum() { return spectrum; }
+    public double getSampleRate() { return sampleRate; }
+    public double getCarrierFrequency() { return carrierFreq; }
+    public PipelineProfile getProfile() { return profile; }
+}
@@ -0,0 +1,90 @@
+package simulation.software.codebase;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Signal buffer whose samples are evaluated on demand from their index, for channels that are a closed-form function
+ * of time (the time axis itself, a pure carrier). No sample array is held; {@link #copyTo} evaluates a block at a time
+ * and {@link #toDoubleArray()} materializes the whole channel when a caller needs an array.
+ */
+public final class ComputedSignalBuffer implements SignalBuffer {
+    private final int length;
+    private final IntToDoubleFunction function;
+
+    /**
+     * Constructor for ComputedSignalBuffer.
+     *
+     * @param length   Number of samples
+     * @param function Sample value for each index
+     * @throws IllegalArgumentException if the length is negative
+     */
+    public ComputedSignalBuffer(int length, IntToDoubleFunction function) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative");
+        }
+        this.length = length;
+        this.function = function;
+    }
+
+    /**
+     * Creates a time axis, sample i being i * dt.
+     *
+     * @param length Number of samples
+     * @param dt     Sample interval in seconds
+     * @return time buffer
+     */
+    public static ComputedSignalBuffer time(int length, double dt) {
+        return new ComputedSignalBuffer(length, i -> i * dt);
+    }
+
+    /**
+     * Creates a unit-amplitude cosine carrier, sample i being cos(2 pi f i dt).
+     *
+     * @param length    Number of samples
+     * @param frequency Carrier frequency in Hz
+     * @param dt        Sample interval in seconds
+     * @return carrier buffer
+     */
+    public static ComputedSignalBuffer cosine(int length, double frequency, double dt) {
+        return new ComputedSignalBuffer(length, i -> Math.cos(2 * Math.PI * frequency * (i * dt)));
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public double get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        return function.applyAsDouble(index);
+    }
+
+    @Override
+    public void copyTo(int srcOffset, double[] destination, int destOffset, int length) {
+        if (srcOffset < 0 || srcOffset + length > this.length) {
+            throw new IndexOutOfBoundsException("Range " + srcOffset + "+" + length + " out of bounds for length " + this.length);
+        }
+        for (int i = 0; i < length; i++) {
+            destination[destOffset + i] = function.applyAsDouble(srcOffset + i);
+        }
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        double[] values = new double[length];
+        copyTo(0, values, 0, length);
+        return values;
+    }
+
+    /**
+     * Gets the storage precision. Samples are evaluated in double whatever the signal's storage mode.
+     * @return {@link SignalStorage#DOUBLE}
+     */
+    @Override
+    public SignalStorage storage() {
+        return SignalStorage.DOUBLE;
+    }
+}
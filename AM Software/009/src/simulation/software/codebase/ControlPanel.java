@@ -4,22 +4,29 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.logging.Logger;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
  * GUI panel for configuring AM signal parameters, with scrollable content.
  */
 public class ControlPanel extends JPanel {
-    private static final Logger LOGGER = Logger.getLogger(ControlPanel.class.getName());
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(ControlPanel.class);
     private JTextField carrierFreqField, modulationIndexField, multiToneFreqField, multiToneAmpField, noiseAmplitudeField, pulseDutyField, phaseShiftField, samplesField, durationField, filterAlphaField;
-    private JComboBox<String> waveformCombo, noiseTypeCombo, demodulationCombo;
+    private JComboBox<String> waveformCombo, noiseTypeCombo, demodulationCombo, multirateCombo, storageCombo, engineCombo;
+    private JComboBox<ExportFormat> exportFormatCombo;
     private JSlider modulationIndexSlider;
+    private JCheckBox profileCheckBox;
+    private JLabel profileLabel;
     private SignalPlotPanel plotPanel;
     private AMSignal currentSignal;
+    private Supplier<StreamingModulator> streamingSetup; // Parameters of the current signal, for long-run exports
     private String variant;
     private static final String PRIMARY_FONT = "Bahnschrift";
     private static final String FALLBACK_FONT = "Bahnschrift";
+    private static final int IMPORT_WINDOW_SAMPLES = 1 << 16; // Samples of a capture loaded for analysis
 
     /**
      * Constructor for ControlPanel.
@@ -176,6 +183,42 @@ public class ControlPanel extends JPanel {
         filterAlphaField.setFont(fieldFont);
         signalPanel.add(filterAlphaField, gbc);
 
+        // Multirate Factor
+        gbc.gridx = 0;
+        gbc.gridy = currentY++;
+        JLabel multirateLabel = new JLabel("Multirate Factor:");
+        multirateLabel.setFont(labelFont);
+        multirateLabel.setToolTipText("Generate message and noise at 1/N of the sample rate and interpolate before mixing (1 = off)");
+        signalPanel.add(multirateLabel, gbc);
+        gbc.gridx = 1;
+        multirateCombo = new JComboBox<>(new String[]{"1", "2", "4", "8", "16"});
+        multirateCombo.setFont(fieldFont);
+        signalPanel.add(multirateCombo, gbc);
+
+        // Storage Precision
+        gbc.gridx = 0;
+        gbc.gridy = currentY++;
+        JLabel storageLabel = new JLabel("Storage Precision:");
+        storageLabel.setFont(labelFont);
+        storageLabel.setToolTipText("Keep computed signals as double or float (float halves memory; errors stay below 1e-7)");
+        signalPanel.add(storageLabel, gbc);
+        gbc.gridx = 1;
+        storageCombo = new JComboBox<>(new String[]{"Double", "Float"});
+        storageCombo.setFont(fieldFont);
+        signalPanel.add(storageCombo, gbc);
+
+        // Simulation Engine
+        gbc.gridx = 0;
+        gbc.gridy = currentY++;
+        JLabel engineLabel = new JLabel("Simulation Engine:");
+        engineLabel.setFont(labelFont);
+        engineLabel.setToolTipText("Complex baseband simulates the I/Q envelope at the sample rate of the message band (power-of-two sample count) and upconverts only for display and export");
+        signalPanel.add(engineLabel, gbc);
+        gbc.gridx = 1;
+        engineCombo = new JComboBox<>(new String[]{"Passband", "Complex Baseband (I/Q)"});
+        engineCombo.setFont(fieldFont);
+        signalPanel.add(engineCombo, gbc);
+
         gbc.gridx = 0;
         gbc.gridy = 0;
         gbc.gridwidth = 2;
@@ -234,6 +277,29 @@ public class ControlPanel extends JPanel {
         gbc.gridwidth = 2;
         contentPanel.add(demodPanel, gbc);
 
+        // Diagnostics Panel
+        JPanel diagnosticsPanel = new JPanel(new GridBagLayout());
+        diagnosticsPanel.setBorder(BorderFactory.createTitledBorder(BorderFactory.createEtchedBorder(), "Diagnostics", 0, 0, labelFont));
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        profileCheckBox = new JCheckBox("Profile Pipeline");
+        profileCheckBox.setFont(labelFont);
+        profileCheckBox.setToolTipText("Measure time and memory allocated per pipeline stage on each update");
+        profileCheckBox.addActionListener(e -> profileLabel.setVisible(profileCheckBox.isSelected()));
+        diagnosticsPanel.add(profileCheckBox, gbc);
+        gbc.gridy = 1;
+        profileLabel = new JLabel();
+        profileLabel.setFont(fieldFont);
+        profileLabel.setVisible(false);
+        diagnosticsPanel.add(profileLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.gridwidth = 2;
+        contentPanel.add(diagnosticsPanel, gbc);
+
         // Scroll pane for content
         JScrollPane scrollPane = new JScrollPane(contentPanel);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
@@ -259,9 +325,17 @@ public class ControlPanel extends JPanel {
         buttonPanel.add(updateButton);
         buttonPanel.add(Box.createVerticalStrut(10));
 
+        exportFormatCombo = new JComboBox<>(ExportFormat.values());
+        exportFormatCombo.setFont(fieldFont);
+        exportFormatCombo.setToolTipText("File format used by Export Data");
+        exportFormatCombo.setAlignmentX(Component.CENTER_ALIGNMENT);
+        exportFormatCombo.setMaximumSize(exportFormatCombo.getPreferredSize());
+        buttonPanel.add(exportFormatCombo);
+        buttonPanel.add(Box.createVerticalStrut(5));
+
         JButton exportButton = new JButton("Export Data");
         exportButton.setFont(labelFont);
-        exportButton.setToolTipText("Export signal data to CSV");
+        exportButton.setToolTipText("Export signal data in the selected format");
         exportButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         exportButton.addActionListener(new ActionListener() {
             @Override
@@ -272,6 +346,32 @@ public class ControlPanel extends JPanel {
         buttonPanel.add(exportButton);
         buttonPanel.add(Box.createVerticalStrut(10));
 
+        JButton streamButton = new JButton("Stream Export");
+        streamButton.setFont(labelFont);
+        streamButton.setToolTipText("Simulate a long run with the current parameters and export it while it is generated (CSV, raw or archive)");
+        streamButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        streamButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                streamExport();
+            }
+        });
+        buttonPanel.add(streamButton);
+        buttonPanel.add(Box.createVerticalStrut(10));
+
+        JButton importButton = new JButton("Import Capture");
+        importButton.setFont(labelFont);
+        importButton.setToolTipText("Load a window of a recorded WAV, CSV or raw capture for analysis");
+        importButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        importButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                importCapture();
+            }
+        });
+        buttonPanel.add(importButton);
+        buttonPanel.add(Box.createVerticalStrut(10));
+
         JButton simulationButton = new JButton("Launch Time-Domain Simulation");
         simulationButton.setFont(labelFont);
         simulationButton.setToolTipText("Open a window to view real-time time-domain simulation");
@@ -279,7 +379,7 @@ public class ControlPanel extends JPanel {
         simulationButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                LOGGER.info("Launch Time-Domain Simulation button clicked for variant: " + variant);
+                LOGGER.log(Level.INFO, "Launch Time-Domain Simulation button clicked for variant: {0}", variant);
                 if (currentSignal != null && isSignalValid(currentSignal)) {
                     try {
                         new TimeDomainSimulationWindow(currentSignal, variant);
@@ -304,7 +404,7 @@ public class ControlPanel extends JPanel {
         spectrumButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                LOGGER.info("Spectrum button clicked for variant: " + variant);
+                LOGGER.log(Level.INFO, "Spectrum button clicked for variant: {0}", variant);
                 if (currentSignal != null && isSignalValid(currentSignal)) {
                     try {
                         new SpectrumAnalysisFFT(currentSignal, variant);
@@ -329,7 +429,7 @@ public class ControlPanel extends JPanel {
         thdButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                LOGGER.info("Total Harmonic Distortion button clicked for variant: " + variant);
+                LOGGER.log(Level.INFO, "Total Harmonic Distortion button clicked for variant: {0}", variant);
                 if (currentSignal != null && isSignalValid(currentSignal)) {
                     try {
                         new TotalHarmonicDistortion(currentSignal, variant);
@@ -354,7 +454,7 @@ public class ControlPanel extends JPanel {
         snrButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                LOGGER.info("Signal-Noise Ratio button clicked for variant: " + variant);
+                LOGGER.log(Level.INFO, "Signal-Noise Ratio button clicked for variant: {0}", variant);
                 if (currentSignal != null && isSignalValid(currentSignal)) {
                     try {
                         new SignalToNoiseRatio(currentSignal, variant);
@@ -526,11 +626,40 @@ public class ControlPanel extends JPanel {
             String waveformType = (String) waveformCombo.getSelectedItem();
             String noiseType = (String) noiseTypeCombo.getSelectedItem();
             String demodulationType = (String) demodulationCombo.getSelectedItem();
+            boolean complexBaseband = engineCombo.getSelectedIndex() == 1;
+            // The carrier recovery loop cannot track an aliased carrier; the I/Q engine never samples the carrier
+            double nyquist = samples / duration / 2;
+            if (!complexBaseband && "Coherent".equals(demodulationType) && carrierFreq >= nyquist) {
+                JOptionPane.showMessageDialog(this, String.format("Coherent demodulation needs the carrier frequency below the Nyquist frequency (%.0f Hz). Increase the sample count or reduce the duration.", nyquist), "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            SimulationOptions options = new SimulationOptions();
+            options.setInterpolationFactor(Integer.parseInt((String) multirateCombo.getSelectedItem()));
+            options.setStorage("Float".equals(storageCombo.getSelectedItem()) ? SignalStorage.FLOAT : SignalStorage.DOUBLE);
+            options.setProfilingEnabled(profileCheckBox.isSelected());
+            options.setComplexBaseband(complexBaseband);
 
             currentSignal = new AMSignal(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift,
-                    waveformType, noiseType, noiseAmplitude, demodulationType, pulseDutyCycle, samples, duration, filterAlpha);
+                    waveformType, noiseType, noiseAmplitude, demodulationType, pulseDutyCycle, samples, duration, filterAlpha,
+                    options);
             plotPanel.updateSignal(currentSignal);
-            LOGGER.info("Signal updated successfully for variant: " + variant);
+            double streamRate = currentSignal.getSampleRate();
+            streamingSetup = () -> new StreamingModulator(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex,
+                    phaseShift, waveformType, noiseType, noiseAmplitude, demodulationType, pulseDutyCycle, streamRate,
+                    filterAlpha, options.getNoiseSeed());
+            LOGGER.log(Level.FINE, "Signal updated successfully for variant: {0}", variant);
+            if ("Coherent".equals(demodulationType) && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Carrier recovery for {0}: lock time {1,number,0.00} ms, RMS phase error {2,number,0.0000} rad",
+                        variant, currentSignal.getCarrierLockTime() * 1000, currentSignal.getCarrierPhaseErrorRms());
+            }
+            PipelineProfile profile = currentSignal.getPipelineProfile();
+            if (profile != null) {
+                // Only when profiling was requested; summary() builds the text, so it is guarded
+                if (LOGGER.isLoggable(Level.INFO)) {
+                    LOGGER.log(Level.INFO, "Pipeline profile for {0}: {1}", variant, profile.summary());
+                }
+                profileLabel.setText(formatProfile(profile));
+            }
         } catch (NumberFormatException ex) {
             LOGGER.log(Level.SEVERE, "Invalid input format in updateSignal", ex);
             JOptionPane.showMessageDialog(this, "Invalid input format. Please enter valid numeric values.", "Input Error", JOptionPane.ERROR_MESSAGE);
@@ -541,14 +670,38 @@ public class ControlPanel extends JPanel {
     }
 
     /**
-     * Exports the current signal data to a CSV file.
+     * Formats a pipeline profile as a small HTML table for the diagnostics panel.
+     */
+    private String formatProfile(PipelineProfile profile) {
+        StringBuilder html = new StringBuilder("<html><table cellspacing=0 cellpadding=1>");
+        html.append("<tr><th align=left>Stage</th><th align=right>ms</th><th align=right>KiB</th></tr>");
+        for (PipelineStage stage : PipelineStage.values()) {
+            if (profile.getNanos(stage) > 0) {
+                html.append(profileRow(stage.toString(), profile.getNanos(stage), profile.getAllocatedBytes(stage)));
+            }
+        }
+        html.append(profileRow("<b>Total</b>", profile.getTotalNanos(), profile.getTotalAllocatedBytes()));
+        return html.append("</table></html>").toString();
+    }
+
+    private String profileRow(String name, long nanos, long bytes) {
+        return String.format("<tr><td>%s</td><td align=right>%.3f</td><td align=right>%s</td></tr>", name, nanos / 1e6,
+                bytes < 0 ? "n/a" : String.format("%.1f", bytes / 1024.0));
+    }
+
+    /**
+     * Exports the current signal data in the selected format.
      */
     private void exportData() {
         if (currentSignal != null && isSignalValid(currentSignal)) {
             try {
-                DataExporter.exportToCSV(currentSignal, variant + "_signal_data.csv");
-                LOGGER.info("Data exported successfully to " + variant + "_signal_data.csv");
-                JOptionPane.showMessageDialog(this, "Data exported to " + variant + "_signal_data.csv", "Export Success", JOptionPane.INFORMATION_MESSAGE);
+                ExportFormat format = (ExportFormat) exportFormatCombo.getSelectedItem();
+                String signalFile = variant + "_signal_data." + format.getExtension();
+                String demodulatedFile = variant + "_demodulated_data." + format.getExtension();
+                DataExporter.export(currentSignal, signalFile, format);
+                DataExporter.exportDecimated(currentSignal, demodulatedFile, format);
+                LOGGER.log(Level.INFO, "Data exported successfully to {0} and {1}", signalFile, demodulatedFile);
+                JOptionPane.showMessageDialog(this, "Data exported to " + signalFile + " and " + demodulatedFile, "Export Success", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
                 LOGGER.log(Level.SEVERE, "Failed to export data", ex);
                 JOptionPane.showMessageDialog(this, "Failed to export data: " + ex.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
@@ -559,17 +712,131 @@ public class ControlPanel extends JPanel {
         }
     }
 
+    /**
+     * Simulates a long run with the parameters of the current signal and exports it in the selected format while it
+     * is generated. The run goes through {@link StreamingModulator} on a background thread, so it is not limited by
+     * memory and the panel stays responsive. Optionally the run is held in an {@link OffHeapSignal} instead,
+     * exported from there, and its last window replaces the current signal.
+     */
+    private void streamExport() {
+        if (streamingSetup == null) {
+            JOptionPane.showMessageDialog(this, "Please update the signal first.", "No Signal", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        JTextField streamDurationField = new JTextField("60", 8);
+        JCheckBox offHeapBox = new JCheckBox("Hold the run off-heap and show its last window");
+        offHeapBox.setToolTipText("Keeps the whole run in direct memory outside the Java heap; it must fit there");
+        JPanel streamPanel = new JPanel(new GridLayout(3, 1, 0, 5));
+        streamPanel.add(new JLabel("Duration of the streamed run (s):"));
+        streamPanel.add(streamDurationField);
+        streamPanel.add(offHeapBox);
+        if (JOptionPane.showConfirmDialog(this, streamPanel, "Stream Export", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        try {
+            double seconds = Double.parseDouble(streamDurationField.getText().trim());
+            if (seconds <= 0) {
+                JOptionPane.showMessageDialog(this, "Duration must be positive.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            StreamingModulator modulator = streamingSetup.get();
+            long totalSamples = Math.round(seconds * modulator.getSampleRate());
+            ExportFormat format = (ExportFormat) exportFormatCombo.getSelectedItem();
+            String filename = variant + "_stream." + format.getExtension();
+            boolean offHeap = offHeapBox.isSelected();
+            Thread worker = new Thread(() -> {
+                try {
+                    if (offHeap) {
+                        AMSignal settled = streamOffHeap(modulator, totalSamples, filename, format);
+                        SwingUtilities.invokeLater(() -> {
+                            currentSignal = settled;
+                            plotPanel.updateSignal(settled);
+                        });
+                    } else {
+                        DataExporter.exportStreaming(modulator, totalSamples, filename, format);
+                    }
+                    LOGGER.log(Level.INFO, "Streamed {0,number,#} samples to {1}", totalSamples, filename);
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "Streamed " + totalSamples + " samples to " + filename, "Export Success", JOptionPane.INFORMATION_MESSAGE));
+                } catch (Exception ex) {
+                    LOGGER.log(Level.SEVERE, "Streaming export failed", ex);
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "Failed to export data: " + ex.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE));
+                }
+            }, "stream-export");
+            worker.setDaemon(true);
+            worker.start();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid numeric value.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Runs a streamed simulation into off-heap memory, exports it from there and returns its last window, taken
+     * after the carrier loop has settled, for display. The run must fit in direct memory; its arena is released
+     * before returning.
+     */
+    private static AMSignal streamOffHeap(StreamingModulator modulator, long totalSamples, String filename,
+                                          ExportFormat format) throws IOException {
+        try (SignalArena arena = new SignalArena()) {
+            OffHeapSignal run = arena.allocateSignal(StreamingModulator.COLUMNS, totalSamples, modulator.getSampleRate());
+            modulator.run(totalSamples, DataExporter.STREAMING_BLOCK_SIZE, run);
+            DataExporter.exportSource(run, filename, format);
+            int length = (int) Math.min(IMPORT_WINDOW_SAMPLES, totalSamples);
+            return new AMSignal(run, totalSamples - length, length);
+        }
+    }
+
+    /**
+     * Loads a window of a recorded capture as the current signal. Captures that do not record their sample rate
+     * use the rate implied by the sample count and duration fields.
+     */
+    private void importCapture() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Capture");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
+        try {
+            double fallbackRate = Double.parseDouble(samplesField.getText().trim())
+                    / Double.parseDouble(durationField.getText().trim());
+            try (SignalSource source = SignalImporter.open(path, fallbackRate)) {
+                long total = source.getLength();
+                double rate = source.getSampleRate();
+                String input = JOptionPane.showInputDialog(this, String.format(
+                        "Capture holds %d samples (%.3f s at %.0f Hz). Start time of the window (s):",
+                        total, total / rate, rate), "0");
+                if (input == null) {
+                    return;
+                }
+                long offset = (long) (Double.parseDouble(input.trim()) * rate);
+                offset = Math.max(0, Math.min(offset, total - Math.min(total, IMPORT_WINDOW_SAMPLES)));
+                int length = (int) Math.min(IMPORT_WINDOW_SAMPLES, total - offset);
+                currentSignal = new AMSignal(source, offset, length);
+                streamingSetup = null;
+            }
+            plotPanel.updateSignal(currentSignal);
+            LOGGER.log(Level.INFO, "Imported {0,number,#} samples from {1}", currentSignal.getTimeBuffer().length(), path);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid numeric value.", "Input Error", JOptionPane.ERROR_MESSAGE);
+        } catch (Exception ex) {
+            LOGGER.log(Level.SEVERE, "Failed to import capture " + path, ex);
+            JOptionPane.showMessageDialog(this, "Failed to import capture: " + ex.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Validates the AMSignal to ensure it’s suitable for rendering.
      */
     private boolean isSignalValid(AMSignal signal) {
         return signal != null &&
-               signal.getTime() != null && signal.getTime().length > 0 &&
-               signal.getSignal() != null && signal.getSignal().length > 0 &&
-               signal.getMessage() != null && signal.getMessage().length > 0 &&
-               signal.getCarrier() != null && signal.getCarrier().length > 0 &&
-               signal.getDemodulatedSignal() != null &&
-               signal.getFrequency() != null && signal.getFrequency().length > 0 &&
-               signal.getSpectrum() != null && signal.getSpectrum().length > 0;
+               signal.getTimeBuffer().length() > 0 &&
+               signal.getSignalBuffer().length() > 0 &&
+               signal.getMessageBuffer().length() > 0 &&
+               signal.getCarrierBuffer().length() > 0 &&
+               signal.getFrequencyBuffer().length() > 0 &&
+               signal.getSpectrumBuffer().length() > 0;
     }
 }
\ No newline at end of file
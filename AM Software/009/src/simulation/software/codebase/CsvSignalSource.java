@@ -0,0 +1,339 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Memory-mapped reader for CSV captures with a header row, such as the files written by {@link DataExporter}.
+ * Opening the file builds a sparse row index in parallel (the offset of every {@value #INDEX_STRIDE}th row of each
+ * chunk);
+ * values are parsed only when a range is read, so large captures need little heap.
+ */
+public class CsvSignalSource implements SignalSource {
+    private static final int INDEX_STRIDE = 64;
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final MappedFileWindows file;
+    private final MappedFileWindows.Cursor reader;
+    private final int[] columnFields = new int[SignalColumn.values().length];
+    private long[][] chunkIndex;
+    private long[] chunkFirstRow;
+    private long rows;
+    private final double sampleRate;
+    private final StringBuilder fallback = new StringBuilder();
+
+    /**
+     * Constructor for CsvSignalSource.
+     *
+     * @param path       CSV file with a header row
+     * @param sampleRate Sample rate in Hz, used when the file has no Time column
+     * @throws IOException if the file cannot be read or has no recognizable columns
+     */
+    public CsvSignalSource(Path path, double sampleRate) throws IOException {
+        this.file = new MappedFileWindows(path);
+        this.reader = file.cursor();
+        try {
+            long dataStart = parseHeader();
+            buildIndex(dataStart);
+            if (hasColumn(SignalColumn.TIME) && rows > 1) {
+                double[] first = new double[1];
+                double[] last = new double[1];
+                read(SignalColumn.TIME, 0, first, 0, 1);
+                read(SignalColumn.TIME, rows - 1, last, 0, 1);
+                this.sampleRate = (rows - 1) / (last[0] - first[0]);
+            } else {
+                this.sampleRate = sampleRate;
+            }
+            if (!(this.sampleRate > 0) || Double.isInfinite(this.sampleRate)) {
+                throw new IOException("Cannot determine the sample rate of " + path);
+            }
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getLength() {
+        return rows;
+    }
+
+    @Override
+    public boolean hasColumn(SignalColumn column) {
+        return columnFields[column.ordinal()] >= 0;
+    }
+
+    @Override
+    public void read(SignalColumn column, long offset, double[] destination, int destOffset, int length)
+            throws IOException {
+        int field = columnFields[column.ordinal()];
+        if (field < 0) {
+            throw new IllegalArgumentException("Capture has no " + column.getHeader() + " column");
+        }
+        if (offset < 0 || offset + length > rows) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + length + " outside 0.." + rows);
+        }
+        if (length == 0) {
+            return;
+        }
+        MappedFileWindows.Cursor in = reader;
+        // Start at the nearest indexed row of the chunk holding the offset and skip forward
+        int chunk = 0;
+        int high = chunkIndex.length - 1;
+        while (chunk < high) {
+            // Last chunk starting at or before the offset; empty chunks share their start row with the next one
+            int mid = (chunk + high + 1) >>> 1;
+            if (chunkFirstRow[mid] <= offset) {
+                chunk = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        long localRow = offset - chunkFirstRow[chunk];
+        long position = chunkIndex[chunk][(int) (localRow / INDEX_STRIDE)];
+        for (long skip = localRow % INDEX_STRIDE; skip > 0; skip--) {
+            position = nextLine(in, position);
+        }
+        for (int i = 0; i < length; i++) {
+            long start = position;
+            for (int f = 0; f < field; f++) {
+                start = skipField(in, start) + 1;
+            }
+            destination[destOffset + i] = parseDouble(in, start, skipField(in, start));
+            position = nextLine(in, position);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Reads the header row and maps its names to columns (case-insensitive).
+     */
+    private long parseHeader() throws IOException {
+        MappedFileWindows.Cursor in = reader;
+        long end = in.findLineEnd(0);
+        byte[] bytes = new byte[(int) Math.min(end, 4096)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = in.get(i);
+        }
+        String[] names = new String(bytes, StandardCharsets.UTF_8).trim().split(",");
+        Arrays.fill(columnFields, -1);
+        boolean any = false;
+        for (int f = 0; f < names.length; f++) {
+            for (SignalColumn column : SignalColumn.values()) {
+                if (column.getHeader().equalsIgnoreCase(names[f].trim())) {
+                    columnFields[column.ordinal()] = f;
+                    any = true;
+                }
+            }
+        }
+        if (!any) {
+            throw new IOException("CSV header has no known signal columns: " + String.join(",", names));
+        }
+        return end < file.size() ? end + 1 : end;
+    }
+
+    /**
+     * Builds the sparse row index in one parallel pass. Each chunk of the file records the offset of every
+     * INDEX_STRIDE-th row it contains, counted from its own first row; prefix sums of the chunk row counts then
+     * give the global row number of each chunk.
+     */
+    private void buildIndex(long dataStart) throws IOException {
+        MappedFileWindows.Cursor in = reader;
+        long size = file.size();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunks = (int) Math.max(1, Math.min(threads * 4L, (size - dataStart) / MIN_CHUNK_BYTES));
+        long[] starts = new long[chunks + 1];
+        starts[0] = dataStart;
+        starts[chunks] = size;
+        for (int c = 1; c < chunks; c++) {
+            // Each chunk begins at the first row starting at or after its nominal boundary
+            long nominal = dataStart + (size - dataStart) * c / chunks;
+            starts[c] = Math.max(starts[c - 1], nominal == dataStart ? nominal : nextLine(in, nominal - 1));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chunks));
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < chunks; c++) {
+                final long from = starts[c];
+                final long to = starts[c + 1];
+                results.add(executor.submit(() -> indexChunk(from, to)));
+            }
+            chunkIndex = new long[chunks][];
+            chunkFirstRow = new long[chunks + 1];
+            for (int c = 0; c < chunks; c++) {
+                long[] result = results.get(c).get();
+                // The last entry holds the row count of the chunk
+                chunkIndex[c] = result;
+                chunkFirstRow[c + 1] = chunkFirstRow[c] + result[result.length - 1];
+            }
+            rows = chunkFirstRow[chunks];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while indexing CSV capture", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to index CSV capture", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Scans one chunk, returning the offsets of its rows 0, INDEX_STRIDE, 2 * INDEX_STRIDE, ... followed by its
+     * row count.
+     */
+    private long[] indexChunk(long from, long to) throws IOException {
+        MappedFileWindows.Cursor in = file.cursor();
+        long[] index = new long[16];
+        int entries = 0;
+        long row = 0;
+        long position = from;
+        while (position < to) {
+            long end = in.findLineEnd(position);
+            if (end > position) { // Blank lines are not rows
+                if (row % INDEX_STRIDE == 0) {
+                    if (entries == index.length - 1) {
+                        index = Arrays.copyOf(index, index.length * 2);
+                    }
+                    index[entries++] = position;
+                }
+                row++;
+            }
+            position = end + 1;
+        }
+        index[entries++] = row;
+        return Arrays.copyOf(index, entries);
+    }
+
+    /**
+     * Returns the start of the next non-empty line after the line at position.
+     */
+    private long nextLine(MappedFileWindows.Cursor in, long position) throws IOException {
+        long size = file.size();
+        position = in.findLineEnd(position);
+        while (position < size) {
+            byte b = in.get(position);
+            if (b != '\n' && b != '\r') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private long skipField(MappedFileWindows.Cursor in, long position) throws IOException {
+        long size = file.size();
+        while (position < size) {
+            byte b = in.get(position);
+            if (b == ',' || b == '\n' || b == '\r') {
+                return position;
+            }
+            position++;
+        }
+        return size;
+    }
+
+    /**
+     * Parses a decimal number. Up to 18 significant digits with a small exponent take the exact fast path
+     * (an integer scaled by an exactly representable power of ten); everything else goes to Double.parseDouble.
+     */
+    private double parseDouble(MappedFileWindows.Cursor in, long start, long end) throws IOException {
+        long position = start;
+        while (position < end && in.get(position) == ' ') {
+            position++;
+        }
+        boolean negative = false;
+        if (position < end && (in.get(position) == '-' || in.get(position) == '+')) {
+            negative = in.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; position < end; position++) {
+            byte b = in.get(position);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++digits > 18) {
+                        return slowParse(in, start, end);
+                    }
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) {
+                    exponent--;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (position < end) {
+            byte b = in.get(position);
+            if (b != 'e' && b != 'E') {
+                return slowParse(in, start, end);
+            }
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (in.get(position) == '-' || in.get(position) == '+')) {
+                negativeExponent = in.get(position) == '-';
+                position++;
+            }
+            int e = 0;
+            for (; position < end; position++) {
+                b = in.get(position);
+                if (b < '0' || b > '9' || e > 10000) {
+                    return slowParse(in, start, end);
+                }
+                e = e * 10 + (b - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        if (!seenDigit || mantissa >= 1L << 53 || exponent < -22 || exponent > 22) {
+            return slowParse(in, start, end);
+        }
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    private double slowParse(MappedFileWindows.Cursor in, long start, long end) throws IOException {
+        StringBuilder text = fallback;
+        text.setLength(0);
+        for (long p = start; p < end; p++) {
+            text.append((char) in.get(p));
+        }
+        try {
+            return Double.parseDouble(text.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number in CSV capture: " + text, e);
+        }
+    }
+}
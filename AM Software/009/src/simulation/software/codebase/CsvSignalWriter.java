@@ -0,0 +1,232 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming CSV writer for signal columns. Values are formatted by hand into a large byte buffer that is flushed
+ * through a {@link FileChannel}, avoiding {@code String.format} and per-value allocation.
+ * Fixed-precision output matches {@code %.6f} formatting (always with a '.' decimal separator); the
+ * {@link #ROUND_TRIP} mode writes the shortest text that parses back to the same double.
+ */
+public class CsvSignalWriter implements SignalBlockSink {
+    /** Decimals value selecting round-trip output instead of fixed precision. */
+    public static final int ROUND_TRIP = -1;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_VALUE_LENGTH = 330; // Longest plain-text double with nine decimals
+    private static final double MAX_FAST_SCALED = 1e13; // Keeps the scaled product well inside double precision
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L};
+
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+    private final int decimals;
+    private final double scale;
+    private int position;
+    private boolean rowStarted;
+    private long bytesWritten;
+
+    /**
+     * Constructor for CsvSignalWriter with six decimals.
+     *
+     * @param filename Output file (created or truncated)
+     * @throws IOException if the file cannot be opened
+     */
+    public CsvSignalWriter(String filename) throws IOException {
+        this(Paths.get(filename), 6);
+    }
+
+    /**
+     * Constructor for CsvSignalWriter.
+     *
+     * @param path     Output file (created or truncated)
+     * @param decimals Fixed number of decimals (0–9), or {@link #ROUND_TRIP}
+     * @throws IOException if the file cannot be opened
+     */
+    public CsvSignalWriter(Path path, int decimals) throws IOException {
+        if (decimals < ROUND_TRIP || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Decimals must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+        this.decimals = decimals;
+        this.scale = decimals == ROUND_TRIP ? 1 : POWERS_OF_TEN[decimals];
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Writes a header row.
+     *
+     * @param names Column names
+     * @throws IOException if writing fails
+     */
+    public void writeHeader(String... names) throws IOException {
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                header.append(',');
+            }
+            header.append(names[i]);
+        }
+        header.append('\n');
+        byte[] bytes = header.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.length) {
+            throw new IllegalArgumentException("Header too long");
+        }
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Appends one value to the current row.
+     *
+     * @param value Value to write
+     * @throws IOException if writing fails
+     */
+    public void writeValue(double value) throws IOException {
+        ensureCapacity(MAX_VALUE_LENGTH + 1);
+        if (rowStarted) {
+            buffer[position++] = ',';
+        }
+        rowStarted = true;
+        if (decimals == ROUND_TRIP) {
+            appendAscii(Double.toString(value));
+        } else {
+            appendFixed(value);
+        }
+    }
+
+    /**
+     * Terminates the current row.
+     *
+     * @throws IOException if writing fails
+     */
+    public void endRow() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = '\n';
+        rowStarted = false;
+    }
+
+    /**
+     * Writes rows taken column-wise from the given arrays.
+     *
+     * @param columns Column arrays (all at least offset + length long)
+     * @param offset  First row to write
+     * @param length  Number of rows to write
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void write(double[][] columns, int offset, int length) throws IOException {
+        for (int row = offset; row < offset + length; row++) {
+            for (double[] column : columns) {
+                writeValue(column[row]);
+            }
+            endRow();
+        }
+    }
+
+    /**
+     * Gets the number of bytes written so far (including buffered bytes).
+     * @return byte count
+     */
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    /**
+     * Flushes buffered output to the file.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        wrapped.clear().limit(position);
+        while (wrapped.hasRemaining()) {
+            channel.write(wrapped);
+        }
+        bytesWritten += position;
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Formats a value with a fixed number of decimals, rounding the shortest decimal representation half up
+     * as {@code Formatter} does.
+     */
+    private void appendFixed(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            appendAscii(Double.toString(value));
+            return;
+        }
+        // Negative values (including -0.0 and values rounding to zero) keep their sign, as with %f
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        double scaledValue = value * scale;
+        // Large values and near-ties, where binary rounding of the product could disagree with Formatter
+        double tieDistance = Math.abs(scaledValue - Math.floor(scaledValue) - 0.5);
+        if (scaledValue >= MAX_FAST_SCALED || tieDistance < 1e-6 + scaledValue * 1e-15) {
+            appendAscii(BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        long scaled = Math.round(scaledValue);
+        long integerPart = scaled / (long) scale;
+        long fraction = scaled - integerPart * (long) scale;
+        appendLong(integerPart);
+        if (decimals > 0) {
+            buffer[position++] = '.';
+            for (int d = decimals - 1; d >= 0; d--) {
+                long digit = fraction / POWERS_OF_TEN[d];
+                buffer[position++] = (byte) ('0' + digit);
+                fraction -= digit * POWERS_OF_TEN[d];
+            }
+        }
+    }
+
+    private void appendAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void appendLong(long value) {
+        if (value == 0) {
+            buffer[position++] = '0';
+            return;
+        }
+        int start = position;
+        while (value > 0) {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        // Digits were written least significant first
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte t = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = t;
+        }
+    }
+}
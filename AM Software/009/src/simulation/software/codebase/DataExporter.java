@@ -1,23 +1,349 @@
 package simulation.software.codebase;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class DataExporter {
-    public static void exportToCSV(AMSignal signal, String filename) {
-        try (FileWriter writer = new FileWriter(filename)) {
-            writer.write("Time,Message,Carrier,Modulated,Demodulated\n");
-            double[] time = signal.getTime();
-            double[] message = signal.getMessage();
-            double[] carrier = signal.getCarrier();
-            double[] modulated = signal.getSignal();
-            double[] demodulated = signal.getDemodulatedSignal();
-            for (int i = 0; i < time.length; i++) {
-                writer.write(String.format("%.6f,%.6f,%.6f,%.6f,%.6f\n",
-                        time[i], message[i], carrier[i], modulated[i], demodulated[i]));
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-}
\ No newline at end of file
+    private static final long MAPPED_EXPORT_THRESHOLD = 1L << 26; // Raw exports above 64 MiB go through mappings
+    static final int STREAMING_BLOCK_SIZE = 8192;
+    private static final int STREAMING_QUEUE_DEPTH = 4;
+    private static final SignalColumn[] ALL_COLUMNS = SignalColumn.values();
+
+    public static void exportToCSV(AMSignal signal, String filename) throws IOException {
+        exportToCSV(signal, filename, ALL_COLUMNS);
+    }
+
+    /**
+     * Exports the selected signal channels to a CSV file, one row per sample.
+     *
+     * @param signal   The AM signal
+     * @param filename Output file
+     * @param columns  Channels to export, in column order
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if no column is selected
+     */
+    public static void exportToCSV(AMSignal signal, String filename, SignalColumn... columns) throws IOException {
+        requireColumns(columns.length);
+        String[] headers = new String[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            headers[c] = columns[c].getHeader();
+        }
+        SignalBuffer[] data = buffers(signal, columns);
+        recorded(filename, ExportFormat.CSV, data[0].length(), () -> {
+            try (CsvSignalWriter writer = new CsvSignalWriter(filename)) {
+                writer.writeHeader(headers);
+                writeBlocks(writer, data);
+            }
+        });
+    }
+
+    /**
+     * Exports the default channels of a format (all channels, or all but time for WAV).
+     *
+     * @param signal   The AM signal
+     * @param filename Output file
+     * @param format   Export format
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(AMSignal signal, String filename, ExportFormat format) throws IOException {
+        export(signal, filename, format, format.defaultColumns());
+    }
+
+    /**
+     * Exports the selected signal channels in the given format.
+     *
+     * @param signal   The AM signal
+     * @param filename Output file
+     * @param format   Export format
+     * @param columns  Channels to export, in column order
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if no column is selected
+     */
+    public static void export(AMSignal signal, String filename, ExportFormat format, SignalColumn... columns)
+            throws IOException {
+        if (format == ExportFormat.CSV) {
+            exportToCSV(signal, filename, columns);
+            return;
+        }
+        requireColumns(columns.length);
+        SignalBuffer[] data = buffers(signal, columns);
+        recorded(filename, format, data[0].length(), () -> {
+            if (format == ExportFormat.ARCHIVE) {
+                try (SignalArchiveWriter writer = new SignalArchiveWriter(Paths.get(filename), columns,
+                        signal.getSampleRate())) {
+                    writer.setSpectrum(signal.getFrequency(), signal.getSpectrum());
+                    writeBlocks(writer, data);
+                }
+            } else {
+                writeBinary(Paths.get(filename), data, signal.getSampleRate(), format);
+            }
+        });
+    }
+
+    /**
+     * Exports the decimated demodulated signal in the given format, with its time column unless the format is WAV.
+     *
+     * @param signal   The AM signal
+     * @param filename Output file
+     * @param format   Export format
+     * @throws IOException if the file cannot be written
+     */
+    public static void exportDecimated(AMSignal signal, String filename, ExportFormat format) throws IOException {
+        if (format == ExportFormat.CSV) {
+            exportDecimatedToCSV(signal, filename);
+            return;
+        }
+        SignalBuffer demodulated = signal.getDecimatedDemodulatedBuffer();
+        int factor = signal.getDecimationFactor();
+        double rate = signal.getSampleRate() / factor;
+        recorded(filename, format, demodulated.length(), () -> {
+            if (format.isWav()) {
+                writeBinary(Paths.get(filename), new SignalBuffer[]{demodulated}, rate, format);
+                return;
+            }
+            SignalBuffer time = signal.getTimeBuffer();
+            double[] decimatedTime = new double[demodulated.length()];
+            for (int i = 0; i < decimatedTime.length; i++) {
+                decimatedTime[i] = time.get(i * factor);
+            }
+            SignalBuffer[] data = {new DoubleSignalBuffer(decimatedTime), demodulated};
+            if (format == ExportFormat.ARCHIVE) {
+                try (SignalArchiveWriter writer = new SignalArchiveWriter(Paths.get(filename),
+                        new SignalColumn[]{SignalColumn.TIME, SignalColumn.DEMODULATED}, rate)) {
+                    writeBlocks(writer, data);
+                }
+            } else {
+                writeBinary(Paths.get(filename), data, rate, format);
+            }
+        });
+    }
+
+    /**
+     * Writes channels as a raw file through memory-mapped windows, without an intermediate buffer.
+     *
+     * @param path       Output file
+     * @param data       Channel arrays of equal length
+     * @param sampleRate Sample rate in Hz
+     * @param float32    True for float32 samples, false for float64
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if no channel is given
+     */
+    public static void exportMapped(Path path, double[][] data, double sampleRate, boolean float32) throws IOException {
+        requireColumns(data.length);
+        recorded(path.toString(), float32 ? ExportFormat.RAW_FLOAT32 : ExportFormat.RAW_FLOAT64, data[0].length, () -> {
+            try (MappedSignalWriter writer = new MappedSignalWriter(path, data.length, sampleRate, float32,
+                    data[0].length)) {
+                writer.write(data, 0, data[0].length);
+            }
+        });
+    }
+
+    /**
+     * Runs a streaming simulation and exports it while it is generated. Blocks are written on a separate I/O thread,
+     * so computation and output overlap; the simulation waits when the writer falls behind.
+     *
+     * @param modulator    Streaming modulator (continues from its current position)
+     * @param totalSamples Number of samples to generate
+     * @param filename     Output file
+     * @param format       CSV, archive or one of the raw formats
+     * @throws IOException if the file cannot be written
+     */
+    public static void exportStreaming(StreamingModulator modulator, long totalSamples, String filename,
+                                       ExportFormat format) throws IOException {
+        SignalColumn[] columns = StreamingModulator.COLUMNS;
+        recorded(filename, format, totalSamples, () -> {
+            try (AsyncExportSink sink = openAsyncSink(columns, modulator.getSampleRate(), totalSamples, filename,
+                    format)) {
+                modulator.run(totalSamples, STREAMING_BLOCK_SIZE, sink);
+            }
+        });
+    }
+
+    /**
+     * Exports every channel of a signal source (an off-heap signal or an imported capture) block by block, so the
+     * source never has to fit on the heap. Reading and writing overlap through a separate I/O thread.
+     *
+     * @param source   Signal source
+     * @param filename Output file
+     * @param format   CSV, archive or one of the raw formats
+     * @throws IOException if the source cannot be read or the file cannot be written
+     * @throws IllegalArgumentException if the source has no channels
+     */
+    public static void exportSource(SignalSource source, String filename, ExportFormat format) throws IOException {
+        SignalColumn[] columns = Arrays.stream(ALL_COLUMNS).filter(source::hasColumn)
+                .toArray(SignalColumn[]::new);
+        requireColumns(columns.length);
+        long total = source.getLength();
+        recorded(filename, format, total, () -> {
+            try (AsyncExportSink sink = openAsyncSink(columns, source.getSampleRate(), total, filename, format)) {
+                double[][] block = new double[columns.length][STREAMING_BLOCK_SIZE];
+                for (long offset = 0; offset < total; offset += STREAMING_BLOCK_SIZE) {
+                    int count = (int) Math.min(STREAMING_BLOCK_SIZE, total - offset);
+                    for (int c = 0; c < columns.length; c++) {
+                        source.read(columns[c], offset, block[c], 0, count);
+                    }
+                    sink.write(block, 0, count);
+                }
+            }
+        });
+    }
+
+    /**
+     * An export step that writes one file.
+     */
+    private interface ExportTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs an export inside a Flight Recorder {@link ExportEvent} and records its size and duration in the metrics.
+     */
+    private static void recorded(String filename, ExportFormat format, long samples, ExportTask task)
+            throws IOException {
+        ExportEvent event = new ExportEvent();
+        event.begin();
+        long start = System.nanoTime();
+        task.run();
+        long nanos = Math.max(1, System.nanoTime() - start);
+        event.end();
+        long bytes = Files.size(Paths.get(filename));
+        SimulationMetrics.recordExport(format, bytes, nanos);
+        if (event.shouldCommit()) {
+            event.file = filename;
+            event.format = format.toString();
+            event.samples = samples;
+            event.bytes = bytes;
+            event.throughput = Math.round(bytes * 1e9 / nanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Opens the file sink of a streamed export behind an I/O thread. The file is closed again if the I/O thread
+     * cannot be set up; otherwise it is closed with the returned sink.
+     */
+    private static AsyncExportSink openAsyncSink(SignalColumn[] columns, double sampleRate, long totalSamples,
+                                                 String filename, ExportFormat format) throws IOException {
+        SignalBlockSink target = openSink(columns, sampleRate, totalSamples, filename, format);
+        try {
+            return new AsyncExportSink(target, columns.length, STREAMING_BLOCK_SIZE, STREAMING_QUEUE_DEPTH);
+        } catch (RuntimeException | Error e) {
+            try {
+                target.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the block sink for a streamed export.
+     */
+    private static SignalBlockSink openSink(SignalColumn[] columns, double sampleRate, long totalSamples,
+                                            String filename, ExportFormat format) throws IOException {
+        SignalBlockSink target;
+        if (format == ExportFormat.CSV) {
+            CsvSignalWriter csv = new CsvSignalWriter(filename);
+            String[] headers = new String[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                headers[c] = columns[c].getHeader();
+            }
+            try {
+                csv.writeHeader(headers);
+            } catch (IOException e) {
+                csv.close();
+                throw e;
+            }
+            target = csv;
+        } else if (format == ExportFormat.ARCHIVE) {
+            target = new SignalArchiveWriter(Paths.get(filename), columns, sampleRate);
+        } else if (format == ExportFormat.RAW_FLOAT32 || format == ExportFormat.RAW_FLOAT64) {
+            target = new MappedSignalWriter(Paths.get(filename), columns.length, sampleRate,
+                    format == ExportFormat.RAW_FLOAT32, totalSamples);
+        } else {
+            throw new IllegalArgumentException("Streaming export supports CSV, raw and archive formats only");
+        }
+        return target;
+    }
+
+    /**
+     * Rejects an export without channels before anything reads the first one.
+     */
+    private static void requireColumns(int count) {
+        if (count == 0) {
+            throw new IllegalArgumentException("At least one column must be selected");
+        }
+    }
+
+    /**
+     * Gets the stored buffers of the selected channels.
+     */
+    private static SignalBuffer[] buffers(AMSignal signal, SignalColumn[] columns) {
+        SignalBuffer[] buffers = new SignalBuffer[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            buffers[c] = columns[c].buffer(signal);
+        }
+        return buffers;
+    }
+
+    /**
+     * Feeds stored buffers to a sink in blocks, widening only one block at a time.
+     */
+    private static void writeBlocks(SignalBlockSink sink, SignalBuffer[] buffers) throws IOException {
+        int length = buffers[0].length();
+        int blockSize = Math.min(STREAMING_BLOCK_SIZE, length);
+        double[][] block = new double[buffers.length][blockSize];
+        for (int offset = 0; offset < length; offset += blockSize) {
+            int count = Math.min(blockSize, length - offset);
+            for (int c = 0; c < buffers.length; c++) {
+                buffers[c].copyTo(offset, block[c], 0, count);
+            }
+            sink.write(block, 0, count);
+        }
+    }
+
+    private static void writeBinary(Path path, SignalBuffer[] data, double sampleRate, ExportFormat format)
+            throws IOException {
+        switch (format) {
+            case RAW_FLOAT32:
+            case RAW_FLOAT64:
+                boolean float32 = format == ExportFormat.RAW_FLOAT32;
+                long bytes = (long) data.length * data[0].length() * (float32 ? 4 : 8);
+                if (bytes > MAPPED_EXPORT_THRESHOLD) {
+                    try (MappedSignalWriter writer = new MappedSignalWriter(path, data.length, sampleRate, float32,
+                            data[0].length())) {
+                        writeBlocks(writer, data);
+                    }
+                } else {
+                    BinarySignalWriter.writeRaw(path, data, sampleRate, float32);
+                }
+                break;
+            case NPY:
+                BinarySignalWriter.writeNpy(path, data);
+                break;
+            default:
+                BinarySignalWriter.writeWav(path, data, sampleRate, format);
+                break;
+        }
+    }
+
+    public static void exportDecimatedToCSV(AMSignal signal, String filename) throws IOException {
+        SignalBuffer time = signal.getTimeBuffer();
+        SignalBuffer demodulated = signal.getDecimatedDemodulatedBuffer();
+        int factor = signal.getDecimationFactor();
+        recorded(filename, ExportFormat.CSV, demodulated.length(), () -> {
+            try (CsvSignalWriter writer = new CsvSignalWriter(filename)) {
+                writer.writeHeader(SignalColumn.TIME.getHeader(), SignalColumn.DEMODULATED.getHeader());
+                for (int i = 0; i < demodulated.length(); i++) {
+                    writer.writeValue(time.get(i * factor));
+                    writer.writeValue(demodulated.get(i));
+                    writer.endRow();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package simulation.software.codebase;
+
+/**
+ * Signal buffer backed by a double array.
+ */
+public final class DoubleSignalBuffer implements SignalBuffer {
+    private final double[] values;
+
+    /**
+     * Constructor for DoubleSignalBuffer.
+     *
+     * @param values Samples (kept, not copied)
+     */
+    public DoubleSignalBuffer(double[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int length() {
+        return values.length;
+    }
+
+    @Override
+    public double get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void copyTo(int srcOffset, double[] destination, int destOffset, int length) {
+        System.arraycopy(values, srcOffset, destination, destOffset, length);
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        return values;
+    }
+
+    @Override
+    public SignalStorage storage() {
+        return SignalStorage.DOUBLE;
+    }
+}
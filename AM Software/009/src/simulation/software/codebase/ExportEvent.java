@@ -0,0 +1,36 @@
+package simulation.software.codebase;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one export by {@link DataExporter}.
+ */
+@Name("simulation.software.Export")
+@Label("Signal Export")
+@Category({"AM Simulation", "Export"})
+@Description("One signal export to a file")
+class ExportEvent extends Event {
+    @Label("File")
+    String file;
+
+    @Label("Format")
+    String format;
+
+    @Label("Samples")
+    long samples;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Throughput")
+    @DataAmount
+    @Frequency
+    long throughput;
+}
@@ -0,0 +1,57 @@
+package simulation.software.codebase;
+
+/**
+ * File formats supported by {@link DataExporter}.
+ */
+public enum ExportFormat {
+    CSV("CSV", "csv"),
+    RAW_FLOAT32("Raw float32", "f32"),
+    RAW_FLOAT64("Raw float64", "f64"),
+    WAV_PCM16("WAV 16-bit PCM", "wav"),
+    WAV_PCM24("WAV 24-bit PCM", "wav"),
+    WAV_PCM32("WAV 32-bit PCM", "wav"),
+    WAV_FLOAT32("WAV 32-bit float", "wav"),
+    NPY("NumPy .npy", "npy"),
+    ARCHIVE("Compressed archive", "amsa");
+
+    private final String displayName;
+    private final String extension;
+
+    ExportFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+
+    /**
+     * Gets the file extension (without the dot).
+     * @return file extension
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Checks whether the format is a WAV audio file, which carries no time column.
+     * @return true for WAV formats
+     */
+    public boolean isWav() {
+        return this == WAV_PCM16 || this == WAV_PCM24 || this == WAV_PCM32 || this == WAV_FLOAT32;
+    }
+
+    /**
+     * Gets the channels exported when none are selected explicitly.
+     * @return default columns
+     */
+    public SignalColumn[] defaultColumns() {
+        if (isWav()) {
+            return new SignalColumn[]{SignalColumn.MESSAGE, SignalColumn.CARRIER, SignalColumn.MODULATED,
+                    SignalColumn.DEMODULATED};
+        }
+        return SignalColumn.values();
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,226 @@
+package simulation.software.codebase;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-place iterative radix-2 complex FFT on separate real and imaginary arrays.
+ * Twiddle factors are computed once per transform size and cached.
+ */
+public final class FastFourierTransform {
+    private static final Map<Integer, double[][]> TWIDDLES = new ConcurrentHashMap<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    // Real and imaginary scratch of windowedSpectrum, kept per thread and resized only when the FFT size changes
+    private static final ThreadLocal<double[][]> SPECTRUM_SCRATCH = ThreadLocal.withInitial(() -> new double[2][0]);
+
+    private FastFourierTransform() {
+    }
+
+    /**
+     * Computes the forward transform in place.
+     *
+     * @param re Real parts (length must be a power of two)
+     * @param im Imaginary parts (same length)
+     * @throws IllegalArgumentException if the length is not a power of two
+     */
+    public static void transform(double[] re, double[] im) {
+        int n = re.length;
+        if (n == 0 || Integer.bitCount(n) != 1 || im.length != n) {
+            throw new IllegalArgumentException("FFT size must be a power of two and match for real and imaginary parts");
+        }
+        if (n == 1) {
+            return;
+        }
+        FftEvent event = new FftEvent();
+        event.begin();
+        bitReverse(re, im);
+        SimulationMetrics.FFT_TWIDDLE_LOOKUPS.increment();
+        double[][] twiddles = TWIDDLES.computeIfAbsent(n, FastFourierTransform::computeTwiddles);
+        double[] cos = twiddles[0];
+        double[] sin = twiddles[1];
+        for (int size = 2; size <= n; size <<= 1) {
+            int half = size >> 1;
+            int stride = n / size;
+            for (int start = 0; start < n; start += size) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * stride];
+                    double wi = sin[k * stride];
+                    int even = start + k;
+                    int odd = even + half;
+                    double tr = wr * re[odd] - wi * im[odd];
+                    double ti = wr * im[odd] + wi * re[odd];
+                    re[odd] = re[even] - tr;
+                    im[odd] = im[even] - ti;
+                    re[even] += tr;
+                    im[even] += ti;
+                }
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.size = n;
+            event.caller = caller();
+            event.commit();
+        }
+    }
+
+    /**
+     * Names the first method outside this class on the current stack, e.g. "SpectrumAnalysisFFT.computeFFT".
+     * Only called while an FFT event is being recorded.
+     */
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(f -> !f.getClassName().equals(FastFourierTransform.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("unknown"));
+    }
+
+    /**
+     * Computes the inverse transform in place, including the 1/n scaling.
+     *
+     * @param re Real parts (length must be a power of two)
+     * @param im Imaginary parts (same length)
+     */
+    public static void inverse(double[] re, double[] im) {
+        int n = re.length;
+        for (int i = 0; i < n; i++) {
+            im[i] = -im[i];
+        }
+        transform(re, im);
+        for (int i = 0; i < n; i++) {
+            re[i] /= n;
+            im[i] = -im[i] / n;
+        }
+    }
+
+    /**
+     * Computes the Hilbert transform (-90 degree phase shift) of a real signal by multiplying its spectrum by
+     * -j sgn(f). Signals whose length is not a power of two are zero-padded for the transform and the result is
+     * truncated to the input length.
+     *
+     * @param signal Real input samples (not modified)
+     * @return Hilbert transform of the signal
+     */
+    public static double[] hilbert(double[] signal) {
+        int n = signal.length;
+        int size = nextPowerOfTwo(n);
+        double[] re = Arrays.copyOf(signal, size);
+        double[] im = new double[size];
+        transform(re, im);
+
+        // Shift positive frequencies by -90 degrees, negative by +90, zero DC and Nyquist
+        for (int i = 0; i < size; i++) {
+            double sign = (i == 0 || i == size / 2) ? 0 : (i < size / 2 ? 1 : -1);
+            double r = re[i];
+            re[i] = sign * im[i];
+            im[i] = -sign * r;
+        }
+
+        inverse(re, im);
+        return size == n ? re : Arrays.copyOf(re, n);
+    }
+
+    /**
+     * Gets the smallest power of two that is at least the given length.
+     *
+     * @param length Signal length
+     * @return transform size
+     */
+    public static int nextPowerOfTwo(int length) {
+        int size = 1;
+        while (size < length) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static void bitReverse(double[] re, double[] im) {
+        int n = re.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+    }
+
+    private static double[][] computeTwiddles(int n) {
+        SimulationMetrics.FFT_TWIDDLE_MISSES.increment();
+        double[] cos = new double[n / 2];
+        double[] sin = new double[n / 2];
+        for (int k = 0; k < n / 2; k++) {
+            double angle = -2 * Math.PI * k / n;
+            cos[k] = Math.cos(angle);
+            sin[k] = Math.sin(angle);
+        }
+        return new double[][]{cos, sin};
+    }
+
+    /**
+     * Computes the single-sided amplitude spectrum of a Hamming-windowed signal. The input is windowed while it is
+     * read into the transform scratch, so a {@link SignalView} is analyzed without an intermediate copy.
+     *
+     * @param input      Time-domain samples (at most re.length of them; the rest is zero-padded)
+     * @param re         Real scratch (length must be a power of two; overwritten)
+     * @param im         Imaginary scratch (same length; overwritten)
+     * @param magnitudes Output amplitudes for bins 0 to re.length / 2 - 1
+     * @throws IllegalArgumentException if the scratch arrays do not fit the input
+     */
+    public static void hammingSpectrum(SignalBuffer input, double[] re, double[] im, double[] magnitudes) {
+        int n = input.length();
+        int size = re.length;
+        if (n > size || magnitudes.length < size / 2) {
+            throw new IllegalArgumentException("FFT scratch must hold the input and the output must hold half the FFT size");
+        }
+        double scale = n > 1 ? 2 * Math.PI / (n - 1) : 0;
+        for (int i = 0; i < n; i++) {
+            re[i] = input.get(i) * (0.54 - 0.46 * Math.cos(scale * i));
+        }
+        Arrays.fill(re, n, size, 0);
+        Arrays.fill(im, 0);
+        transform(re, im);
+        for (int i = 0; i < size / 2; i++) {
+            magnitudes[i] = Math.sqrt(re[i] * re[i] + im[i] * im[i]) / size * 2;
+        }
+    }
+
+    /**
+     * Computes the Hamming-windowed amplitude spectrum of a signal together with its frequency axis. The transform is
+     * zero-padded to the next power of two.
+     *
+     * @param input        Time-domain samples
+     * @param samplingRate Sample rate in Hz
+     * @return array of {frequencies, magnitudes} for bins 0 to half the FFT size
+     * @throws IllegalArgumentException if the input is empty
+     */
+    public static double[][] windowedSpectrum(SignalBuffer input, double samplingRate) {
+        if (input.length() == 0) {
+            throw new IllegalArgumentException("Signal cannot be null or empty");
+        }
+        int fftSize = nextPowerOfTwo(input.length());
+        double[] frequencies = new double[fftSize / 2];
+        double[] magnitudes = new double[fftSize / 2];
+        double[][] scratch = SPECTRUM_SCRATCH.get();
+        if (scratch[0].length != fftSize) {
+            scratch[0] = new double[fftSize];
+            scratch[1] = new double[fftSize];
+        }
+        hammingSpectrum(input, scratch[0], scratch[1], magnitudes);
+        double nyquist = samplingRate / 2.0;
+        for (int i = 0; i < fftSize / 2; i++) {
+            frequencies[i] = i * nyquist / (fftSize / 2.0);
+        }
+        return new double[][]{frequencies, magnitudes};
+    }
+}
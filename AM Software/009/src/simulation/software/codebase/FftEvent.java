@@ -0,0 +1,25 @@
+package simulation.software.codebase;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one FFT. The caller is recorded as a field instead of a stack trace, which keeps the
+ * event cheap enough for the animated spectrum windows.
+ */
+@Name("simulation.software.Fft")
+@Label("FFT")
+@Category({"AM Simulation", "Analysis"})
+@Description("One fast Fourier transform")
+@StackTrace(false)
+class FftEvent extends Event {
+    @Label("Size")
+    int size;
+
+    @Label("Caller")
+    String caller;
+}
@@ -0,0 +1,147 @@
+package simulation.software.codebase;
+
+import java.util.Arrays;
+
+/**
+ * Block-mode FIR filter with persistent state, so a long signal can be filtered in consecutive blocks.
+ * Filters longer than {@value #DIRECT_FORM_MAX_TAPS} taps convolve by FFT (overlap-save), so their cost per sample
+ * grows with the logarithm of the length instead of the length.
+ */
+public class FirFilter {
+    private static final int DIRECT_FORM_MAX_TAPS = 1023;
+
+    private final double[] coefficients;
+    private final double[] delayLine;
+    private int position;
+    // Overlap-save state: transform of the zero-padded coefficients, the last taps - 1 inputs and the block scratch
+    private final double[] responseRe;
+    private final double[] responseIm;
+    private final double[] history;
+    private final double[] blockRe;
+    private final double[] blockIm;
+
+    /**
+     * Constructor for FirFilter.
+     *
+     * @param coefficients Filter coefficients (shared, not modified)
+     */
+    public FirFilter(double[] coefficients) {
+        if (coefficients == null || coefficients.length == 0) {
+            throw new IllegalArgumentException("Filter coefficients must be non-empty");
+        }
+        this.coefficients = coefficients;
+        int taps = coefficients.length;
+        if (taps <= DIRECT_FORM_MAX_TAPS) {
+            // Doubled delay line: every sample is stored twice so the taps always read a contiguous window
+            this.delayLine = new double[2 * taps];
+            this.responseRe = null;
+            this.responseIm = null;
+            this.history = null;
+            this.blockRe = null;
+            this.blockIm = null;
+        } else {
+            int size = FastFourierTransform.nextPowerOfTwo(4 * taps);
+            this.delayLine = null;
+            this.responseRe = Arrays.copyOf(coefficients, size);
+            this.responseIm = new double[size];
+            FastFourierTransform.transform(responseRe, responseIm);
+            this.history = new double[taps - 1];
+            this.blockRe = new double[size];
+            this.blockIm = new double[size];
+        }
+    }
+
+    /**
+     * Filters one block of samples, continuing from the state left by the previous block.
+     *
+     * @param input     Input samples
+     * @param inOffset  Offset of the first input sample
+     * @param output    Output array (may be the input array when the offsets match)
+     * @param outOffset Offset of the first output sample
+     * @param length    Number of samples to process
+     */
+    public void process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        if (history != null) {
+            overlapSave(input, inOffset, output, outOffset, length);
+            return;
+        }
+        int taps = coefficients.length;
+        for (int n = 0; n < length; n++) {
+            position = position == 0 ? taps - 1 : position - 1;
+            double x = input[inOffset + n];
+            delayLine[position] = x;
+            delayLine[position + taps] = x;
+            double acc = 0;
+            for (int k = 0; k < taps; k++) {
+                acc += coefficients[k] * delayLine[position + k];
+            }
+            output[outOffset + n] = acc;
+        }
+    }
+
+    /**
+     * Long-filter form of {@link #process}: each block of new samples is transformed together with the taps - 1
+     * samples before it, multiplied by the filter response, and the outputs unaffected by circular wrap-around kept.
+     */
+    private void overlapSave(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        int overlap = history.length;
+        int size = blockRe.length;
+        int step = size - overlap;
+        for (int done = 0; done < length; ) {
+            int count = Math.min(step, length - done);
+            System.arraycopy(history, 0, blockRe, 0, overlap);
+            System.arraycopy(input, inOffset + done, blockRe, overlap, count);
+            Arrays.fill(blockRe, overlap + count, size, 0);
+            Arrays.fill(blockIm, 0);
+            // Save the newest inputs before the output, which may share the input array, overwrites them
+            System.arraycopy(blockRe, count, history, 0, overlap);
+            FastFourierTransform.transform(blockRe, blockIm);
+            for (int k = 0; k < size; k++) {
+                double re = blockRe[k] * responseRe[k] - blockIm[k] * responseIm[k];
+                blockIm[k] = blockRe[k] * responseIm[k] + blockIm[k] * responseRe[k];
+                blockRe[k] = re;
+            }
+            FastFourierTransform.inverse(blockRe, blockIm);
+            System.arraycopy(blockRe, overlap, output, outOffset + done, count);
+            done += count;
+        }
+    }
+
+    /**
+     * Filters a whole signal and removes the group delay, so the output lines up with the input in time.
+     *
+     * @param input  Input samples
+     * @param output Output array of the same length
+     */
+    public void filterAligned(double[] input, double[] output) {
+        int delay = getGroupDelay();
+        int n = input.length;
+        reset();
+        double[] scratch = new double[n + delay];
+        process(input, 0, scratch, 0, n);
+        // Flush the tail through the filter with zeros
+        double[] zeros = new double[delay];
+        process(zeros, 0, scratch, n, delay);
+        System.arraycopy(scratch, delay, output, 0, n);
+    }
+
+    /**
+     * Clears the filter state.
+     */
+    public void reset() {
+        if (history != null) {
+            Arrays.fill(history, 0);
+        } else {
+            Arrays.fill(delayLine, 0);
+        }
+        position = 0;
+    }
+
+    /**
+     * Gets the group delay in samples (linear-phase filters).
+     * @return group delay
+     */
+    public int getGroupDelay() {
+        return (coefficients.length - 1) / 2;
+    }
+}
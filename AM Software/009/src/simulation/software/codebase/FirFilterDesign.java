@@ -0,0 +1,149 @@
+package simulation.software.codebase;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Windowed-sinc FIR filter design for the modulation and demodulation stages.
+ * Designed coefficient sets are cached per configuration, so repeated signal updates reuse them.
+ * Returned arrays are shared and must not be modified by callers.
+ */
+public final class FirFilterDesign {
+    private static final int MIN_TAPS = 31;
+    private static final int MAX_HILBERT_TAPS = 1023;
+    // Longest VSB filter designed (8 MiB of coefficients); FirFilter convolves filters this long by FFT
+    private static final int MAX_VSB_TAPS = (1 << 20) - 1;
+    private static final Map<String, double[]> CACHE = new ConcurrentHashMap<>();
+
+    private FirFilterDesign() {
+    }
+
+    /**
+     * Designs the vestigial sideband shaping filter: a high-pass with a linear (odd-symmetric) transition
+     * centred on the carrier, so that H(fc + f) + H(fc - f) = 1 across the vestige.
+     *
+     * @param carrierFreq  Carrier frequency in Hz
+     * @param vestigeWidth Half-width of the vestige in Hz (transition runs from fc - fv to fc + fv)
+     * @param sampleRate   Sample rate in Hz
+     * @return filter coefficients (odd length, linear phase)
+     * @throws IllegalArgumentException if the vestige does not fit below the Nyquist frequency, or is too narrow for
+     *                                  the sample rate to be shaped by a filter of at most 2^20 taps
+     */
+    public static double[] vestigialSideband(double carrierFreq, double vestigeWidth, double sampleRate) {
+        if (vestigeWidth <= 0 || carrierFreq - vestigeWidth <= 0) {
+            throw new IllegalArgumentException("Vestige width must be positive and smaller than the carrier frequency");
+        }
+        if (carrierFreq + vestigeWidth >= sampleRate / 2) {
+            throw new IllegalArgumentException("VSB requires the carrier plus vestige to stay below the Nyquist frequency ("
+                    + String.format("%.0f", sampleRate / 2) + " Hz); increase the sample count or reduce the duration");
+        }
+        double cutoff = carrierFreq / sampleRate;
+        double transition = 2 * vestigeWidth / sampleRate;
+        int taps = tapsForTransition(transition, MAX_VSB_TAPS);
+        if (taps > MAX_VSB_TAPS) {
+            throw new IllegalArgumentException(String.format("The %.1f Hz vestige is too narrow to shape at a sample rate "
+                    + "of %.0f Hz; reduce the sample count or increase the duration", vestigeWidth, sampleRate));
+        }
+        String key = "vsb:" + cutoff + ":" + transition + ":" + taps;
+        SimulationMetrics.FILTER_DESIGN_LOOKUPS.increment();
+        return CACHE.computeIfAbsent(key, k -> {
+            SimulationMetrics.FILTER_DESIGN_MISSES.increment();
+            double[] h = trapezoidalLowpass(cutoff, transition, taps);
+            // Spectral inversion turns the low-pass into the matching high-pass
+            for (int i = 0; i < taps; i++) {
+                h[i] = -h[i];
+            }
+            h[taps / 2] += 1;
+            return h;
+        });
+    }
+
+    /**
+     * Designs a linear-phase low-pass filter with unity DC gain.
+     *
+     * @param cutoff Normalized cutoff frequency (cycles per sample, 0–0.5)
+     * @param taps   Number of taps (odd)
+     * @return filter coefficients
+     */
+    public static double[] lowpass(double cutoff, int taps) {
+        if (cutoff <= 0 || cutoff >= 0.5) {
+            throw new IllegalArgumentException("Normalized cutoff must be between 0 and 0.5");
+        }
+        if (taps < 1 || taps % 2 == 0) {
+            throw new IllegalArgumentException("Tap count must be odd and positive");
+        }
+        String key = "lp:" + cutoff + ":" + taps;
+        SimulationMetrics.FILTER_DESIGN_LOOKUPS.increment();
+        return CACHE.computeIfAbsent(key, k -> {
+            SimulationMetrics.FILTER_DESIGN_MISSES.increment();
+            return trapezoidalLowpass(cutoff, 0, taps);
+        });
+    }
+
+    /**
+     * Designs a Hamming-windowed FIR Hilbert transformer (-90 degree phase shift) whose passband starts near
+     * the given lowest frequency.
+     *
+     * @param lowestFreq Lowest frequency that must be shifted accurately, in Hz
+     * @param sampleRate Sample rate in Hz
+     * @return filter coefficients (odd length, antisymmetric)
+     */
+    public static double[] hilbert(double lowestFreq, double sampleRate) {
+        if (lowestFreq <= 0 || lowestFreq >= sampleRate / 2) {
+            throw new IllegalArgumentException("Lowest frequency must be between 0 and the Nyquist frequency");
+        }
+        int taps = Math.min(tapsForTransition(lowestFreq / sampleRate, MAX_HILBERT_TAPS), MAX_HILBERT_TAPS);
+        String key = "hilbert:" + taps;
+        SimulationMetrics.FILTER_DESIGN_LOOKUPS.increment();
+        return CACHE.computeIfAbsent(key, k -> {
+            SimulationMetrics.FILTER_DESIGN_MISSES.increment();
+            double[] h = new double[taps];
+            int mid = taps / 2;
+            for (int i = 0; i < taps; i++) {
+                int n = i - mid;
+                if (n % 2 != 0) {
+                    double window = 0.54 - 0.46 * Math.cos(2 * Math.PI * i / (taps - 1));
+                    h[i] = 2 / (Math.PI * n) * window;
+                }
+            }
+            return h;
+        });
+    }
+
+    /**
+     * Hamming-windowed low-pass whose ideal response has a linear transition of the given width
+     * (sinc(2fk) · sinc(Wk)), normalized to unity DC gain.
+     */
+    private static double[] trapezoidalLowpass(double cutoff, double transition, int taps) {
+        double[] h = new double[taps];
+        int mid = taps / 2;
+        double sum = 0;
+        for (int i = 0; i < taps; i++) {
+            int k = i - mid;
+            double window = 0.54 - 0.46 * Math.cos(2 * Math.PI * i / (taps - 1));
+            h[i] = 2 * cutoff * sinc(2 * cutoff * k) * sinc(transition * k) * window;
+            sum += h[i];
+        }
+        for (int i = 0; i < taps; i++) {
+            h[i] /= sum;
+        }
+        return h;
+    }
+
+    /**
+     * Picks an odd tap count long enough for the transition width. Counts above the limit are returned as limit + 1
+     * (or more), so the caller decides whether to cap or reject them.
+     */
+    private static int tapsForTransition(double transition, int limit) {
+        double needed = Math.ceil(4 / transition);
+        int taps = needed > limit ? limit + 1 : Math.max(MIN_TAPS, (int) needed);
+        return taps % 2 == 0 ? taps + 1 : taps;
+    }
+
+    private static double sinc(double x) {
+        if (x == 0) {
+            return 1;
+        }
+        return Math.sin(Math.PI * x) / (Math.PI * x);
+    }
+}
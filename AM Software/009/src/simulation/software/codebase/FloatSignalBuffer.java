@@ -0,0 +1,49 @@
+package simulation.software.codebase;
+
+/**
+ * Signal buffer backed by a float array, holding half the memory of double storage.
+ */
+public final class FloatSignalBuffer implements SignalBuffer {
+    private final float[] values;
+
+    /**
+     * Constructor for FloatSignalBuffer, rounding each sample to float.
+     *
+     * @param values Samples computed in double
+     */
+    public FloatSignalBuffer(double[] values) {
+        this.values = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = (float) values[i];
+        }
+    }
+
+    @Override
+    public int length() {
+        return values.length;
+    }
+
+    @Override
+    public double get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void copyTo(int srcOffset, double[] destination, int destOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            destination[destOffset + i] = values[srcOffset + i];
+        }
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        double[] copy = new double[values.length];
+        copyTo(0, copy, 0, values.length);
+        return copy;
+    }
+
+    @Override
+    public SignalStorage storage() {
+        return SignalStorage.FLOAT;
+    }
+}
@@ -0,0 +1,146 @@
+package simulation.software.codebase;
+
+/**
+ * Total Harmonic Distortion (THD) of the first analysis window of an AM signal, computed without a display.
+ * {@link TotalHarmonicDistortion} shows the same result in a window.
+ */
+public class HarmonicDistortionAnalysis {
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(HarmonicDistortionAnalysis.class);
+    public static final int WINDOW_SIZE = 1024; // FFT window size
+    private static final int HARMONICS = 10;
+
+    private final double[] frequencies;
+    private final double[] magnitudes;
+    private final double fundamentalFreq;
+    private final double[] harmonicMagnitudes;
+    private final double thdPercentage;
+
+    /**
+     * Constructor for HarmonicDistortionAnalysis.
+     *
+     * @param signal The AM signal to analyze
+     * @throws IllegalArgumentException if the signal is shorter than one analysis window
+     */
+    public HarmonicDistortionAnalysis(AMSignal signal) {
+        this(signal == null ? null : signal.getSignalBuffer(), signal == null ? null : signal.getTimeBuffer());
+    }
+
+    /**
+     * Constructor for HarmonicDistortionAnalysis on bare sample buffers, e.g. straight from {@link ModulationAndDemodulation}.
+     *
+     * @param modulatedSignal Modulated signal samples
+     * @param time            Sample times in seconds
+     * @throws IllegalArgumentException if the signal is shorter than one analysis window
+     */
+    public HarmonicDistortionAnalysis(SignalBuffer modulatedSignal, SignalBuffer time) {
+        if (modulatedSignal == null || time == null || modulatedSignal.length() < WINDOW_SIZE) {
+            throw new IllegalArgumentException("Invalid or insufficient signal data for THD analysis.");
+        }
+        double duration = time.get(time.length() - 1);
+        int signalLength = modulatedSignal.length();
+
+        // First window of the signal, Hamming-weighted inside the FFT
+        SignalView window = SignalView.of(modulatedSignal).slice(0, Math.min(WINDOW_SIZE, signalLength));
+        double samplingRate = signalLength / duration;
+        double[][] fftResult = FastFourierTransform.windowedSpectrum(window, samplingRate);
+        frequencies = fftResult[0];
+        magnitudes = fftResult[1];
+
+        // Find fundamental frequency (strongest peak in plausible range)
+        fundamentalFreq = findFundamentalFrequency(frequencies, magnitudes);
+        if (fundamentalFreq == 0) {
+            LOGGER.warning("Could not identify fundamental frequency for THD.");
+            thdPercentage = 0;
+            harmonicMagnitudes = new double[0];
+            return;
+        }
+
+        // Identify harmonic magnitudes (up to 10th harmonic or Nyquist)
+        harmonicMagnitudes = new double[HARMONICS];
+        double fundamentalMagnitude = 0;
+        double frequencyResolution = frequencies[1] - frequencies[0];
+        for (int i = 0; i < frequencies.length; i++) {
+            if (Math.abs(frequencies[i] - fundamentalFreq) < frequencyResolution) {
+                fundamentalMagnitude = magnitudes[i];
+            }
+            for (int h = 2; h <= HARMONICS; h++) {
+                if (Math.abs(frequencies[i] - h * fundamentalFreq) < frequencyResolution) {
+                    harmonicMagnitudes[h - 1] = magnitudes[i];
+                }
+            }
+        }
+
+        // Compute THD
+        double harmonicPowerSum = 0;
+        for (double mag : harmonicMagnitudes) {
+            harmonicPowerSum += mag * mag;
+        }
+        double fundamentalPower = fundamentalMagnitude * fundamentalMagnitude;
+        if (fundamentalPower == 0) {
+            thdPercentage = 0;
+        } else {
+            thdPercentage = Math.sqrt(harmonicPowerSum / fundamentalPower) * 100;
+        }
+    }
+
+    /**
+     * Finds the fundamental frequency by selecting the strongest peak in the spectrum.
+     */
+    private static double findFundamentalFrequency(double[] frequencies, double[] magnitudes) {
+        double maxMagnitude = 0;
+        int maxIndex = 0;
+        double minFreq = 10.0; // Minimum plausible frequency (based on ControlPanel constraints)
+        double maxFreq = 5000.0; // Maximum plausible frequency
+        for (int i = 0; i < frequencies.length; i++) {
+            if (frequencies[i] >= minFreq && frequencies[i] <= maxFreq && magnitudes[i] > maxMagnitude) {
+                maxMagnitude = magnitudes[i];
+                maxIndex = i;
+            }
+        }
+
+        if (maxMagnitude > 0) {
+            return frequencies[maxIndex];
+        }
+        return 0; // No valid fundamental found
+    }
+
+    /**
+     * Gets the THD.
+     * @return THD in percent (0 if no fundamental was found)
+     */
+    public double getThdPercentage() {
+        return thdPercentage;
+    }
+
+    /**
+     * Gets the detected fundamental frequency.
+     * @return fundamental frequency in Hz (0 if none was found)
+     */
+    public double getFundamentalFrequency() {
+        return fundamentalFreq;
+    }
+
+    /**
+     * Gets the harmonic magnitudes, indexed by harmonic number minus one (index 0 is unused).
+     * @return harmonic magnitudes (empty if no fundamental was found)
+     */
+    public double[] getHarmonicMagnitudes() {
+        return harmonicMagnitudes;
+    }
+
+    /**
+     * Gets the frequency axis of the analysis spectrum.
+     * @return frequencies in Hz
+     */
+    public double[] getFrequencies() {
+        return frequencies;
+    }
+
+    /**
+     * Gets the magnitudes of the analysis spectrum.
+     * @return magnitudes
+     */
+    public double[] getMagnitudes() {
+        return magnitudes;
+    }
+}
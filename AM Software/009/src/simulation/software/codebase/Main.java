@@ -2,11 +2,16 @@ package simulation.software.codebase;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Main application window for the Amplitude Modulation simulation.
  */
 public class Main extends JFrame {
+    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+
     public Main() {
         setTitle("Amplitude Modulation Simulator");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -85,9 +90,21 @@ public class Main extends JFrame {
     }
 
     /**
-     * Main method to launch the application.
+     * Main method to launch the application. With -Dam.metrics.port=PORT, operational metrics are served in the
+     * Prometheus format at http://127.0.0.1:PORT/metrics.
      */
     public static void main(String[] args) {
+        AsyncLogHandler.install();
+        SimulationMetrics.registerWindowGauges();
+        String metricsPort = System.getProperty("am.metrics.port");
+        if (metricsPort != null) {
+            try {
+                MetricsServer server = new MetricsServer(SimulationMetrics.registry(), Integer.parseInt(metricsPort));
+                LOGGER.info("Serving metrics at http://127.0.0.1:" + server.getPort() + "/metrics");
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Could not start the metrics endpoint on port " + metricsPort, e);
+            }
+        }
         SwingUtilities.invokeLater(() -> {
             Main frame = new Main();
             frame.setVisible(true);
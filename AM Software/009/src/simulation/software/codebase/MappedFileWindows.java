@@ -0,0 +1,161 @@
+package simulation.software.codebase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a file through memory-mapped windows, so files beyond 2 GB can be addressed with long offsets.
+ * Windows overlap by a few bytes, so any value of up to eight bytes lies entirely inside the window of its first
+ * byte. Windows are mapped on first use; pages are only read when touched.
+ */
+public class MappedFileWindows implements Closeable {
+    private static final long WINDOW_BYTES = 1L << 30;
+    private static final int OVERLAP = 8;
+
+    private final FileChannel channel;
+    private final long size;
+    private final MappedByteBuffer[] windows;
+
+    /**
+     * Constructor for MappedFileWindows.
+     *
+     * @param path File to map
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedFileWindows(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windows = new MappedByteBuffer[(int) ((size + WINDOW_BYTES - 1) / WINDOW_BYTES)];
+    }
+
+    /**
+     * Gets the file size.
+     * @return size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    public byte get(long position) throws IOException {
+        return window(position).get(offset(position));
+    }
+
+    public short getShort(long position) throws IOException {
+        return window(position).getShort(offset(position));
+    }
+
+    public int getInt(long position) throws IOException {
+        return window(position).getInt(offset(position));
+    }
+
+    public long getLong(long position) throws IOException {
+        return window(position).getLong(offset(position));
+    }
+
+    public float getFloat(long position) throws IOException {
+        return window(position).getFloat(offset(position));
+    }
+
+    public double getDouble(long position) throws IOException {
+        return window(position).getDouble(offset(position));
+    }
+
+    /**
+     * Gets a little-endian view of the bytes from a position to the end of its window, at most {@code maxBytes} of
+     * them, so a run of values can be decoded without a window lookup per value. The view always holds at least the
+     * value of up to eight bytes that starts at the position, if the file does.
+     *
+     * @param position Position of the first byte
+     * @param maxBytes Maximum number of bytes to view
+     * @return view whose index 0 is the byte at position
+     * @throws IOException if the window cannot be mapped
+     */
+    public ByteBuffer view(long position, int maxBytes) throws IOException {
+        MappedByteBuffer window = window(position);
+        int start = offset(position);
+        int end = (int) Math.min(window.capacity(), (long) start + maxBytes);
+        return window.slice(start, end - start).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a cursor for byte-wise scanning. Cursors remember the current window, so sequential reads avoid the
+     * window lookup; each thread needs its own cursor.
+     *
+     * @return new cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Sequential byte reader over the mapped windows.
+     */
+    public final class Cursor {
+        private MappedByteBuffer current;
+        private long base = -1;
+        private long limit = -1;
+
+        private Cursor() {
+        }
+
+        public byte get(long position) throws IOException {
+            if (position < base || position >= limit) {
+                current = window(position);
+                base = position - offset(position);
+                limit = base + Math.min(WINDOW_BYTES, current.capacity());
+            }
+            return current.get((int) (position - base));
+        }
+
+        /**
+         * Finds the end of the line containing position.
+         *
+         * @param position Start position
+         * @return position of the next '\n' or '\r' at or after position, or the file size
+         * @throws IOException if a window cannot be mapped
+         */
+        public long findLineEnd(long position) throws IOException {
+            while (position < size) {
+                get(position); // Makes the window holding position current
+                MappedByteBuffer buffer = current;
+                int end = (int) (Math.min(limit, size) - base);
+                for (int i = (int) (position - base); i < end; i++) {
+                    byte b = buffer.get(i);
+                    if (b == '\n' || b == '\r') {
+                        return base + i;
+                    }
+                }
+                position = base + end;
+            }
+            return size;
+        }
+    }
+
+    private synchronized MappedByteBuffer window(long position) throws IOException {
+        int index = (int) (position / WINDOW_BYTES);
+        MappedByteBuffer window = windows[index];
+        if (window == null) {
+            long start = index * WINDOW_BYTES;
+            long length = Math.min(WINDOW_BYTES + OVERLAP, size - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windows[index] = window;
+        }
+        return window;
+    }
+
+    private static int offset(long position) {
+        return (int) (position % WINDOW_BYTES);
+    }
+}
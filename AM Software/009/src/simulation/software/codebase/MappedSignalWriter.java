@@ -0,0 +1,165 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes interleaved channels in the raw format of {@link BinarySignalWriter} through memory-mapped windows.
+ * The file is pre-sized for the expected number of frames and mapped in fixed windows, so files beyond 2 GB
+ * can be written and samples go straight from the channel arrays into the page cache. Blocks can be appended
+ * one after another, e.g. by a streaming modulator.
+ */
+public class MappedSignalWriter implements SignalBlockSink {
+    private static final Logger LOGGER = Logger.getLogger(MappedSignalWriter.class.getName());
+    private static final long WINDOW_BYTES = 1L << 26; // 64 MiB per mapping
+
+    private final FileChannel channel;
+    private final int channels;
+    private final boolean float32;
+    private final int frameBytes;
+    private final long windowFrames;
+    private final long expectedFrames;
+    private MappedByteBuffer window;
+    private long windowEndFrame;
+    private long framesWritten;
+
+    /**
+     * Constructor for MappedSignalWriter.
+     *
+     * @param path           Output file (created or truncated)
+     * @param channels       Number of interleaved channels
+     * @param sampleRate     Sample rate in Hz (stored in the header)
+     * @param float32        True for float32 samples, false for float64
+     * @param expectedFrames Number of frames to pre-size the file for (more may be written)
+     * @throws IOException if the file cannot be created
+     */
+    public MappedSignalWriter(Path path, int channels, double sampleRate, boolean float32, long expectedFrames)
+            throws IOException {
+        if (channels < 1) {
+            throw new IllegalArgumentException("At least one channel is required");
+        }
+        if (expectedFrames < 0) {
+            throw new IllegalArgumentException("Expected frame count must not be negative");
+        }
+        this.channels = channels;
+        this.float32 = float32;
+        this.frameBytes = channels * (float32 ? 4 : 8);
+        this.windowFrames = Math.max(1, WINDOW_BYTES / frameBytes);
+        this.expectedFrames = expectedFrames;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(BinarySignalWriter.RAW_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(BinarySignalWriter.RAW_MAGIC);
+        header.putShort(BinarySignalWriter.RAW_VERSION);
+        header.putShort((short) (float32 ? 4 : 8));
+        header.putInt(channels);
+        header.putLong(expectedFrames);
+        header.putDouble(sampleRate);
+        header.putInt(0);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        // Pre-size the file so the mappings do not grow it window by window
+        long size = BinarySignalWriter.RAW_HEADER_SIZE + expectedFrames * frameBytes;
+        if (size > BinarySignalWriter.RAW_HEADER_SIZE) {
+            channel.write(ByteBuffer.allocate(1), size - 1);
+        }
+    }
+
+    /**
+     * Appends frames taken from the channel arrays.
+     *
+     * @param data   Channel arrays (one per channel)
+     * @param offset Index of the first sample in each array
+     * @param length Number of frames to write
+     * @throws IOException if a mapping cannot be created
+     */
+    @Override
+    public void write(double[][] data, int offset, int length) throws IOException {
+        if (data.length != channels) {
+            throw new IllegalArgumentException("Expected " + channels + " channels, got " + data.length);
+        }
+        int done = 0;
+        while (done < length) {
+            if (window == null || framesWritten >= windowEndFrame) {
+                mapWindow(framesWritten);
+            }
+            int run = (int) Math.min(length - done, windowEndFrame - framesWritten);
+            MappedByteBuffer target = window;
+            int end = offset + done + run;
+            if (float32) {
+                for (int i = offset + done; i < end; i++) {
+                    for (int c = 0; c < channels; c++) {
+                        target.putFloat((float) data[c][i]);
+                    }
+                }
+            } else {
+                for (int i = offset + done; i < end; i++) {
+                    for (int c = 0; c < channels; c++) {
+                        target.putDouble(data[c][i]);
+                    }
+                }
+            }
+            done += run;
+            framesWritten += run;
+        }
+    }
+
+    /**
+     * Gets the number of frames written so far.
+     * @return frame count
+     */
+    public long getFramesWritten() {
+        return framesWritten;
+    }
+
+    /**
+     * Flushes the mapped data, records the final frame count in the header and trims unused pre-sized space.
+     *
+     * @throws IOException if the file cannot be finalized
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (window != null) {
+                window.force();
+                window = null;
+            }
+            ByteBuffer count = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            count.putLong(framesWritten).flip();
+            channel.write(count, 12); // Sample count field of the raw header
+            long size = BinarySignalWriter.RAW_HEADER_SIZE + framesWritten * frameBytes;
+            if (channel.size() > size) {
+                try {
+                    channel.truncate(size);
+                } catch (IOException e) {
+                    // Some platforms refuse to shrink a file that is still mapped; the header count stays authoritative
+                    LOGGER.log(Level.FINE, "Could not trim mapped export file", e);
+                }
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void mapWindow(long startFrame) throws IOException {
+        if (window != null) {
+            window.force();
+        }
+        // Windows stop at the pre-sized end, so an exact frame estimate never grows the file
+        long frames = startFrame < expectedFrames ? Math.min(windowFrames, expectedFrames - startFrame) : windowFrames;
+        window = channel.map(FileChannel.MapMode.READ_WRITE,
+                BinarySignalWriter.RAW_HEADER_SIZE + startFrame * frameBytes, frames * frameBytes);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowEndFrame = startFrame + frames;
+    }
+}
@@ -0,0 +1,127 @@
+package simulation.software.codebase;
+
+import java.util.Random;
+
+/**
+ * Generates message waveforms and additive channel noise for the simulation engines.
+ */
+public class MessageGenerator {
+    private final double[] messageFreqs;
+    private final double[] amplitudes;
+    private final String waveformType;
+    private final double pulseDutyCycle;
+    private final String noiseType;
+    private final double noiseAmplitude;
+    private final Random random;
+
+    /**
+     * Constructor for MessageGenerator.
+     *
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     */
+    public MessageGenerator(double[] messageFreqs, double[] amplitudes, String waveformType, double pulseDutyCycle,
+                            String noiseType, double noiseAmplitude) {
+        this(messageFreqs, amplitudes, waveformType, pulseDutyCycle, noiseType, noiseAmplitude, new Random());
+    }
+
+    /**
+     * Constructor for MessageGenerator with reproducible noise: generators with the same seed produce the same
+     * noise sequence.
+     *
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param noiseSeed      Seed of the noise generator
+     */
+    public MessageGenerator(double[] messageFreqs, double[] amplitudes, String waveformType, double pulseDutyCycle,
+                            String noiseType, double noiseAmplitude, long noiseSeed) {
+        this(messageFreqs, amplitudes, waveformType, pulseDutyCycle, noiseType, noiseAmplitude, new Random(noiseSeed));
+    }
+
+    private MessageGenerator(double[] messageFreqs, double[] amplitudes, String waveformType, double pulseDutyCycle,
+                             String noiseType, double noiseAmplitude, Random random) {
+        this.messageFreqs = messageFreqs;
+        this.amplitudes = amplitudes;
+        this.waveformType = waveformType.toLowerCase();
+        this.pulseDutyCycle = pulseDutyCycle;
+        this.noiseType = noiseType.toLowerCase();
+        this.noiseAmplitude = noiseAmplitude;
+        this.random = random;
+    }
+
+    /**
+     * Generates the message signal at time t based on waveform type.
+     *
+     * @param t Time in seconds
+     * @return message sample
+     */
+    public double message(double t) {
+        double sum = 0;
+        for (int i = 0; i < messageFreqs.length; i++) {
+            double freq = messageFreqs[i];
+            double amp = amplitudes[i];
+            switch (waveformType) {
+                case "sine":
+                    sum += amp * Math.cos(2 * Math.PI * freq * t);
+                    break;
+                case "square":
+                    sum += amp * Math.signum(Math.cos(2 * Math.PI * freq * t));
+                    break;
+                case "triangle":
+                    sum += amp * (2 / Math.PI * Math.asin(Math.cos(2 * Math.PI * freq * t)));
+                    break;
+                case "sawtooth":
+                    sum += amp * (2 * (freq * t - Math.floor(freq * t + 0.5)));
+                    break;
+                case "pulse":
+                    double phase = 2 * Math.PI * freq * t;
+                    sum += amp * (phase % (2 * Math.PI) < 2 * Math.PI * pulseDutyCycle / 100 ? 1 : -1);
+                    break;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Generates one noise sample based on the noise type.
+     *
+     * @return noise sample
+     */
+    public double noise() {
+        switch (noiseType) {
+            case "white":
+                return noiseAmplitude * (random.nextDouble() * 2 - 1);
+            case "gaussian":
+                return noiseAmplitude * random.nextGaussian();
+            case "pink":
+                double pink = 0;
+                for (int i = 1; i <= 5; i++) {
+                    pink += (random.nextDouble() * 2 - 1) / i;
+                }
+                return noiseAmplitude * pink / 5;
+            case "none":
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets the highest message frequency.
+     * @return highest message frequency in Hz
+     */
+    public double getMaxFrequency() {
+        double maxFreq = 0;
+        for (double freq : messageFreqs) {
+            maxFreq = Math.max(maxFreq, freq);
+        }
+        return maxFreq;
+    }
+}
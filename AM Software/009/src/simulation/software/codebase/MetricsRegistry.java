@@ -0,0 +1,216 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of operational metrics (counters, gauges and duration summaries) that can be written in the Prometheus
+ * text exposition format. Metrics are identified by name plus optional label pairs; asking for an existing metric
+ * returns it, so callers can look metrics up instead of passing them around. All metrics are safe to update from
+ * any thread.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets the registry shared by the application.
+     * @return default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Monotonic counter.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        /**
+         * Adds one to the counter.
+         */
+        public void increment() {
+            value.increment();
+        }
+
+        /**
+         * Adds a non-negative amount to the counter.
+         *
+         * @param amount Amount to add
+         * @throws IllegalArgumentException if the amount is negative
+         */
+        public void add(long amount) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Counters can only increase");
+            }
+            value.add(amount);
+        }
+
+        /**
+         * Gets the current count.
+         * @return count
+         */
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Metrics sharing one name, keyed by their formatted label set.
+     */
+    private static final class Family {
+        final String help;
+        final String type;
+        final Map<String, Object> series = new ConcurrentSkipListMap<>();
+
+        Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name   Metric name (by convention ending in _total)
+     * @param help   Description shown in the exposition
+     * @param labels Label names and values, alternating
+     * @return counter
+     * @throws IllegalArgumentException if the name is registered with another type or the labels are malformed
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series.computeIfAbsent(formatLabels(labels), k -> new Counter());
+    }
+
+    /**
+     * Registers a gauge whose value is read at exposition time, replacing an earlier gauge with the same labels.
+     *
+     * @param name   Metric name
+     * @param help   Description shown in the exposition
+     * @param value  Supplier of the current value
+     * @param labels Label names and values, alternating
+     * @throws IllegalArgumentException if the name is registered with another type or the labels are malformed
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(formatLabels(labels), value);
+    }
+
+    /**
+     * Gets or creates a duration summary. Durations are recorded in nanoseconds and exposed in seconds as the
+     * 50th, 90th and 99th percentiles plus sum and count.
+     *
+     * @param name   Metric name (by convention ending in _seconds)
+     * @param help   Description shown in the exposition
+     * @param labels Label names and values, alternating
+     * @return histogram to record durations into
+     * @throws IllegalArgumentException if the name is registered with another type or the labels are malformed
+     */
+    public LatencyHistogram summary(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, "summary").series.computeIfAbsent(formatLabels(labels),
+                k -> new LatencyHistogram());
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format (version 0.0.4).
+     *
+     * @param out Destination
+     * @throws IOException if writing fails
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.write("# HELP " + name + " " + family.help.replace("\\", "\\\\").replace("\n", "\\n") + "\n");
+            out.write("# TYPE " + name + " " + family.type + "\n");
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                String labels = series.getKey();
+                Object metric = series.getValue();
+                if (metric instanceof Counter) {
+                    writeSample(out, name, labels, ((Counter) metric).get());
+                } else if (metric instanceof DoubleSupplier) {
+                    writeSample(out, name, labels, ((DoubleSupplier) metric).getAsDouble());
+                } else {
+                    LatencyHistogram histogram = (LatencyHistogram) metric;
+                    for (double q : QUANTILES) {
+                        String quantile = "quantile=\"" + q + "\"";
+                        writeSample(out, name, labels.isEmpty() ? quantile : labels + "," + quantile,
+                                histogram.getPercentile(q * 100) / 1e9);
+                    }
+                    long count = histogram.getCount();
+                    writeSample(out, name + "_sum", labels, histogram.getMean() * count / 1e9);
+                    writeSample(out, name + "_count", labels, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats all metrics in the Prometheus text exposition format.
+     * @return exposition text
+     */
+    public String scrape() {
+        StringWriter out = new StringWriter();
+        try {
+            writePrometheus(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        if (!name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*")) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        Family family = families.computeIfAbsent(name, k -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static String formatLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name and value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (!labels[i].matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+                throw new IllegalArgumentException("Invalid label name: " + labels[i]);
+            }
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"").append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")
+                    .replace("\n", "\\n")).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static void writeSample(Writer out, String name, String labels, double value) throws IOException {
+        out.write(name);
+        if (!labels.isEmpty()) {
+            out.write("{" + labels + "}");
+        }
+        out.write(' ');
+        if (Double.isNaN(value)) {
+            out.write("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.write(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.write(Long.toString((long) value));
+        } else {
+            out.write(Double.toString(value));
+        }
+        out.write('\n');
+    }
+}
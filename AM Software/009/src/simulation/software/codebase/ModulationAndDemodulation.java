@@ -1,20 +1,30 @@
 package simulation.software.codebase;
 
-import java.util.Random;
+import java.util.Arrays;
 
 /**
  * Handles signal modulation, demodulation, noise addition, and spectrum computation for AM variants.
  */
 public class ModulationAndDemodulation {
-    private double[] time;
+    // Shared with the streaming and complex-baseband engines so that all of them model the same system
+    static final double VESTIGE_FRACTION = 0.25; // Vestige half-width relative to the highest message frequency
+    static final double LOOP_BANDWIDTH_FRACTION = 0.05; // Carrier recovery loop bandwidth relative to the carrier
+    static final double LOOP_DAMPING = 0.707;
+    private static final double DECIMATED_RATE_MULTIPLE = 10; // Decimated rate relative to the highest message frequency
+    private static final int MAX_DECIMATION_FACTOR = 16;
+    private ComputedSignalBuffer time;
     private double[] modulatedSignal;
     private double[] messageSignal;
-    private double[] carrierSignal;
+    private ComputedSignalBuffer carrierSignal;
     private double[] demodulatedSignal;
+    private double[] decimatedDemodulatedSignal;
+    private int decimationFactor;
     private double[] frequency;
     private double[] spectrum;
     private String variant;
-    private Random random = new Random();
+    private double carrierLockTime = Double.NaN;
+    private double carrierPhaseErrorRms = Double.NaN;
+    private PipelineProfile profile;
 
     /**
      * Constructor for ModulationAndDemodulation.
@@ -39,7 +49,187 @@ public class ModulationAndDemodulation {
                                     double modulationIndex, double phaseShift, String waveformType, String noiseType,
                                     double noiseAmplitude, String demodulationType, double pulseDutyCycle,
                                     int samples, double duration, double filterAlpha) {
-        // Input validation
+        this(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift, waveformType, noiseType,
+                noiseAmplitude, demodulationType, pulseDutyCycle, samples, duration, filterAlpha, new SimulationOptions());
+    }
+
+    /**
+     * Constructor for ModulationAndDemodulation with optional simulation settings.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq    Carrier frequency in Hz (50–5000)
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift     Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param demodulationType Demodulation type (None, Coherent, Non-Coherent)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param samples        Number of samples (1024–16384)
+     * @param duration       Signal duration in seconds (0.01–1)
+     * @param filterAlpha    Low-pass filter alpha (0.01–1)
+     * @param options        Optional simulation settings (multirate mode, profiling, noise seed)
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public ModulationAndDemodulation(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                                    double modulationIndex, double phaseShift, String waveformType, String noiseType,
+                                    double noiseAmplitude, String demodulationType, double pulseDutyCycle,
+                                    int samples, double duration, double filterAlpha,
+                                    SimulationOptions options) {
+        validate(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift, noiseAmplitude,
+                pulseDutyCycle, samples, duration, filterAlpha);
+        int interpolationFactor = options.getInterpolationFactor();
+        if (samples % interpolationFactor != 0) {
+            throw new IllegalArgumentException("Sample count must be a multiple of the multirate factor");
+        }
+        if (interpolationFactor > 1 && samples / duration / interpolationFactor / 2 <= maxFrequency(messageFreqs)) {
+            throw new IllegalArgumentException("Multirate factor leaves the baseband rate below twice the highest message frequency");
+        }
+
+        this.variant = variant;
+        SignalGenerationEvent event = new SignalGenerationEvent();
+        event.begin();
+        profile = options.isProfilingEnabled() ? new PipelineProfile() : null;
+        SimulationScratch scratch = options.getScratch() != null ? options.getScratch() : new SimulationScratch();
+        modulatedSignal = new double[samples];
+        messageSignal = new double[samples];
+        demodulatedSignal = new double[samples];
+        frequency = new double[samples / 2];
+        spectrum = new double[samples / 2];
+
+        // Time and carrier are closed-form, so they are evaluated on demand instead of stored
+        double dt = duration / samples;
+        time = ComputedSignalBuffer.time(samples, dt);
+        carrierSignal = ComputedSignalBuffer.cosine(samples, carrierFreq, dt);
+
+        // Multirate mode: message and noise at the baseband rate, upsampled right before mixing
+        PolyphaseInterpolator interpolator = new PolyphaseInterpolator(interpolationFactor);
+        double[] baseband = interpolationFactor == 1 ? messageSignal : new double[samples / interpolationFactor];
+        double basebandDt = dt * interpolationFactor;
+        MessageGenerator generator = messageGenerator(messageFreqs, amplitudes, waveformType, pulseDutyCycle,
+                noiseType, noiseAmplitude, options.getNoiseSeed());
+        mark(PipelineStage.SETUP);
+        for (int i = 0; i < baseband.length; i++) {
+            baseband[i] = generator.message(i * basebandDt);
+        }
+        mark(PipelineStage.MESSAGE);
+        for (int i = 0; i < baseband.length; i++) {
+            baseband[i] += generator.noise();
+        }
+        mark(PipelineStage.NOISE);
+        if (interpolationFactor > 1) {
+            messageSignal = interpolator.interpolateAligned(baseband);
+            mark(PipelineStage.INTERPOLATION);
+        }
+
+        // Modulation based on variant
+        String variantKey = variant.toLowerCase();
+        double[] hilbert = null;
+        if (variantKey.equals("ssb")) {
+            hilbert = interpolationFactor == 1 ? FastFourierTransform.hilbert(messageSignal)
+                    : interpolator.interpolateAligned(FastFourierTransform.hilbert(baseband));
+            mark(PipelineStage.HILBERT);
+        }
+        modulateVariant(variantKey, messageSignal, hilbert, modulatedSignal, samples, duration, carrierFreq,
+                messageFreqs, modulationIndex, phaseShift, scratch);
+        mark(PipelineStage.MODULATION);
+
+        if (!demodulationType.equals("None")) {
+            if (demodulationType.equals("Coherent")) {
+                coherentDemodulation(modulatedSignal, carrierFreq, dt, filterAlpha, scratch);
+            } else if (demodulationType.equals("Non-Coherent")) {
+                nonCoherentDemodulation(modulatedSignal, filterAlpha, scratch);
+            }
+            mark(PipelineStage.DEMODULATION);
+        }
+
+        // The demodulated baseband only occupies the message band, so keep a reduced-rate copy for downstream use
+        decimationFactor = decimationFactor(messageFreqs, samples / duration);
+        decimatedDemodulatedSignal = new PolyphaseDecimator(decimationFactor).decimateAligned(demodulatedSignal);
+        mark(PipelineStage.DECIMATION);
+
+        computeSpectrum(modulatedSignal, dt, scratch);
+        mark(PipelineStage.SPECTRUM);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.variant = variant;
+            event.demodulation = demodulationType;
+            event.samples = samples;
+            event.signalDuration = Math.round(duration * 1e9);
+            event.interpolationFactor = interpolationFactor;
+            event.commit();
+        }
+    }
+
+    /**
+     * Simulates only the modulated signal of a configuration, in the working memory of a scratch: the message,
+     * demodulated signal, decimated copy and spectrum of the full simulation are neither allocated nor computed.
+     * This is the kernel of repeated trials, whose analyses only read the modulated signal. The samples are those of
+     * {@link #getModulatedSignal()} for the same configuration without multirate mode, and the parameters are
+     * validated the same way, so a trial fails exactly when the full simulation would.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq     Carrier frequency in Hz (50–5000)
+     * @param messageFreqs    Array of message frequencies in Hz
+     * @param amplitudes      Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift      Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType    Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType       Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude  Noise amplitude (0–1)
+     * @param pulseDutyCycle  Pulse duty cycle (0–100%)
+     * @param samples         Number of samples (1024–16384)
+     * @param duration        Signal duration in seconds (0.01–1)
+     * @param filterAlpha     Low-pass filter alpha (0.01–1), only validated
+     * @param noiseSeed       Seed of the channel noise, or null for fresh noise
+     * @param scratch         Working memory owned by the calling thread
+     * @return modulated samples, valid until the scratch is used again
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    static double[] modulatedTrial(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                                   double modulationIndex, double phaseShift, String waveformType, String noiseType,
+                                   double noiseAmplitude, double pulseDutyCycle, int samples, double duration,
+                                   double filterAlpha, Long noiseSeed, SimulationScratch scratch) {
+        validate(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift, noiseAmplitude,
+                pulseDutyCycle, samples, duration, filterAlpha);
+        SignalGenerationEvent event = new SignalGenerationEvent();
+        event.begin();
+        double dt = duration / samples;
+        double[] message = scratch.array(SimulationScratch.MESSAGE, samples);
+        double[] modulated = scratch.array(SimulationScratch.MODULATED, samples);
+        MessageGenerator generator = messageGenerator(messageFreqs, amplitudes, waveformType, pulseDutyCycle,
+                noiseType, noiseAmplitude, noiseSeed);
+        for (int i = 0; i < samples; i++) {
+            message[i] = generator.message(i * dt);
+        }
+        for (int i = 0; i < samples; i++) {
+            message[i] += generator.noise();
+        }
+        String variantKey = variant.toLowerCase();
+        double[] hilbert = variantKey.equals("ssb") ? FastFourierTransform.hilbert(message) : null;
+        modulateVariant(variantKey, message, hilbert, modulated, samples, duration, carrierFreq, messageFreqs,
+                modulationIndex, phaseShift, scratch);
+        event.end();
+        if (event.shouldCommit()) {
+            event.variant = variant;
+            event.demodulation = "None";
+            event.samples = samples;
+            event.signalDuration = Math.round(duration * 1e9);
+            event.interpolationFactor = 1;
+            event.commit();
+        }
+        return modulated;
+    }
+
+    /**
+     * Checks the parameters shared by the full simulation and the trial kernel.
+     */
+    private static void validate(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                                 double modulationIndex, double phaseShift, double noiseAmplitude,
+                                 double pulseDutyCycle, int samples, double duration, double filterAlpha) {
         if (carrierFreq < 50 || carrierFreq > 5000) {
             throw new IllegalArgumentException("Carrier frequency must be between 50 and 5000 Hz");
         }
@@ -67,262 +257,208 @@ public class ModulationAndDemodulation {
         if (filterAlpha < 0.01 || filterAlpha > 1) {
             throw new IllegalArgumentException("Filter alpha must be between 0.01 and 1");
         }
+    }
 
-        this.variant = variant;
-        time = new double[samples];
-        modulatedSignal = new double[samples];
-        messageSignal = new double[samples];
-        carrierSignal = new double[samples];
-        demodulatedSignal = new double[samples];
-        frequency = new double[samples / 2];
-        spectrum = new double[samples / 2];
+    /**
+     * Creates the message and noise source, seeded when a noise seed is given. {@link StreamingModulator} uses it too,
+     * so a seeded stream draws the same noise as a seeded batch simulation.
+     */
+    static MessageGenerator messageGenerator(double[] messageFreqs, double[] amplitudes, String waveformType,
+                                             double pulseDutyCycle, String noiseType, double noiseAmplitude,
+                                             Long noiseSeed) {
+        return noiseSeed == null
+                ? new MessageGenerator(messageFreqs, amplitudes, waveformType, pulseDutyCycle, noiseType, noiseAmplitude)
+                : new MessageGenerator(messageFreqs, amplitudes, waveformType, pulseDutyCycle, noiseType, noiseAmplitude,
+                        noiseSeed);
+    }
 
+    /**
+     * Modulates a whole message with a variant, shaping VSB with the vestigial sideband filter (which passes half the
+     * carrier).
+     */
+    private static void modulateVariant(String variantKey, double[] message, double[] hilbert, double[] output,
+                                        int samples, double duration, double carrierFreq, double[] messageFreqs,
+                                        double modulationIndex, double phaseShift, SimulationScratch scratch) {
         double dt = duration / samples;
-        for (int i = 0; i < samples; i++) {
-            time[i] = i * dt;
-            carrierSignal[i] = Math.cos(2 * Math.PI * carrierFreq * time[i]);
-            messageSignal[i] = generateMessageSignal(time[i], messageFreqs, amplitudes, waveformType, pulseDutyCycle);
-            messageSignal[i] += generateNoise(noiseType, noiseAmplitude);
+        if (variantKey.equals("vsb")) {
+            double[] dsb = scratch.array(SimulationScratch.VSB_INPUT, samples);
+            modulate(variantKey, message, null, dsb, samples, 0, dt, carrierFreq, modulationIndex, phaseShift);
+            FirFilter vsbFilter = new FirFilter(FirFilterDesign.vestigialSideband(carrierFreq,
+                    vestigeWidth(messageFreqs), samples / duration));
+            vsbFilter.filterAligned(dsb, output);
+        } else {
+            modulate(variantKey, message, hilbert, output, samples, 0, dt, carrierFreq, modulationIndex, phaseShift);
         }
+    }
 
-        // Modulation based on variant
-        switch (variant.toLowerCase()) {
+    /**
+     * Modulates message samples onto the carrier with the passband formula of a variant, sample i being taken at
+     * time (firstSample + i) * dt. For VSB this is the DSB-AM signal that the vestigial filter then shapes.
+     * {@link StreamingModulator} uses the same kernel block by block.
+     *
+     * @param variant         AM variant in lower case (dsb-am, dsb-sc, ssb, vsb, qam)
+     * @param message         Message samples
+     * @param hilbert         Hilbert transform of the message (SSB only)
+     * @param output          Modulated samples
+     * @param length          Number of samples
+     * @param firstSample     Index of the first sample within the whole signal
+     * @param dt              Sample interval in seconds
+     * @param carrierFreq     Carrier frequency in Hz
+     * @param modulationIndex Modulation index
+     * @param phaseShift      Phase shift in degrees (QAM)
+     */
+    static void modulate(String variant, double[] message, double[] hilbert, double[] output, int length,
+                         long firstSample, double dt, double carrierFreq, double modulationIndex, double phaseShift) {
+        double omega = 2 * Math.PI * carrierFreq;
+        switch (variant) {
             case "dsb-am":
-                for (int i = 0; i < samples; i++) {
-                    modulatedSignal[i] = (1 + modulationIndex * messageSignal[i]) * carrierSignal[i];
+            case "vsb":
+                for (int i = 0; i < length; i++) {
+                    output[i] = (1 + modulationIndex * message[i]) * Math.cos(omega * ((firstSample + i) * dt));
                 }
                 break;
             case "dsb-sc":
-                for (int i = 0; i < samples; i++) {
-                    modulatedSignal[i] = modulationIndex * messageSignal[i] * carrierSignal[i];
+                for (int i = 0; i < length; i++) {
+                    output[i] = modulationIndex * message[i] * Math.cos(omega * ((firstSample + i) * dt));
                 }
                 break;
             case "ssb":
-                double[] hilbert = hilbertTransform(messageSignal);
-                for (int i = 0; i < samples; i++) {
-                    modulatedSignal[i] = modulationIndex * (messageSignal[i] * Math.cos(2 * Math.PI * carrierFreq * time[i])
-                            - hilbert[i] * Math.sin(2 * Math.PI * carrierFreq * time[i]));
-                }
-                break;
-            case "vsb":
-                for (int i = 0; i < samples; i++) {
-                    modulatedSignal[i] = (0.5 + modulationIndex * messageSignal[i]) * carrierSignal[i];
+                for (int i = 0; i < length; i++) {
+                    double t = (firstSample + i) * dt;
+                    output[i] = modulationIndex * (message[i] * Math.cos(omega * t) - hilbert[i] * Math.sin(omega * t));
                 }
                 break;
             case "qam":
-                for (int i = 0; i < samples; i++) {
-                    double qamI = modulationIndex * messageSignal[i] * Math.cos(2 * Math.PI * carrierFreq * time[i]);
-                    double qamQ = modulationIndex * messageSignal[i] * Math.cos(2 * Math.PI * carrierFreq * time[i] + Math.toRadians(phaseShift));
-                    modulatedSignal[i] = qamI + qamQ;
+                double phase = Math.toRadians(phaseShift);
+                for (int i = 0; i < length; i++) {
+                    double t = (firstSample + i) * dt;
+                    double qamI = modulationIndex * message[i] * Math.cos(omega * t);
+                    double qamQ = modulationIndex * message[i] * Math.cos(omega * t + phase);
+                    output[i] = qamI + qamQ;
                 }
                 break;
         }
-
-        if (!demodulationType.equals("None")) {
-            if (demodulationType.equals("Coherent")) {
-                demodulatedSignal = coherentDemodulation(modulatedSignal, carrierFreq, dt, filterAlpha);
-            } else if (demodulationType.equals("Non-Coherent")) {
-                demodulatedSignal = nonCoherentDemodulation(modulatedSignal, filterAlpha);
-            }
-        }
-
-        computeSpectrum(modulatedSignal, dt);
     }
 
     /**
-     * Generates the message signal based on waveform type.
+     * Applies the demodulators' one-pole low-pass to samples [from, to), continuing from the previous output.
+     *
+     * @param input       Samples to filter
+     * @param output      Filtered samples (may be the input array)
+     * @param from        Index of the first sample
+     * @param to          Index after the last sample
+     * @param filterAlpha Low-pass filter alpha
+     * @param previous    Output preceding sample from
+     * @return last output
      */
-    private double generateMessageSignal(double t, double[] messageFreqs, double[] amplitudes, String waveformType, double pulseDutyCycle) {
-        double sum = 0;
-        for (int i = 0; i < messageFreqs.length; i++) {
-            double freq = messageFreqs[i];
-            double amp = amplitudes[i];
-            switch (waveformType.toLowerCase()) {
-                case "sine":
-                    sum += amp * Math.cos(2 * Math.PI * freq * t);
-                    break;
-                case "square":
-                    sum += amp * Math.signum(Math.cos(2 * Math.PI * freq * t));
-                    break;
-                case "triangle":
-                    sum += amp * (2 / Math.PI * Math.asin(Math.cos(2 * Math.PI * freq * t)));
-                    break;
-                case "sawtooth":
-                    sum += amp * (2 * (freq * t - Math.floor(freq * t + 0.5)));
-                    break;
-                case "pulse":
-                    double phase = 2 * Math.PI * freq * t;
-                    sum += amp * (phase % (2 * Math.PI) < 2 * Math.PI * pulseDutyCycle / 100 ? 1 : -1);
-                    break;
-            }
+    static double lowPass(double[] input, double[] output, int from, int to, double filterAlpha, double previous) {
+        for (int i = from; i < to; i++) {
+            previous = filterAlpha * input[i] + (1 - filterAlpha) * previous;
+            output[i] = previous;
         }
-        return sum;
+        return previous;
     }
 
     /**
-     * Generates noise based on the specified type.
+     * Ends a pipeline stage when profiling is enabled.
      */
-    private double generateNoise(String noiseType, double amplitude) {
-        switch (noiseType.toLowerCase()) {
-            case "white":
-                return amplitude * (random.nextDouble() * 2 - 1);
-            case "gaussian":
-                return amplitude * random.nextGaussian();
-            case "pink":
-                double pink = 0;
-                for (int i = 1; i <= 5; i++) {
-                    pink += (random.nextDouble() * 2 - 1) / i;
-                }
-                return amplitude * pink / 5;
-            case "none":
-            default:
-                return 0;
+    private void mark(PipelineStage stage) {
+        if (profile != null) {
+            profile.mark(stage);
         }
     }
 
     /**
-     * Performs coherent demodulation with a phase-locked loop.
+     * Chooses the largest power-of-two decimation factor that keeps the decimated rate well above the message band.
      */
-    private double[] coherentDemodulation(double[] signal, double carrierFreq, double dt, double filterAlpha) {
-        double[] demod = new double[signal.length];
-        double phaseError = 0;
-        double phase = 0;
-        double k = 0.01;
-        for (int i = 0; i < signal.length; i++) {
-            double carrier = Math.cos(2 * Math.PI * carrierFreq * time[i] + phase);
-            demod[i] = signal[i] * carrier;
-            phaseError = demod[i] * Math.sin(2 * Math.PI * carrierFreq * time[i] + phase);
-            phase += k * phaseError;
+    private int decimationFactor(double[] messageFreqs, double sampleRate) {
+        double maxFreq = maxFrequency(messageFreqs);
+        int factor = 1;
+        while (factor < MAX_DECIMATION_FACTOR && sampleRate / (2 * factor) >= DECIMATED_RATE_MULTIPLE * maxFreq) {
+            factor *= 2;
         }
-        double[] filtered = new double[signal.length];
-        filtered[0] = demod[0];
-        for (int i = 1; i < signal.length; i++) {
-            filtered[i] = filterAlpha * demod[i] + (1 - filterAlpha) * filtered[i - 1];
-        }
-        return filtered;
+        return factor;
     }
 
     /**
-     * Performs non-coherent demodulation (envelope detection).
+     * Chooses the vestige half-width as a fraction of the highest message frequency.
      */
-    private double[] nonCoherentDemodulation(double[] signal, double filterAlpha) {
-        double[] demod = new double[signal.length];
-        for (int i = 0; i < signal.length; i++) {
-            demod[i] = Math.abs(signal[i]);
-        }
-        double[] filtered = new double[signal.length];
-        filtered[0] = demod[0];
-        for (int i = 1; i < signal.length; i++) {
-            filtered[i] = filterAlpha * demod[i] + (1 - filterAlpha) * filtered[i - 1];
-        }
-        return filtered;
+    private static double vestigeWidth(double[] messageFreqs) {
+        return VESTIGE_FRACTION * maxFrequency(messageFreqs);
     }
 
     /**
-     * Computes the Hilbert transform using FFT for SSB modulation.
+     * Finds the highest message frequency.
      */
-    private double[] hilbertTransform(double[] signal) {
-        int n = signal.length;
-        double[] re = new double[n];
-        double[] im = new double[n];
-        double[] result = new double[n];
-
-        // Compute FFT
-        fft(signal, re, im);
-
-        // Apply Hilbert transform in frequency domain
-        for (int i = 0; i < n; i++) {
-            if (i == 0 || i == n / 2) {
-                im[i] = 0; // Zero DC and Nyquist
-            } else if (i < n / 2) {
-                im[i] *= 2; // Double positive frequencies
-            } else {
-                im[i] = 0; // Zero negative frequencies
-            }
-            re[i] = 0;
+    private static double maxFrequency(double[] messageFreqs) {
+        double maxFreq = 0;
+        for (double freq : messageFreqs) {
+            maxFreq = Math.max(maxFreq, freq);
         }
-
-        // Inverse FFT
-        ifft(re, im, result);
-        return result;
+        return maxFreq;
     }
 
     /**
-     * Computes the FFT of a signal (basic Cooley-Tukey implementation).
+     * Performs coherent demodulation with a Costas-loop carrier recovery into the demodulated signal.
      */
-    private void fft(double[] input, double[] re, double[] im) {
-        int n = input.length;
-        if (n == 1) {
-            re[0] = input[0];
-            im[0] = 0;
-            return;
-        }
-
-        // Split even and odd
-        double[] even = new double[n / 2];
-        double[] odd = new double[n / 2];
-        for (int i = 0; i < n / 2; i++) {
-            even[i] = input[2 * i];
-            odd[i] = input[2 * i + 1];
-        }
-
-        double[] reEven = new double[n / 2];
-        double[] imEven = new double[n / 2];
-        double[] reOdd = new double[n / 2];
-        double[] imOdd = new double[n / 2];
-
-        fft(even, reEven, imEven);
-        fft(odd, reOdd, imOdd);
-
-        for (int k = 0; k < n / 2; k++) {
-            double angle = -2 * Math.PI * k / n;
-            double cos = Math.cos(angle);
-            double sin = Math.sin(angle);
-            re[k] = reEven[k] + cos * reOdd[k] - sin * imOdd[k];
-            im[k] = imEven[k] + sin * reOdd[k] + cos * imOdd[k];
-            re[k + n / 2] = reEven[k] - (cos * reOdd[k] - sin * imOdd[k]);
-            im[k + n / 2] = imEven[k] - (sin * reOdd[k] + cos * imOdd[k]);
-        }
+    private void coherentDemodulation(double[] signal, double carrierFreq, double dt, double filterAlpha,
+                                      SimulationScratch scratch) {
+        double[] demod = scratch.array(SimulationScratch.DEMODULATION, signal.length);
+        CarrierRecoveryLoop loop = new CarrierRecoveryLoop(carrierFreq, 1 / dt,
+                LOOP_BANDWIDTH_FRACTION * carrierFreq, LOOP_DAMPING);
+        loop.process(signal, 0, demod, 0, signal.length);
+        carrierLockTime = loop.getLockTime();
+        carrierPhaseErrorRms = loop.getPhaseErrorRms();
+        demodulatedSignal[0] = demod[0];
+        lowPass(demod, demodulatedSignal, 1, signal.length, filterAlpha, demodulatedSignal[0]);
     }
 
     /**
-     * Computes the inverse FFT.
+     * Performs non-coherent demodulation (envelope detection) into the demodulated signal.
      */
-    private void ifft(double[] re, double[] im, double[] output) {
-        int n = re.length;
-        double[] reConj = new double[n];
-        double[] imConj = new double[n];
-        for (int i = 0; i < n; i++) {
-            reConj[i] = re[i];
-            imConj[i] = -im[i];
-        }
-        fft(reConj, imConj, output);
-        for (int i = 0; i < n; i++) {
-            output[i] = imConj[i] / n; // Normalize and use imaginary part for Hilbert
+    private void nonCoherentDemodulation(double[] signal, double filterAlpha, SimulationScratch scratch) {
+        double[] demod = scratch.array(SimulationScratch.DEMODULATION, signal.length);
+        for (int i = 0; i < signal.length; i++) {
+            demod[i] = Math.abs(signal[i]);
         }
+        demodulatedSignal[0] = demod[0];
+        lowPass(demod, demodulatedSignal, 1, signal.length, filterAlpha, demodulatedSignal[0]);
     }
 
     /**
-     * Computes the frequency spectrum using FFT.
+     * Computes the frequency spectrum with the radix-2 FFT in the scratch buffers. Sample counts that are not a power
+     * of two are zero-padded for the transform, and each bin takes the magnitude of the nearest padded bin.
      */
-    private void computeSpectrum(double[] signal, double dt) {
+    private void computeSpectrum(double[] signal, double dt, SimulationScratch scratch) {
         int n = signal.length;
         int m = n / 2;
         double fs = 1 / dt;
-        double[] re = new double[n];
-        double[] im = new double[n];
-        fft(signal, re, im);
+        int size = FastFourierTransform.nextPowerOfTwo(n);
+        double[] re = scratch.array(SimulationScratch.SPECTRUM_RE, size);
+        double[] im = scratch.array(SimulationScratch.SPECTRUM_IM, size);
+        System.arraycopy(signal, 0, re, 0, n);
+        Arrays.fill(re, n, size, 0);
+        Arrays.fill(im, 0);
+        FastFourierTransform.transform(re, im);
         for (int i = 0; i < m; i++) {
+            int bin = size == n ? i : (int) Math.round((double) i * size / n);
             frequency[i] = i * fs / n;
-            spectrum[i] = 2 * Math.sqrt(re[i] * re[i] + im[i] * im[i]) / n;
+            spectrum[i] = 2 * Math.sqrt(re[bin] * re[bin] + im[bin] * im[bin]) / n;
         }
     }
 
-    public double[] getTime() { return time; }
+    public double[] getTime() { return time.toDoubleArray(); }
+    public ComputedSignalBuffer getTimeBuffer() { return time; }
     public double[] getModulatedSignal() { return modulatedSignal; }
     public double[] getMessageSignal() { return messageSignal; }
-    public double[] getCarrierSignal() { return carrierSignal; }
+    public double[] getCarrierSignal() { return carrierSignal.toDoubleArray(); }
+    public ComputedSignalBuffer getCarrierBuffer() { return carrierSignal; }
     public double[] getDemodulatedSignal() { return demodulatedSignal; }
+    public double[] getDecimatedDemodulatedSignal() { return decimatedDemodulatedSignal; }
+    public int getDecimationFactor() { return decimationFactor; }
     public double[] getFrequency() { return frequency; }
     public double[] getSpectrum() { return spectrum; }
+    public double getCarrierLockTime() { return carrierLockTime; }
+    public double getCarrierPhaseErrorRms() { return carrierPhaseErrorRms; }
+    public PipelineProfile getProfile() { return profile; }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+
+/**
+ * Multi-channel signal held off-heap in a {@link SignalArena}. It is filled block by block as a
+ * {@link SignalBlockSink} (e.g. by {@link StreamingModulator#run}) and read back as a {@link SignalSource}, so the
+ * analysis windows can open any part of it through {@link AMSignal#AMSignal(SignalSource, long, int)} and
+ * {@link DataExporter#exportSource} can write it out.
+ */
+public final class OffHeapSignal implements SignalBlockSink, SignalSource {
+    private final SignalColumn[] columns;
+    private final OffHeapSignalBuffer[] channels = new OffHeapSignalBuffer[SignalColumn.values().length];
+    private final long capacity;
+    private final double sampleRate;
+    private long length;
+
+    OffHeapSignal(SignalArena arena, SignalColumn[] columns, long capacity, double sampleRate) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        if (capacity < 0 || sampleRate <= 0) {
+            throw new IllegalArgumentException("Capacity must not be negative and sample rate must be positive");
+        }
+        this.columns = columns.clone();
+        this.capacity = capacity;
+        this.sampleRate = sampleRate;
+        for (SignalColumn column : columns) {
+            if (channels[column.ordinal()] != null) {
+                throw new IllegalArgumentException("Duplicate column: " + column);
+            }
+            channels[column.ordinal()] = arena.allocate(capacity);
+        }
+    }
+
+    /**
+     * Appends one block of frames, channels in the column order given at allocation.
+     *
+     * @param data   Channel arrays (one per column)
+     * @param offset Index of the first sample in each array
+     * @param count  Number of frames to append
+     * @throws IOException if the block would exceed the capacity
+     */
+    @Override
+    public void write(double[][] data, int offset, int count) throws IOException {
+        if (data.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " channels, got " + data.length);
+        }
+        if (length + count > capacity) {
+            throw new IOException("Off-heap signal capacity of " + capacity + " samples exceeded");
+        }
+        for (int c = 0; c < columns.length; c++) {
+            channels[columns[c].ordinal()].write(length, data[c], offset, count);
+        }
+        length += count;
+    }
+
+    /**
+     * Gets the off-heap buffer of one channel.
+     *
+     * @param column Channel to get
+     * @return channel buffer (sized to the capacity)
+     * @throws IllegalArgumentException if the channel is not held
+     */
+    public OffHeapSignalBuffer getChannel(SignalColumn column) {
+        OffHeapSignalBuffer channel = channels[column.ordinal()];
+        if (channel == null) {
+            throw new IllegalArgumentException("Signal has no " + column.getHeader() + " channel");
+        }
+        return channel;
+    }
+
+    /**
+     * Gets the maximum number of samples per channel.
+     * @return capacity
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Gets the number of samples written so far.
+     * @return sample count
+     */
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public boolean hasColumn(SignalColumn column) {
+        return channels[column.ordinal()] != null;
+    }
+
+    @Override
+    public void read(SignalColumn column, long offset, double[] destination, int destOffset, int count) {
+        if (offset + count > length) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + count + " beyond the " + length + " samples written");
+        }
+        getChannel(column).read(offset, destination, destOffset, count);
+    }
+
+    /**
+     * Does nothing: the memory belongs to the arena and stays readable until the arena is closed.
+     */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,200 @@
+package simulation.software.codebase;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Float64 signal buffer held outside the Java heap, in 1 GiB direct chunks owned by a {@link SignalArena}.
+ * Indices are longs, so a buffer may hold more than 2^31 samples; the int-indexed {@link SignalBuffer} methods
+ * cover buffers up to that size, and {@link #slice} exposes a window of a larger one to code that expects a
+ * {@link SignalBuffer}.
+ */
+public final class OffHeapSignalBuffer implements SignalBuffer {
+    private static final int CHUNK_SHIFT = 27; // 2^27 samples = 1 GiB per chunk
+    private static final int CHUNK_SAMPLES = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SAMPLES - 1;
+
+    private final SignalArena arena;
+    private final DoubleBuffer[] chunks;
+    private final long length;
+
+    OffHeapSignalBuffer(SignalArena arena, long length) {
+        this.arena = arena;
+        this.length = length;
+        int count = (int) ((length + CHUNK_SAMPLES - 1) >>> CHUNK_SHIFT);
+        this.chunks = new DoubleBuffer[count];
+        for (int c = 0; c < count; c++) {
+            int samples = (int) Math.min(CHUNK_SAMPLES, length - ((long) c << CHUNK_SHIFT));
+            chunks[c] = arena.allocateChunk(samples * Double.BYTES).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Gets the number of samples, which may exceed the int range.
+     * @return sample count
+     */
+    public long longLength() {
+        return length;
+    }
+
+    /**
+     * Gets one sample.
+     *
+     * @param index Sample index
+     * @return sample value
+     */
+    public double get(long index) {
+        checkRange(index, 1);
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) index & CHUNK_MASK);
+    }
+
+    /**
+     * Sets one sample.
+     *
+     * @param index Sample index
+     * @param value Sample value
+     */
+    public void set(long index, double value) {
+        checkRange(index, 1);
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) index & CHUNK_MASK, value);
+    }
+
+    /**
+     * Copies a range of samples into a heap array.
+     *
+     * @param offset      Index of the first sample
+     * @param destination Destination array
+     * @param destOffset  Offset of the first sample in the destination
+     * @param count       Number of samples to copy
+     */
+    public void read(long offset, double[] destination, int destOffset, int count) {
+        checkRange(offset, count);
+        while (count > 0) {
+            int position = (int) offset & CHUNK_MASK;
+            int n = Math.min(count, CHUNK_SAMPLES - position);
+            chunks[(int) (offset >>> CHUNK_SHIFT)].get(position, destination, destOffset, n);
+            offset += n;
+            destOffset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Copies samples from a heap array into the buffer.
+     *
+     * @param offset    Index of the first sample to overwrite
+     * @param source    Source array
+     * @param srcOffset Offset of the first sample in the source
+     * @param count     Number of samples to copy
+     */
+    public void write(long offset, double[] source, int srcOffset, int count) {
+        checkRange(offset, count);
+        while (count > 0) {
+            int position = (int) offset & CHUNK_MASK;
+            int n = Math.min(count, CHUNK_SAMPLES - position);
+            chunks[(int) (offset >>> CHUNK_SHIFT)].put(position, source, srcOffset, n);
+            offset += n;
+            srcOffset += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Gets a window of this buffer as an int-indexed buffer, without copying.
+     *
+     * @param offset Index of the first sample
+     * @param count  Number of samples
+     * @return view of the window
+     */
+    public SignalBuffer slice(long offset, int count) {
+        checkRange(offset, count);
+        return new Slice(offset, count);
+    }
+
+    /**
+     * Gets the number of samples.
+     * @return sample count
+     * @throws IllegalStateException if the buffer holds more than 2^31 - 1 samples (use {@link #longLength()})
+     */
+    @Override
+    public int length() {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Buffer holds " + length + " samples; use longLength() or slice()");
+        }
+        return (int) length;
+    }
+
+    @Override
+    public double get(int index) {
+        return get((long) index);
+    }
+
+    @Override
+    public void copyTo(int srcOffset, double[] destination, int destOffset, int length) {
+        read(srcOffset, destination, destOffset, length);
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        double[] values = new double[length()];
+        read(0, values, 0, values.length);
+        return values;
+    }
+
+    @Override
+    public SignalStorage storage() {
+        return SignalStorage.DOUBLE;
+    }
+
+    private void checkRange(long offset, int count) {
+        arena.checkOpen();
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + count + " out of bounds for length " + length);
+        }
+    }
+
+    /**
+     * Int-indexed window of the buffer.
+     */
+    private final class Slice implements SignalBuffer {
+        private final long offset;
+        private final int length;
+
+        Slice(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public double get(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+            }
+            return OffHeapSignalBuffer.this.get(offset + index);
+        }
+
+        @Override
+        public void copyTo(int srcOffset, double[] destination, int destOffset, int count) {
+            if (srcOffset < 0 || srcOffset + count > length) {
+                throw new IndexOutOfBoundsException("Range " + srcOffset + "+" + count + " out of bounds for length " + length);
+            }
+            read(offset + srcOffset, destination, destOffset, count);
+        }
+
+        @Override
+        public double[] toDoubleArray() {
+            double[] values = new double[length];
+            read(offset, values, 0, length);
+            return values;
+        }
+
+        @Override
+        public SignalStorage storage() {
+            return SignalStorage.DOUBLE;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package simulation.software.codebase;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Flight Recorder event for one paint of a plot.
+ */
+@Name("simulation.software.Paint")
+@Label("Plot Paint")
+@Category({"AM Simulation", "Rendering"})
+@Description("One repaint of a signal or spectrum plot")
+@StackTrace(false)
+class PaintEvent extends Event {
+    @Label("Component")
+    String component;
+
+    @Label("Points Drawn")
+    int points;
+
+    /**
+     * Runs one paint of a plot inside a paint event.
+     *
+     * @param component Name of the plot recorded with the event
+     * @param paint     Paint routine, returning the number of points drawn
+     */
+    static void record(String component, IntSupplier paint) {
+        PaintEvent event = new PaintEvent();
+        event.begin();
+        int points = paint.getAsInt();
+        event.end();
+        if (event.shouldCommit()) {
+            event.component = component;
+            event.points = points;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package simulation.software.codebase;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Wall time and heap allocation per stage of one run of {@link ModulationAndDemodulation} or
+ * {@link ComplexBasebandModulation}; for the latter, upconversion to passband is charged to the interpolation stage.
+ * Each call to {@link #mark} charges the time and bytes since the previous mark to the given stage. Allocation is
+ * read from the JVM's per-thread counter; where the JVM does not provide it, allocated bytes are reported as -1.
+ */
+public class PipelineProfile {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final long[] nanos = new long[PipelineStage.values().length];
+    private final long[] bytes = new long[PipelineStage.values().length];
+    private long lastNanos;
+    private long lastBytes;
+
+    /**
+     * Constructor for PipelineProfile. Starts timing the first stage.
+     */
+    PipelineProfile() {
+        lastBytes = allocatedBytes();
+        lastNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends a stage, charging it the time and allocation since the previous mark.
+     *
+     * @param stage Stage that just completed
+     */
+    void mark(PipelineStage stage) {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        nanos[stage.ordinal()] += now - lastNanos;
+        bytes[stage.ordinal()] += allocated - lastBytes;
+        lastBytes = allocated;
+        lastNanos = System.nanoTime(); // Keeps the cost of reading the counters out of the next stage
+    }
+
+    /**
+     * Gets the wall time spent in a stage.
+     * @param stage Pipeline stage
+     * @return time in nanoseconds (0 if the stage did not run)
+     */
+    public long getNanos(PipelineStage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    /**
+     * Gets the heap bytes allocated by a stage.
+     * @param stage Pipeline stage
+     * @return allocated bytes, or -1 if allocation is not tracked
+     */
+    public long getAllocatedBytes(PipelineStage stage) {
+        return isAllocationTracked() ? bytes[stage.ordinal()] : -1;
+    }
+
+    /**
+     * Gets the wall time of the whole pipeline.
+     * @return time in nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the heap bytes allocated by the whole pipeline.
+     * @return allocated bytes, or -1 if allocation is not tracked
+     */
+    public long getTotalAllocatedBytes() {
+        if (!isAllocationTracked()) {
+            return -1;
+        }
+        long total = 0;
+        for (long b : bytes) {
+            total += b;
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether the JVM reports per-thread allocation.
+     * @return true if allocated bytes are available
+     */
+    public boolean isAllocationTracked() {
+        return THREADS != null;
+    }
+
+    /**
+     * Formats the stages that ran as a single line, e.g. for logging.
+     * @return summary of time and allocation per stage
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format("total %.3f ms", getTotalNanos() / 1e6));
+        if (isAllocationTracked()) {
+            sb.append(String.format(" / %.1f KiB", getTotalAllocatedBytes() / 1024.0));
+        }
+        for (PipelineStage stage : PipelineStage.values()) {
+            if (nanos[stage.ordinal()] == 0) {
+                continue;
+            }
+            sb.append(String.format("; %s %.3f ms", stage, getNanos(stage) / 1e6));
+            if (isAllocationTracked()) {
+                sb.append(String.format(" / %.1f KiB", getAllocatedBytes(stage) / 1024.0));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Looks up the HotSpot thread bean and enables allocation counting, or returns null where unsupported.
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                    return threads;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Fall through: time is still measured
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package simulation.software.codebase;
+
+/**
+ * Stages of the modulation pipeline measured by {@link PipelineProfile}, in execution order.
+ */
+public enum PipelineStage {
+    SETUP("Setup"),
+    MESSAGE("Message generation"),
+    NOISE("Noise"),
+    INTERPOLATION("Interpolation"),
+    HILBERT("Hilbert transform"),
+    MODULATION("Modulation"),
+    DEMODULATION("Demodulation"),
+    DECIMATION("Decimation"),
+    SPECTRUM("Spectrum");
+
+    private final String displayName;
+
+    PipelineStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
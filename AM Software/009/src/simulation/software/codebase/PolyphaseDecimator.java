@@ -0,0 +1,119 @@
+package simulation.software.codebase;
+
+import java.util.Arrays;
+
+/**
+ * Polyphase FIR decimator: low-pass filters and downsamples by an integer factor,
+ * computing only the retained output samples. State persists between blocks.
+ */
+public class PolyphaseDecimator {
+    private static final int TAPS_PER_PHASE_HALF = 12; // Filter spans 2 * 12 output samples
+    private static final double PASSBAND_FRACTION = 0.8; // Cutoff relative to the output Nyquist frequency
+
+    private final int factor;
+    private final int phaseLength;
+    private final double[][] phases;
+    private final double[][] delayLines;
+    private final int[] positions;
+    private final int groupDelay;
+    private long inputCount;
+
+    /**
+     * Constructor for PolyphaseDecimator.
+     *
+     * @param factor Decimation factor (1 passes samples through unchanged)
+     * @throws IllegalArgumentException if the factor is not positive
+     */
+    public PolyphaseDecimator(int factor) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Decimation factor must be positive");
+        }
+        this.factor = factor;
+        double[] h = factor == 1 ? new double[]{1}
+                : FirFilterDesign.lowpass(PASSBAND_FRACTION * 0.5 / factor, 2 * TAPS_PER_PHASE_HALF * factor + 1);
+        this.groupDelay = factor == 1 ? 0 : TAPS_PER_PHASE_HALF;
+        this.phaseLength = (h.length + factor - 1) / factor;
+
+        // Branch p holds h[p], h[p + M], h[p + 2M], ...
+        this.phases = new double[factor][phaseLength];
+        for (int i = 0; i < h.length; i++) {
+            phases[i % factor][i / factor] = h[i];
+        }
+        this.delayLines = new double[factor][2 * phaseLength];
+        this.positions = new int[factor];
+    }
+
+    /**
+     * Decimates one block of samples, continuing from the state left by the previous block.
+     *
+     * @param input     Input samples at the full rate
+     * @param inOffset  Offset of the first input sample
+     * @param output    Output array at the reduced rate
+     * @param outOffset Offset of the first output sample
+     * @param length    Number of input samples to process
+     * @return number of output samples written
+     */
+    public int process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        int written = 0;
+        for (int n = 0; n < length; n++) {
+            // Commutator: input x[mM - p] feeds branch p; branch 0 completes output m
+            int p = (int) ((factor - inputCount % factor) % factor);
+            double[] line = delayLines[p];
+            int pos = positions[p] == 0 ? phaseLength - 1 : positions[p] - 1;
+            positions[p] = pos;
+            double x = input[inOffset + n];
+            line[pos] = x;
+            line[pos + phaseLength] = x;
+            inputCount++;
+            if (p == 0) {
+                // Every branch now holds its sample for output m as the newest entry
+                double acc = 0;
+                for (int branch = 0; branch < factor; branch++) {
+                    double[] coeffs = phases[branch];
+                    double[] branchLine = delayLines[branch];
+                    int start = positions[branch];
+                    for (int k = 0; k < phaseLength; k++) {
+                        acc += coeffs[k] * branchLine[start + k];
+                    }
+                }
+                output[outOffset + written++] = acc;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Decimates a whole signal and removes the filter delay, so output sample m lines up with input sample m * factor.
+     *
+     * @param input Input samples at the full rate
+     * @return decimated samples (input.length / factor of them)
+     */
+    public double[] decimateAligned(double[] input) {
+        reset();
+        int outputLength = input.length / factor;
+        int flush = groupDelay * factor;
+        double[] scratch = new double[(input.length + flush) / factor + 1];
+        int count = process(input, 0, scratch, 0, input.length);
+        count += process(new double[flush], 0, scratch, count, flush);
+        return Arrays.copyOfRange(scratch, groupDelay, groupDelay + outputLength);
+    }
+
+    /**
+     * Clears the decimator state.
+     */
+    public void reset() {
+        for (double[] line : delayLines) {
+            Arrays.fill(line, 0);
+        }
+        Arrays.fill(positions, 0);
+        inputCount = 0;
+    }
+
+    /**
+     * Gets the decimation factor.
+     * @return decimation factor
+     */
+    public int getFactor() {
+        return factor;
+    }
+}
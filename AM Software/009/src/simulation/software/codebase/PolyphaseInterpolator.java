@@ -0,0 +1,100 @@
+package simulation.software.codebase;
+
+import java.util.Arrays;
+
+/**
+ * Polyphase FIR interpolator: upsamples by an integer factor and removes the spectral images,
+ * running each output phase on the low-rate input directly (no zero-stuffed multiplies). State persists between blocks.
+ */
+public class PolyphaseInterpolator {
+    private static final int TAPS_PER_PHASE_HALF = 12; // Filter spans 2 * 12 input samples
+
+    private final int factor;
+    private final int phaseLength;
+    private final double[][] phases;
+    private final double[] delayLine;
+    private final int groupDelay;
+    private int position;
+
+    /**
+     * Constructor for PolyphaseInterpolator.
+     *
+     * @param factor Interpolation factor (1 passes samples through unchanged)
+     * @throws IllegalArgumentException if the factor is not positive
+     */
+    public PolyphaseInterpolator(int factor) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Interpolation factor must be positive");
+        }
+        this.factor = factor;
+        double[] h = factor == 1 ? new double[]{1}
+                : FirFilterDesign.lowpass(0.5 / factor, 2 * TAPS_PER_PHASE_HALF * factor + 1);
+        this.groupDelay = factor == 1 ? 0 : TAPS_PER_PHASE_HALF;
+        this.phaseLength = (h.length + factor - 1) / factor;
+
+        // Branch p holds h[p], h[p + L], h[p + 2L], ..., scaled by L to restore the passband gain
+        this.phases = new double[factor][phaseLength];
+        for (int i = 0; i < h.length; i++) {
+            phases[i % factor][i / factor] = h[i] * factor;
+        }
+        this.delayLine = new double[2 * phaseLength];
+    }
+
+    /**
+     * Interpolates one block of samples, continuing from the state left by the previous block.
+     *
+     * @param input     Input samples at the low rate
+     * @param inOffset  Offset of the first input sample
+     * @param output    Output array at the high rate (factor * length samples are written)
+     * @param outOffset Offset of the first output sample
+     * @param length    Number of input samples to process
+     */
+    public void process(double[] input, int inOffset, double[] output, int outOffset, int length) {
+        int out = outOffset;
+        for (int n = 0; n < length; n++) {
+            position = position == 0 ? phaseLength - 1 : position - 1;
+            double x = input[inOffset + n];
+            delayLine[position] = x;
+            delayLine[position + phaseLength] = x;
+            for (int p = 0; p < factor; p++) {
+                double[] coeffs = phases[p];
+                double acc = 0;
+                for (int k = 0; k < phaseLength; k++) {
+                    acc += coeffs[k] * delayLine[position + k];
+                }
+                output[out++] = acc;
+            }
+        }
+    }
+
+    /**
+     * Interpolates a whole signal and removes the filter delay, so output sample n * factor lines up with input sample n.
+     *
+     * @param input Input samples at the low rate
+     * @return interpolated samples (input.length * factor of them)
+     */
+    public double[] interpolateAligned(double[] input) {
+        reset();
+        double[] scratch = new double[(input.length + groupDelay) * factor];
+        process(input, 0, scratch, 0, input.length);
+        process(new double[groupDelay], 0, scratch, input.length * factor, groupDelay);
+        int delay = groupDelay * factor;
+        return Arrays.copyOfRange(scratch, delay, delay + input.length * factor);
+    }
+
+    /**
+     * Clears the interpolator state.
+     */
+    public void reset() {
+        Arrays.fill(delayLine, 0);
+        position = 0;
+    }
+
+    /**
+     * Gets the interpolation factor.
+     * @return interpolation factor
+     */
+    public int getFactor() {
+        return factor;
+    }
+}
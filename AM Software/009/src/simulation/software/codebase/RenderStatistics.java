@@ -0,0 +1,247 @@
+package simulation.software.codebase;
+
+import java.awt.Color;
+import java.awt.EventQueue;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame statistics of an animated window: achieved frame rate, paint time, animation timer ticks that were missed,
+ * and how long events wait in the Swing event queue. The window reports each timer tick and paint on the event
+ * dispatch thread and starts the queue probe while it animates; the statistics can be read from any thread, e.g. by
+ * automated UI performance tests.
+ */
+public class RenderStatistics {
+    private static final long FPS_WINDOW_NANOS = 1_000_000_000L;
+    /** Fraction of a period by which a late tick may fall short of the next period and still count it as dropped. */
+    private static final double DROP_TOLERANCE = 0.1;
+    private static final ScheduledExecutorService PROBES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "render-statistics-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long tickPeriodNanos;
+    private final LatencyHistogram paintTimes = new LatencyHistogram();
+    private final LatencyHistogram queueLatencies = new LatencyHistogram();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong droppedTicks = new AtomicLong();
+    private volatile double achievedFps;
+    private ScheduledFuture<?> probe;
+    private long lastTickNanos;
+    private long fpsWindowStart;
+    private long fpsWindowFrames;
+
+    /**
+     * Constructor for RenderStatistics.
+     *
+     * @param tickPeriodMillis Period of the window's animation timer in milliseconds
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public RenderStatistics(int tickPeriodMillis) {
+        if (tickPeriodMillis <= 0) {
+            throw new IllegalArgumentException("Timer period must be positive");
+        }
+        this.tickPeriodNanos = tickPeriodMillis * 1_000_000L;
+    }
+
+    /**
+     * Records an animation timer tick. Each whole period that passed since the previous tick without one counts as
+     * a dropped tick (the Swing timer coalesces them); jitter of less than a period does not.
+     */
+    public void tick() {
+        long now = System.nanoTime();
+        ticks.incrementAndGet();
+        if (lastTickNanos != 0) {
+            long missed = (long) Math.floor((double) (now - lastTickNanos) / tickPeriodNanos + DROP_TOLERANCE) - 1;
+            if (missed > 0) {
+                droppedTicks.addAndGet(missed);
+            }
+        }
+        lastTickNanos = now;
+    }
+
+    /**
+     * Starts measuring the event queue latency. Once per timer period a background thread stamps the time and posts
+     * a probe event, so the latency covers only the wait for the event dispatch thread, not the event being handled.
+     * Does nothing if the probe is already running.
+     */
+    public synchronized void startProbe() {
+        if (probe == null) {
+            probe = PROBES.scheduleAtFixedRate(() -> {
+                long posted = System.nanoTime();
+                EventQueue.invokeLater(() -> queueLatencies.record(System.nanoTime() - posted));
+            }, tickPeriodNanos, tickPeriodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops measuring the event queue latency.
+     */
+    public synchronized void stopProbe() {
+        if (probe != null) {
+            probe.cancel(false);
+            probe = null;
+        }
+    }
+
+    /**
+     * Marks the start of a paint.
+     * @return start time to pass to {@link #endPaint}
+     */
+    public long beginPaint() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a completed paint and updates the frame rate, which is measured over windows of one second.
+     *
+     * @param start Value returned by {@link #beginPaint}
+     */
+    public void endPaint(long start) {
+        long now = System.nanoTime();
+        paintTimes.record(now - start);
+        long frameCount = frames.incrementAndGet();
+        if (fpsWindowStart == 0) {
+            fpsWindowStart = now;
+            fpsWindowFrames = frameCount;
+        } else if (now - fpsWindowStart >= FPS_WINDOW_NANOS) {
+            achievedFps = (frameCount - fpsWindowFrames) * 1e9 / (now - fpsWindowStart);
+            fpsWindowStart = now;
+            fpsWindowFrames = frameCount;
+        }
+    }
+
+    /**
+     * Gets the frame rate achieved over the last full second of painting.
+     * @return frames per second (0 until a second has passed)
+     */
+    public double getAchievedFps() {
+        return achievedFps;
+    }
+
+    /**
+     * Gets the target frame rate implied by the timer period.
+     * @return frames per second
+     */
+    public double getTargetFps() {
+        return 1e9 / tickPeriodNanos;
+    }
+
+    /**
+     * Gets the number of paints recorded.
+     * @return frame count
+     */
+    public long getFrames() {
+        return frames.get();
+    }
+
+    /**
+     * Gets the number of animation timer ticks recorded.
+     * @return tick count
+     */
+    public long getTicks() {
+        return ticks.get();
+    }
+
+    /**
+     * Gets the number of timer periods that passed without a tick.
+     * @return dropped tick count
+     */
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+
+    /**
+     * Gets the paint time histogram.
+     * @return paint times in nanoseconds
+     */
+    public LatencyHistogram getPaintTimes() {
+        return paintTimes;
+    }
+
+    /**
+     * Gets the event queue latency histogram.
+     * @return time from posting a probe event off the event dispatch thread until it ran, in nanoseconds
+     */
+    public LatencyHistogram getQueueLatencies() {
+        return queueLatencies;
+    }
+
+    /**
+     * Clears all statistics.
+     */
+    public void reset() {
+        paintTimes.reset();
+        queueLatencies.reset();
+        frames.set(0);
+        ticks.set(0);
+        droppedTicks.set(0);
+        achievedFps = 0;
+        EventQueue.invokeLater(() -> {
+            lastTickNanos = 0;
+            fpsWindowStart = 0;
+        });
+    }
+
+    /**
+     * Formats all statistics as text, one value per line.
+     * @return statistics dump
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("fps=%.1f target=%.1f%n", getAchievedFps(), getTargetFps()));
+        sb.append(String.format("frames=%d ticks=%d droppedTicks=%d%n", getFrames(), getTicks(), getDroppedTicks()));
+        appendHistogram(sb, "paintMs", paintTimes);
+        appendHistogram(sb, "queueLatencyMs", queueLatencies);
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String name, LatencyHistogram histogram) {
+        sb.append(String.format("%s count=%d mean=%.3f p50=%.3f p90=%.3f p99=%.3f max=%.3f%n", name,
+                histogram.getCount(), histogram.getMean() / 1e6, histogram.getPercentile(50) / 1e6,
+                histogram.getPercentile(90) / 1e6, histogram.getPercentile(99) / 1e6, histogram.getMax() / 1e6));
+    }
+
+    /**
+     * Draws the statistics as a small overlay in the top-left corner of a plot.
+     *
+     * @param g Graphics of the plot
+     * @param x Left edge of the overlay
+     * @param y Top edge of the overlay
+     */
+    public void paintHud(Graphics g, int x, int y) {
+        String[] lines = {
+                String.format("FPS %.1f / %.0f", getAchievedFps(), getTargetFps()),
+                String.format("Paint p50 %.2f  p99 %.2f  max %.2f ms", paintTimes.getPercentile(50) / 1e6,
+                        paintTimes.getPercentile(99) / 1e6, paintTimes.getMax() / 1e6),
+                String.format("Dropped ticks %d of %d", getDroppedTicks(), getTicks() + getDroppedTicks()),
+                String.format("EDT queue p50 %.2f  p99 %.2f ms", queueLatencies.getPercentile(50) / 1e6,
+                        queueLatencies.getPercentile(99) / 1e6)
+        };
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            g2d.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+            int lineHeight = g2d.getFontMetrics().getHeight();
+            int width = 0;
+            for (String line : lines) {
+                width = Math.max(width, g2d.getFontMetrics().stringWidth(line));
+            }
+            g2d.setColor(new Color(0, 0, 0, 160));
+            g2d.fillRect(x, y, width + 10, lines.length * lineHeight + 6);
+            g2d.setColor(Color.GREEN);
+            for (int i = 0; i < lines.length; i++) {
+                g2d.drawString(lines[i], x + 5, y + 3 + (i + 1) * lineHeight - g2d.getFontMetrics().getDescent());
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
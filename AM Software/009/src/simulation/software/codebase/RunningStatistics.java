@@ -0,0 +1,95 @@
+package simulation.software.codebase;
+
+/**
+ * Streaming mean and variance (Welford's algorithm) with minimum and maximum. Partial statistics gathered by
+ * different workers combine exactly with {@link #merge(RunningStatistics)}. Non-finite values (e.g. the infinite SNR of
+ * a noiseless signal) are counted separately and left out of the moments. Not thread-safe.
+ */
+public final class RunningStatistics {
+    private long count;
+    private double mean;
+    private double m2; // Sum of squared deviations from the mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long nonFinite;
+
+    /**
+     * Adds one observation.
+     * @param value Observed value
+     */
+    public void add(double value) {
+        if (!Double.isFinite(value)) {
+            nonFinite++;
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the observations summarized by another instance (Chan et al.'s parallel update).
+     * @param other Statistics to fold in (unchanged)
+     */
+    public void merge(RunningStatistics other) {
+        nonFinite += other.nonFinite;
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() { return count; }
+    public long getNonFiniteCount() { return nonFinite; }
+    public double getMin() { return count == 0 ? Double.NaN : min; }
+    public double getMax() { return count == 0 ? Double.NaN : max; }
+
+    /**
+     * Gets the mean of the finite observations.
+     * @return mean, or NaN without observations
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Gets the sample variance (n - 1 denominator).
+     * @return variance, or NaN with fewer than two observations
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Gets the sample standard deviation.
+     * @return standard deviation, or NaN with fewer than two observations
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the standard error of the mean.
+     * @return standard error, or NaN with fewer than two observations
+     */
+    public double getStandardError() {
+        return Math.sqrt(getVariance() / count);
+    }
+}
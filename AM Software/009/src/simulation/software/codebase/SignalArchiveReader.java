@@ -0,0 +1,181 @@
+package simulation.software.codebase;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Random-access reader for archives written by {@link SignalArchiveWriter}. Only the index is loaded when the archive
+ * is opened; reads decompress just the blocks that overlap the requested range, keeping the last decoded block of
+ * each channel for sequential browsing.
+ */
+public class SignalArchiveReader implements SignalSource {
+    private final FileChannel channel;
+    private final double sampleRate;
+    private final int blockSamples;
+    private final long totalSamples;
+    private final int[] columnChannels = new int[SignalColumn.values().length];
+    private final long[][] blockOffsets;
+    private final int[][] blockLengths;
+    private final double[][] cachedBlocks;
+    private final int[] cachedBlockIndex;
+    private final long extrasOffset;
+
+    /**
+     * Constructor for SignalArchiveReader.
+     *
+     * @param path Archive file
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public SignalArchiveReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer footer = read(size - SignalArchiveWriter.FOOTER_SIZE, SignalArchiveWriter.FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            this.extrasOffset = footer.getLong();
+            this.totalSamples = footer.getLong();
+            ByteBuffer header = read(0, 24);
+            if (header.getInt() != SignalArchiveWriter.MAGIC || footer.getInt() != SignalArchiveWriter.MAGIC) {
+                throw new IOException("Not a signal archive: " + path);
+            }
+            int version = header.getInt();
+            if (version != SignalArchiveWriter.VERSION) {
+                throw new IOException("Unsupported archive version " + version);
+            }
+            this.blockSamples = header.getInt();
+            this.sampleRate = header.getDouble();
+            int channels = header.getInt();
+            ByteBuffer ordinals = read(24, 4 * channels);
+            Arrays.fill(columnChannels, -1);
+            for (int c = 0; c < channels; c++) {
+                columnChannels[ordinals.getInt()] = c;
+            }
+
+            ByteBuffer index = read(indexOffset, (int) (extrasOffset - indexOffset));
+            this.blockOffsets = new long[channels][];
+            this.blockLengths = new int[channels][];
+            for (int c = 0; c < channels; c++) {
+                int blocks = index.getInt();
+                blockOffsets[c] = new long[blocks];
+                blockLengths[c] = new int[blocks];
+                for (int b = 0; b < blocks; b++) {
+                    blockOffsets[c][b] = index.getLong();
+                    blockLengths[c][b] = index.getInt();
+                }
+            }
+            this.cachedBlocks = new double[channels][blockSamples];
+            this.cachedBlockIndex = new int[channels];
+            Arrays.fill(cachedBlockIndex, -1);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public long getLength() {
+        return totalSamples;
+    }
+
+    @Override
+    public boolean hasColumn(SignalColumn column) {
+        return columnChannels[column.ordinal()] >= 0;
+    }
+
+    @Override
+    public void read(SignalColumn column, long offset, double[] destination, int destOffset, int length)
+            throws IOException {
+        int channelIndex = columnChannels[column.ordinal()];
+        if (channelIndex < 0) {
+            throw new IllegalArgumentException("Archive has no " + column.getHeader() + " channel");
+        }
+        if (offset < 0 || offset + length > totalSamples) {
+            throw new IndexOutOfBoundsException("Range " + offset + "+" + length + " outside 0.." + totalSamples);
+        }
+        int done = 0;
+        while (done < length) {
+            long sample = offset + done;
+            int block = (int) (sample / blockSamples);
+            int within = (int) (sample % blockSamples);
+            double[] decoded = block(channelIndex, block);
+            int run = Math.min(length - done, blockLength(block) - within);
+            System.arraycopy(decoded, within, destination, destOffset + done, run);
+            done += run;
+        }
+    }
+
+    /**
+     * Gets the stored frequency bins.
+     * @return frequency bins in Hz (empty if the archive has no spectrum)
+     * @throws IOException if the archive cannot be read
+     */
+    public double[] getFrequency() throws IOException {
+        return readExtra(0);
+    }
+
+    /**
+     * Gets the stored spectrum.
+     * @return spectrum amplitudes (empty if the archive has no spectrum)
+     * @throws IOException if the archive cannot be read
+     */
+    public double[] getSpectrum() throws IOException {
+        return readExtra(1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double[] block(int channelIndex, int block) throws IOException {
+        double[] decoded = cachedBlocks[channelIndex];
+        if (cachedBlockIndex[channelIndex] != block) {
+            ByteBuffer data = read(blockOffsets[channelIndex][block], blockLengths[channelIndex][block]);
+            XorFloatCodec.decode(data.array(), decoded, 0, blockLength(block));
+            cachedBlockIndex[channelIndex] = block;
+        }
+        return decoded;
+    }
+
+    private int blockLength(int block) {
+        return (int) Math.min(blockSamples, totalSamples - (long) block * blockSamples);
+    }
+
+    private double[] readExtra(int which) throws IOException {
+        long position = extrasOffset;
+        int length = read(position, 4).getInt();
+        position += 4;
+        if (length == 0) {
+            return new double[0];
+        }
+        for (int i = 0; i < which; i++) {
+            position += 4 + read(position, 4).getInt();
+        }
+        int bytes = read(position, 4).getInt();
+        double[] values = new double[length];
+        XorFloatCodec.decode(read(position + 4, bytes).array(), values, 0, length);
+        return values;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of archive");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,195 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes a compressed columnar signal archive (.amsa). Each channel is cut into blocks of {@link #BLOCK_SAMPLES}
+ * samples that are compressed independently with {@link XorFloatCodec}, so a reader can decompress just the blocks
+ * covering a time range. Layout (little-endian):
+ * <pre>
+ * header  magic "AMSA", version, block size, sample rate, channel count, column ordinals
+ * blocks  compressed channel blocks, in the order they fill up
+ * index   per channel: block count, then (file offset, compressed length) per block
+ * extras  optional frequency/spectrum arrays, each as a length and one compressed block
+ * footer  index offset, extras offset, total samples, magic
+ * </pre>
+ */
+public class SignalArchiveWriter implements SignalBlockSink {
+    /** Magic number at the start and end of archives ("AMSA"). */
+    public static final int MAGIC = 0x41534D41;
+    /** Archive format version. */
+    public static final int VERSION = 1;
+    /** Samples per compressed block. */
+    public static final int BLOCK_SAMPLES = 4096;
+    /** Size of the footer in bytes. */
+    public static final int FOOTER_SIZE = 28;
+
+    private final FileChannel channel;
+    private final SignalColumn[] columns;
+    private final double[][] pending;
+    private int pendingLength;
+    private long[][] blockOffsets;
+    private int[][] blockLengths;
+    private int blocks;
+    private long position;
+    private long totalSamples;
+    private double[] frequency;
+    private double[] spectrum;
+    private boolean closed;
+
+    /**
+     * Constructor for SignalArchiveWriter.
+     *
+     * @param path       Output file (created or truncated)
+     * @param columns    Channels in the order blocks will supply them
+     * @param sampleRate Sample rate in Hz
+     * @throws IOException if the file cannot be created
+     */
+    public SignalArchiveWriter(Path path, SignalColumn[] columns, double sampleRate) throws IOException {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        this.columns = columns.clone();
+        this.pending = new double[columns.length][BLOCK_SAMPLES];
+        this.blockOffsets = new long[columns.length][16];
+        this.blockLengths = new int[columns.length][16];
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(24 + 4 * columns.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(BLOCK_SAMPLES).putDouble(sampleRate).putInt(columns.length);
+        for (SignalColumn column : columns) {
+            header.putInt(column.ordinal());
+        }
+        header.flip();
+        writeFully(header);
+    }
+
+    /**
+     * Writes a whole signal, including its spectrum, to an archive.
+     *
+     * @param signal The AM signal
+     * @param path   Output file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(AMSignal signal, Path path) throws IOException {
+        SignalColumn[] columns = SignalColumn.values();
+        double[][] data = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            data[c] = columns[c].from(signal);
+        }
+        try (SignalArchiveWriter writer = new SignalArchiveWriter(path, columns, signal.getSampleRate())) {
+            writer.setSpectrum(signal.getFrequency(), signal.getSpectrum());
+            writer.write(data, 0, data[0].length);
+        }
+    }
+
+    /**
+     * Attaches a spectrum to be stored with the archive.
+     *
+     * @param frequency Frequency bins in Hz
+     * @param spectrum  Amplitudes, one per bin
+     */
+    public void setSpectrum(double[] frequency, double[] spectrum) {
+        if (frequency.length != spectrum.length) {
+            throw new IllegalArgumentException("Frequency and spectrum arrays must match in length");
+        }
+        this.frequency = frequency.clone();
+        this.spectrum = spectrum.clone();
+    }
+
+    @Override
+    public void write(double[][] data, int offset, int length) throws IOException {
+        if (data.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " channels, got " + data.length);
+        }
+        int done = 0;
+        while (done < length) {
+            int run = Math.min(BLOCK_SAMPLES - pendingLength, length - done);
+            for (int c = 0; c < columns.length; c++) {
+                System.arraycopy(data[c], offset + done, pending[c], pendingLength, run);
+            }
+            pendingLength += run;
+            done += run;
+            if (pendingLength == BLOCK_SAMPLES) {
+                flushBlock();
+            }
+        }
+        totalSamples += length;
+    }
+
+    /**
+     * Writes the last partial block, the index, the spectrum and the footer.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (pendingLength > 0) {
+                flushBlock();
+            }
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(columns.length * (4 + 12 * blocks)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < columns.length; c++) {
+                index.putInt(blocks);
+                for (int b = 0; b < blocks; b++) {
+                    index.putLong(blockOffsets[c][b]).putInt(blockLengths[c][b]);
+                }
+            }
+            index.flip();
+            writeFully(index);
+
+            long extrasOffset = position;
+            int spectrumLength = spectrum != null ? spectrum.length : 0;
+            writeFully(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(spectrumLength).flip());
+            if (spectrumLength > 0) {
+                writeLengthPrefixed(XorFloatCodec.encode(frequency, 0, spectrumLength));
+                writeLengthPrefixed(XorFloatCodec.encode(spectrum, 0, spectrumLength));
+            }
+
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            footer.putLong(indexOffset).putLong(extrasOffset).putLong(totalSamples).putInt(MAGIC);
+            footer.flip();
+            writeFully(footer);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (blocks == blockOffsets[0].length) {
+            for (int c = 0; c < columns.length; c++) {
+                blockOffsets[c] = Arrays.copyOf(blockOffsets[c], blocks * 2);
+                blockLengths[c] = Arrays.copyOf(blockLengths[c], blocks * 2);
+            }
+        }
+        for (int c = 0; c < columns.length; c++) {
+            byte[] block = XorFloatCodec.encode(pending[c], 0, pendingLength);
+            blockOffsets[c][blocks] = position;
+            blockLengths[c][blocks] = block.length;
+            writeFully(ByteBuffer.wrap(block));
+        }
+        blocks++;
+        pendingLength = 0;
+    }
+
+    private void writeLengthPrefixed(byte[] data) throws IOException {
+        writeFully(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(data.length).flip());
+        writeFully(ByteBuffer.wrap(data));
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+}
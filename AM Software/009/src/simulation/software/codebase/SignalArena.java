@@ -0,0 +1,135 @@
+package simulation.software.codebase;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owner of off-heap signal memory. Buffers allocated from an arena live outside the Java heap, so multi-gigabyte
+ * signals add nothing to GC pause times and are not limited to 2^31 samples; the memory is returned to the system
+ * when the arena is closed rather than whenever the collector gets to it.
+ * <p>
+ * Memory comes from direct byte buffers, so the total is bounded by {@code -XX:MaxDirectMemorySize} (the maximum
+ * heap size by default). Buffers must not be used once their arena is closed, and an arena must not be closed while
+ * other threads are still reading from it.
+ */
+public final class SignalArena implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(SignalArena.class.getName());
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Explicit release of direct buffers unavailable; memory is freed by the collector", e);
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final List<ByteBuffer> memory = new ArrayList<>();
+    private volatile boolean open = true;
+    private long allocatedBytes;
+
+    /**
+     * Allocates an off-heap buffer of float64 samples, initially zero.
+     *
+     * @param samples Number of samples
+     * @return buffer owned by this arena
+     * @throws IllegalArgumentException if the sample count is negative
+     * @throws IllegalStateException if the arena is closed
+     */
+    public OffHeapSignalBuffer allocate(long samples) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("Sample count must not be negative");
+        }
+        return new OffHeapSignalBuffer(this, samples);
+    }
+
+    /**
+     * Allocates an off-heap multi-channel signal that can be filled block by block (e.g. by
+     * {@link StreamingModulator#run}) and read back as a {@link SignalSource}.
+     *
+     * @param columns    Channels to hold
+     * @param capacity   Maximum number of samples per channel
+     * @param sampleRate Sample rate in Hz
+     * @return signal owned by this arena
+     * @throws IllegalStateException if the arena is closed
+     */
+    public OffHeapSignal allocateSignal(SignalColumn[] columns, long capacity, double sampleRate) {
+        return new OffHeapSignal(this, columns, capacity, sampleRate);
+    }
+
+    /**
+     * Gets the number of bytes currently allocated from this arena.
+     * @return allocated bytes
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Checks whether the arena is still open.
+     * @return true if buffers from this arena may be used
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Releases all memory allocated from this arena. Closing twice has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        for (ByteBuffer buffer : memory) {
+            release(buffer);
+        }
+        memory.clear();
+        allocatedBytes = 0;
+    }
+
+    /**
+     * Allocates one native-order direct chunk.
+     */
+    synchronized ByteBuffer allocateChunk(int bytes) {
+        checkOpen();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        memory.add(buffer);
+        allocatedBytes += bytes;
+        return buffer;
+    }
+
+    void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("Signal arena is closed");
+        }
+    }
+
+    private static void release(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Could not release direct buffer", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package simulation.software.codebase;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives consecutive blocks of multi-channel signal data, e.g. from {@link StreamingModulator}.
+ * Implementations must copy whatever they keep, since callers reuse the block arrays.
+ */
+public interface SignalBlockSink extends Closeable {
+    /**
+     * Writes one block of frames.
+     *
+     * @param channels Channel arrays (one per channel)
+     * @param offset   Index of the first sample in each array
+     * @param length   Number of frames to write
+     * @throws IOException if the block cannot be written
+     */
+    void write(double[][] channels, int offset, int length) throws IOException;
+}
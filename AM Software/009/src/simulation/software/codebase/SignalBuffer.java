@@ -0,0 +1,55 @@
+package simulation.software.codebase;
+
+/**
+ * Read-only sequence of stored signal samples, backed by double or float storage.
+ */
+public interface SignalBuffer {
+    /**
+     * Gets the number of samples.
+     * @return sample count
+     */
+    int length();
+
+    /**
+     * Gets one sample.
+     *
+     * @param index Sample index
+     * @return sample value
+     */
+    double get(int index);
+
+    /**
+     * Copies a range of samples into a double array.
+     *
+     * @param srcOffset   Index of the first sample
+     * @param destination Destination array
+     * @param destOffset  Offset of the first sample in the destination
+     * @param length      Number of samples to copy
+     */
+    void copyTo(int srcOffset, double[] destination, int destOffset, int length);
+
+    /**
+     * Gets the samples as a double array. Double storage returns its backing array (not to be modified);
+     * float storage allocates a widened copy.
+     *
+     * @return samples
+     */
+    double[] toDoubleArray();
+
+    /**
+     * Gets the storage precision.
+     * @return storage precision
+     */
+    SignalStorage storage();
+
+    /**
+     * Wraps or converts computed samples for the given storage.
+     *
+     * @param values  Samples (kept, not copied, for double storage)
+     * @param storage Storage precision
+     * @return buffer holding the samples
+     */
+    static SignalBuffer of(double[] values, SignalStorage storage) {
+        return storage == SignalStorage.FLOAT ? new FloatSignalBuffer(values) : new DoubleSignalBuffer(values);
+    }
+}
@@ -0,0 +1,58 @@
+package simulation.software.codebase;
+
+/**
+ * Signal channels that can be selected for export.
+ */
+public enum SignalColumn {
+    TIME("Time"),
+    MESSAGE("Message"),
+    CARRIER("Carrier"),
+    MODULATED("Modulated"),
+    DEMODULATED("Demodulated");
+
+    private final String header;
+
+    SignalColumn(String header) {
+        this.header = header;
+    }
+
+    /**
+     * Gets the column header used in exported files.
+     * @return column header
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Gets the samples of this channel from a signal.
+     *
+     * @param signal The AM signal
+     * @return channel samples (a copy when the signal is stored as float)
+     */
+    public double[] from(AMSignal signal) {
+        return buffer(signal).toDoubleArray();
+    }
+
+    /**
+     * Gets the stored samples of this channel from a signal, without widening them.
+     *
+     * @param signal The AM signal
+     * @return channel buffer
+     */
+    public SignalBuffer buffer(AMSignal signal) {
+        switch (this) {
+            case TIME:
+                return signal.getTimeBuffer();
+            case MESSAGE:
+                return signal.getMessageBuffer();
+            case CARRIER:
+                return signal.getCarrierBuffer();
+            case MODULATED:
+                return signal.getSignalBuffer();
+            case DEMODULATED:
+            default:
+                return signal.getDemodulatedBuffer();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package simulation.software.codebase;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one run of the {@link ModulationAndDemodulation} pipeline.
+ */
+@Name("simulation.software.SignalGeneration")
+@Label("Signal Generation")
+@Category({"AM Simulation", "Simulation"})
+@Description("Modulation, demodulation and spectrum computation of one signal")
+class SignalGenerationEvent extends Event {
+    @Label("Variant")
+    String variant;
+
+    @Label("Demodulation")
+    String demodulation;
+
+    @Label("Samples")
+    int samples;
+
+    @Label("Signal Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long signalDuration;
+
+    @Label("Multirate Factor")
+    int interpolationFactor;
+}
@@ -0,0 +1,38 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens recorded captures as {@link SignalSource}s, choosing the reader from the file extension.
+ */
+public final class SignalImporter {
+    private SignalImporter() {
+    }
+
+    /**
+     * Opens a capture: .wav as WAV, .csv as CSV, .npy as NumPy, .amsa as a compressed archive, anything else
+     * (.f32, .f64, .raw, ...) as raw samples.
+     *
+     * @param path       Capture file
+     * @param sampleRate Sample rate in Hz for formats that do not record one (headerless raw, .npy, CSV without Time)
+     * @return the opened source (the caller closes it)
+     * @throws IOException if the file cannot be opened
+     */
+    public static SignalSource open(Path path, double sampleRate) throws IOException {
+        String name = path.getFileName().toString().toLowerCase();
+        if (name.endsWith(".wav")) {
+            return BinarySignalSource.openWav(path);
+        }
+        if (name.endsWith(".amsa")) {
+            return new SignalArchiveReader(path);
+        }
+        if (name.endsWith(".npy")) {
+            return BinarySignalSource.openNpy(path, sampleRate);
+        }
+        if (name.endsWith(".csv")) {
+            return new CsvSignalSource(path, sampleRate);
+        }
+        return BinarySignalSource.openRaw(path, sampleRate);
+    }
+}
@@ -33,7 +33,7 @@ public class SignalPlotPanel extends JPanel {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                drawTimePlot(g);
+                PaintEvent.record("SignalPlotPanel time domain", () -> drawTimePlot(g));
             }
         };
         timePanel.setBackground(new Color(0, 0, 0));
@@ -44,7 +44,7 @@ public class SignalPlotPanel extends JPanel {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                drawFreqPlot(g);
+                PaintEvent.record("SignalPlotPanel frequency domain", () -> drawFreqPlot(g));
             }
         };
         freqPanel.setBackground(new Color(0, 0, 0));
@@ -182,8 +182,10 @@ public class SignalPlotPanel extends JPanel {
 
     /**
      * Draws the time-domain plot.
+     *
+     * @return number of signal points plotted
      */
-    private void drawTimePlot(Graphics g) {
+    private int drawTimePlot(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -191,14 +193,16 @@ public class SignalPlotPanel extends JPanel {
             g2d.setColor(new Color(192, 192, 192));
             g2d.setFont(new Font("Dialog", Font.BOLD, 12));
             g2d.drawString("No signal data", getWidth() / 2 - 50, getHeight() / 2);
-            return;
+            return 0;
         }
 
-        double[] time = signal.getTime();
-        double[] modulatedSignal = signal.getSignal();
-        double[] message = signal.getMessage();
-        double[] carrier = signal.getCarrier();
-        double[] demodulatedSignal = signal.getDemodulatedSignal();
+        // Read the stored buffers directly so float storage is never widened to full arrays
+        SignalBuffer time = signal.getTimeBuffer();
+        SignalBuffer modulatedSignal = signal.getSignalBuffer();
+        SignalBuffer message = signal.getMessageBuffer();
+        SignalBuffer carrier = signal.getCarrierBuffer();
+        SignalBuffer demodulatedSignal = signal.getDecimatedDemodulatedBuffer();
+        int decimationFactor = signal.getDecimationFactor();
 
         int width = getWidth();
         int height = getHeight();
@@ -206,28 +210,26 @@ public class SignalPlotPanel extends JPanel {
 
         // Compute max amplitude for dynamic scaling
         double maxAmplitude = 1.0;
-        for (double v : message) maxAmplitude = Math.max(maxAmplitude, Math.abs(v));
-        for (double v : carrier) maxAmplitude = Math.max(maxAmplitude, Math.abs(v));
-        for (double v : modulatedSignal) maxAmplitude = Math.max(maxAmplitude, Math.abs(v));
-        for (double v : demodulatedSignal) maxAmplitude = Math.max(maxAmplitude, Math.abs(v));
+        for (int i = 0; i < time.length(); i++) {
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(message.get(i)));
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(carrier.get(i)));
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(modulatedSignal.get(i)));
+        }
+        for (int i = 0; i < demodulatedSignal.length(); i++) {
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(demodulatedSignal.get(i)));
+        }
         if (maxAmplitude == 0) maxAmplitude = 1;
 
         // Downsample for performance
-        int displayPoints = Math.min(time.length, 1000);
-        int step = Math.max(1, time.length / displayPoints);
-        double[] sampledTime = new double[displayPoints];
-        double[] sampledMessage = new double[displayPoints];
-        double[] sampledCarrier = new double[displayPoints];
-        double[] sampledModulated = new double[displayPoints];
-        double[] sampledDemodulated = new double[displayPoints];
-        for (int i = 0; i < displayPoints; i++) {
-            int idx = i * step;
-            sampledTime[i] = time[idx];
-            sampledMessage[i] = message[idx];
-            sampledCarrier[i] = carrier[idx];
-            sampledModulated[i] = modulatedSignal[idx];
-            sampledDemodulated[i] = demodulatedSignal[idx];
-        }
+        int displayPoints = Math.min(time.length(), 1000);
+        int step = Math.max(1, time.length() / displayPoints);
+        SignalView sampledTime = SignalView.of(time).decimate(step).slice(0, displayPoints);
+        SignalView sampledMessage = SignalView.of(message).decimate(step).slice(0, displayPoints);
+        SignalView sampledCarrier = SignalView.of(carrier).decimate(step).slice(0, displayPoints);
+        SignalView sampledModulated = SignalView.of(modulatedSignal).decimate(step).slice(0, displayPoints);
+        // The decimated demodulated signal only lines up with a whole stride when the step is a multiple of its factor
+        SignalBuffer sampledDemodulated = new ComputedSignalBuffer(displayPoints,
+                i -> demodulatedSignal.get(Math.min(i * step / decimationFactor, demodulatedSignal.length() - 1)));
 
         // Draw white grid
         g2d.setColor(Color.WHITE);
@@ -254,7 +256,7 @@ public class SignalPlotPanel extends JPanel {
         // Draw axis labels
         g2d.setFont(new Font("Dialog", Font.PLAIN, 10));
         g2d.setColor(new Color(192, 192, 192));
-        double maxTime = time[time.length - 1];
+        double maxTime = time.get(time.length() - 1);
         for (int i = 0; i <= numVertical; i++) {
             double t = i * maxTime / numVertical;
             int x = margin + (int) ((i * (width - 2 * margin) / numVertical + panTime) * zoomTime);
@@ -271,10 +273,10 @@ public class SignalPlotPanel extends JPanel {
         // Plot message signal
         g2d.setColor(Color.BLUE);
         for (int i = 0; i < displayPoints - 1; i++) {
-            int x1 = margin + (int) (((sampledTime[i] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-            int x2 = margin + (int) (((sampledTime[i + 1] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-            int y1 = height / 2 - (int) (sampledMessage[i] / maxAmplitude * (height / 4));
-            int y2 = height / 2 - (int) (sampledMessage[i + 1] / maxAmplitude * (height / 4));
+            int x1 = margin + (int) (((sampledTime.get(i) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+            int x2 = margin + (int) (((sampledTime.get(i + 1) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+            int y1 = height / 2 - (int) (sampledMessage.get(i) / maxAmplitude * (height / 4));
+            int y2 = height / 2 - (int) (sampledMessage.get(i + 1) / maxAmplitude * (height / 4));
             if (x1 >= margin && x1 <= width - margin && x2 >= margin && x2 <= width - margin) {
                 g2d.drawLine(x1, y1, x2, y2);
             }
@@ -283,10 +285,10 @@ public class SignalPlotPanel extends JPanel {
         // Plot carrier signal
         g2d.setColor(Color.GREEN);
         for (int i = 0; i < displayPoints - 1; i++) {
-            int x1 = margin + (int) (((sampledTime[i] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-            int x2 = margin + (int) (((sampledTime[i + 1] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-            int y1 = height / 2 - (int) (sampledCarrier[i] / maxAmplitude * (height / 4));
-            int y2 = height / 2 - (int) (sampledCarrier[i + 1] / maxAmplitude * (height / 4));
+            int x1 = margin + (int) (((sampledTime.get(i) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+            int x2 = margin + (int) (((sampledTime.get(i + 1) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+            int y1 = height / 2 - (int) (sampledCarrier.get(i) / maxAmplitude * (height / 4));
+            int y2 = height / 2 - (int) (sampledCarrier.get(i + 1) / maxAmplitude * (height / 4));
             if (x1 >= margin && x1 <= width - margin && x2 >= margin && x2 <= width - margin) {
                 g2d.drawLine(x1, y1, x2, y2);
             }
@@ -295,34 +297,37 @@ public class SignalPlotPanel extends JPanel {
         // Plot modulated signal
         g2d.setColor(Color.RED);
         for (int i = 0; i < displayPoints - 1; i++) {
-            int x1 = margin + (int) (((sampledTime[i] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-            int x2 = margin + (int) (((sampledTime[i + 1] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-            int y1 = height / 2 - (int) (sampledModulated[i] / maxAmplitude * (height / 4));
-            int y2 = height / 2 - (int) (sampledModulated[i + 1] / maxAmplitude * (height / 4));
+            int x1 = margin + (int) (((sampledTime.get(i) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+            int x2 = margin + (int) (((sampledTime.get(i + 1) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+            int y1 = height / 2 - (int) (sampledModulated.get(i) / maxAmplitude * (height / 4));
+            int y2 = height / 2 - (int) (sampledModulated.get(i + 1) / maxAmplitude * (height / 4));
             if (x1 >= margin && x1 <= width - margin && x2 >= margin && x2 <= width - margin) {
                 g2d.drawLine(x1, y1, x2, y2);
             }
         }
 
         // Plot demodulated signal
-        if (demodulatedSignal != null && demodulatedSignal.length > 0 && demodulatedSignal[0] != 0) {
+        if (demodulatedSignal.length() > 0 && demodulatedSignal.get(0) != 0) {
             g2d.setColor(Color.YELLOW);
             for (int i = 0; i < displayPoints - 1; i++) {
-                int x1 = margin + (int) (((sampledTime[i] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-                int x2 = margin + (int) (((sampledTime[i + 1] / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
-                int y1 = height / 2 - (int) (sampledDemodulated[i] / maxAmplitude * (height / 4));
-                int y2 = height / 2 - (int) (sampledDemodulated[i + 1] / maxAmplitude * (height / 4));
+                int x1 = margin + (int) (((sampledTime.get(i) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+                int x2 = margin + (int) (((sampledTime.get(i + 1) / maxTime) * (width - 2 * margin) + panTime) * zoomTime);
+                int y1 = height / 2 - (int) (sampledDemodulated.get(i) / maxAmplitude * (height / 4));
+                int y2 = height / 2 - (int) (sampledDemodulated.get(i + 1) / maxAmplitude * (height / 4));
                 if (x1 >= margin && x1 <= width - margin && x2 >= margin && x2 <= width - margin) {
                     g2d.drawLine(x1, y1, x2, y2);
                 }
             }
         }
+        return displayPoints * (demodulatedSignal.length() > 0 && demodulatedSignal.get(0) != 0 ? 4 : 3);
     }
 
     /**
      * Draws the frequency-domain plot.
+     *
+     * @return number of spectrum points plotted
      */
-    private void drawFreqPlot(Graphics g) {
+    private int drawFreqPlot(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -330,11 +335,11 @@ public class SignalPlotPanel extends JPanel {
             g2d.setColor(new Color(192, 192, 192));
             g2d.setFont(new Font("Dialog", Font.BOLD, 12));
             g2d.drawString("No signal data", getWidth() / 2 - 50, getHeight() / 2);
-            return;
+            return 0;
         }
 
-        double[] frequency = signal.getFrequency();
-        double[] spectrum = signal.getSpectrum();
+        SignalBuffer frequency = signal.getFrequencyBuffer();
+        SignalBuffer spectrum = signal.getSpectrumBuffer();
 
         int width = getWidth();
         int height = getHeight();
@@ -342,21 +347,16 @@ public class SignalPlotPanel extends JPanel {
 
         // Compute max spectrum for scaling
         double maxSpectrum = 0;
-        for (double s : spectrum) {
-            if (s > maxSpectrum) maxSpectrum = s;
+        for (int i = 0; i < spectrum.length(); i++) {
+            if (spectrum.get(i) > maxSpectrum) maxSpectrum = spectrum.get(i);
         }
         if (maxSpectrum == 0) maxSpectrum = 1;
 
         // Downsample for performance
-        int displayPoints = Math.min(frequency.length, 1000);
-        int step = Math.max(1, frequency.length / displayPoints);
-        double[] sampledFreq = new double[displayPoints];
-        double[] sampledSpectrum = new double[displayPoints];
-        for (int i = 0; i < displayPoints; i++) {
-            int idx = i * step;
-            sampledFreq[i] = frequency[idx];
-            sampledSpectrum[i] = spectrum[idx];
-        }
+        int displayPoints = Math.min(frequency.length(), 1000);
+        int step = Math.max(1, frequency.length() / displayPoints);
+        SignalView sampledFreq = SignalView.of(frequency).decimate(step).slice(0, displayPoints);
+        SignalView sampledSpectrum = SignalView.of(spectrum).decimate(step).slice(0, displayPoints);
 
         // Draw white grid
         g2d.setColor(Color.WHITE);
@@ -383,7 +383,7 @@ public class SignalPlotPanel extends JPanel {
         // Draw axis labels
         g2d.setFont(new Font("Dialog", Font.PLAIN, 10));
         g2d.setColor(new Color(192, 192, 192));
-        double maxFreq = frequency[frequency.length - 1];
+        double maxFreq = frequency.get(frequency.length() - 1);
         for (int i = 0; i <= numVertical; i++) {
             double f = i * maxFreq / numVertical;
             int x = margin + (int) ((i * (width - 2 * margin) / numVertical + panFreq) * zoomFreq);
@@ -400,10 +400,10 @@ public class SignalPlotPanel extends JPanel {
         // Plot spectrum
         g2d.setColor(Color.MAGENTA);
         for (int i = 0; i < displayPoints - 1; i++) {
-            int x1 = margin + (int) (((sampledFreq[i] / maxFreq) * (width - 2 * margin) + panFreq) * zoomFreq);
-            int x2 = margin + (int) (((sampledFreq[i + 1] / maxFreq) * (width - 2 * margin) + panFreq) * zoomFreq);
-            int y1 = height - margin - (int) (sampledSpectrum[i] / maxSpectrum * (height / 2 - margin));
-            int y2 = height - margin - (int) (sampledSpectrum[i + 1] / maxSpectrum * (height / 2 - margin));
+            int x1 = margin + (int) (((sampledFreq.get(i) / maxFreq) * (width - 2 * margin) + panFreq) * zoomFreq);
+            int x2 = margin + (int) (((sampledFreq.get(i + 1) / maxFreq) * (width - 2 * margin) + panFreq) * zoomFreq);
+            int y1 = height - margin - (int) (sampledSpectrum.get(i) / maxSpectrum * (height / 2 - margin));
+            int y2 = height - margin - (int) (sampledSpectrum.get(i + 1) / maxSpectrum * (height / 2 - margin));
             if (x1 >= margin && x1 <= width - margin && x2 >= margin && x2 <= width - margin) {
                 g2d.drawLine(x1, y1, x2, y2);
             }
@@ -412,13 +412,14 @@ public class SignalPlotPanel extends JPanel {
         // Peak detection
         g2d.setColor(Color.WHITE);
         for (int i = 1; i < displayPoints - 1; i++) {
-            if (sampledSpectrum[i] > sampledSpectrum[i - 1] && sampledSpectrum[i] > sampledSpectrum[i + 1] && sampledSpectrum[i] / maxSpectrum > 0.1) {
-                int x = margin + (int) (((sampledFreq[i] / maxFreq) * (width - 2 * margin) + panFreq) * zoomFreq);
-                int y = height - margin - (int) (sampledSpectrum[i] / maxSpectrum * (height / 2 - margin));
+            if (sampledSpectrum.get(i) > sampledSpectrum.get(i - 1) && sampledSpectrum.get(i) > sampledSpectrum.get(i + 1) && sampledSpectrum.get(i) / maxSpectrum > 0.1) {
+                int x = margin + (int) (((sampledFreq.get(i) / maxFreq) * (width - 2 * margin) + panFreq) * zoomFreq);
+                int y = height - margin - (int) (sampledSpectrum.get(i) / maxSpectrum * (height / 2 - margin));
                 if (x >= margin && x <= width - margin) {
-                    g2d.drawString(String.format("%.0f Hz", sampledFreq[i]), x + 5, y - 5);
+                    g2d.drawString(String.format("%.0f Hz", sampledFreq.get(i)), x + 5, y - 5);
                 }
             }
         }
+        return displayPoints;
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package simulation.software.codebase;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random-access source of recorded signal channels, e.g. an imported capture. Samples are decoded on demand, so
+ * a source can be much larger than the heap; {@link AMSignal#AMSignal(SignalSource, long, int)} materializes a
+ * window of it for the analysis windows.
+ */
+public interface SignalSource extends Closeable {
+    /**
+     * Gets the sample rate.
+     * @return sample rate in Hz
+     */
+    double getSampleRate();
+
+    /**
+     * Gets the number of samples per channel.
+     * @return sample count
+     */
+    long getLength();
+
+    /**
+     * Checks whether the source carries a channel.
+     *
+     * @param column Channel to check
+     * @return true if the channel is present
+     */
+    boolean hasColumn(SignalColumn column);
+
+    /**
+     * Decodes a range of one channel.
+     *
+     * @param column      Channel to read (must be present)
+     * @param offset      Index of the first sample
+     * @param destination Array receiving the samples
+     * @param destOffset  Offset of the first sample in the destination
+     * @param length      Number of samples to read
+     * @throws IOException if the data cannot be read or parsed
+     */
+    void read(SignalColumn column, long offset, double[] destination, int destOffset, int length) throws IOException;
+}
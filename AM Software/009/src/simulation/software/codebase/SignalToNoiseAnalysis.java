@@ -0,0 +1,150 @@
+package simulation.software.codebase;
+
+/**
+ * Signal-to-Noise Ratio (SNR) of the first analysis window of an AM signal, computed without a display.
+ * {@link SignalToNoiseRatio} shows the same result in a window.
+ */
+public class SignalToNoiseAnalysis {
+    public static final int WINDOW_SIZE = 1024; // FFT window size
+    private static final double SIDEBAND_WIDTH = 50.0; // Assume max message frequency ~50 Hz
+
+    private final double[] frequencies;
+    private final double[] magnitudes;
+    private final double[] signalMagnitudes;
+    private final double[] noiseMagnitudes;
+    private final double carrierFreq;
+    private final double snrDb;
+
+    /**
+     * Constructor for SignalToNoiseAnalysis.
+     *
+     * @param signal The AM signal to analyze
+     * @throws IllegalArgumentException if the signal is shorter than one analysis window
+     */
+    public SignalToNoiseAnalysis(AMSignal signal) {
+        this(signal == null ? null : signal.getSignalBuffer(), signal == null ? null : signal.getTimeBuffer());
+    }
+
+    /**
+     * Constructor for SignalToNoiseAnalysis on bare sample buffers, e.g. straight from {@link ModulationAndDemodulation}.
+     *
+     * @param modulatedSignal Modulated signal samples
+     * @param time            Sample times in seconds
+     * @throws IllegalArgumentException if the signal is shorter than one analysis window
+     */
+    public SignalToNoiseAnalysis(SignalBuffer modulatedSignal, SignalBuffer time) {
+        if (modulatedSignal == null || time == null || modulatedSignal.length() < WINDOW_SIZE) {
+            throw new IllegalArgumentException("Invalid or insufficient signal data for SNR analysis.");
+        }
+        double duration = time.get(time.length() - 1);
+        int signalLength = modulatedSignal.length();
+
+        // First window of the signal, Hamming-weighted inside the FFT
+        SignalView window = SignalView.of(modulatedSignal).slice(0, Math.min(WINDOW_SIZE, signalLength));
+        double samplingRate = signalLength / duration;
+        double[][] fftResult = FastFourierTransform.windowedSpectrum(window, samplingRate);
+        frequencies = fftResult[0];
+        magnitudes = fftResult[1];
+
+        // Initialize signal and noise magnitude arrays
+        signalMagnitudes = new double[magnitudes.length];
+        noiseMagnitudes = new double[magnitudes.length];
+        System.arraycopy(magnitudes, 0, noiseMagnitudes, 0, magnitudes.length); // Start with all as noise
+
+        // Identify signal components (carrier and sidebands)
+        carrierFreq = findDominantFrequency(frequencies, magnitudes);
+        double frequencyResolution = frequencies[1] - frequencies[0];
+        double signalPower = 0;
+        double noisePower = 0;
+
+        // Define signal bands (carrier ± sidebands)
+        for (int i = 0; i < frequencies.length; i++) {
+            double freq = frequencies[i];
+            // Check if frequency is near carrier or sidebands
+            if (Math.abs(freq - carrierFreq) < SIDEBAND_WIDTH || // Carrier
+                (freq > carrierFreq && Math.abs(freq - (carrierFreq + SIDEBAND_WIDTH)) < frequencyResolution) || // Upper sideband
+                (freq < carrierFreq && Math.abs(freq - (carrierFreq - SIDEBAND_WIDTH)) < frequencyResolution)) { // Lower sideband
+                signalMagnitudes[i] = magnitudes[i];
+                noiseMagnitudes[i] = 0;
+                signalPower += Math.pow(magnitudes[i], 2);
+            } else {
+                signalMagnitudes[i] = 0;
+                noisePower += Math.pow(magnitudes[i], 2);
+            }
+        }
+
+        // Compute SNR
+        if (noisePower == 0) {
+            snrDb = Double.POSITIVE_INFINITY; // No noise
+        } else if (signalPower == 0) {
+            snrDb = Double.NEGATIVE_INFINITY; // No signal
+        } else {
+            snrDb = 10 * Math.log10(signalPower / noisePower);
+        }
+    }
+
+    /**
+     * Finds the dominant frequency in the spectrum.
+     */
+    private static double findDominantFrequency(double[] frequencies, double[] magnitudes) {
+        double maxMagnitude = 0;
+        int maxIndex = 0;
+        double minFreq = 50.0; // Based on ControlPanel carrier constraints
+        double maxFreq = 5000.0;
+        for (int i = 0; i < frequencies.length; i++) {
+            if (frequencies[i] >= minFreq && frequencies[i] <= maxFreq && magnitudes[i] > maxMagnitude) {
+                maxMagnitude = magnitudes[i];
+                maxIndex = i;
+            }
+        }
+        return maxMagnitude > 0 ? frequencies[maxIndex] : 1000.0; // Default to 1000 Hz if no peak
+    }
+
+    /**
+     * Gets the SNR.
+     * @return SNR in dB (positive infinity without noise, negative infinity without signal)
+     */
+    public double getSnrDb() {
+        return snrDb;
+    }
+
+    /**
+     * Gets the estimated carrier frequency.
+     * @return carrier frequency in Hz
+     */
+    public double getCarrierFrequency() {
+        return carrierFreq;
+    }
+
+    /**
+     * Gets the spectrum bins counted as signal (carrier and sidebands), zero elsewhere.
+     * @return signal magnitudes
+     */
+    public double[] getSignalMagnitudes() {
+        return signalMagnitudes;
+    }
+
+    /**
+     * Gets the spectrum bins counted as noise, zero in the signal bands.
+     * @return noise magnitudes
+     */
+    public double[] getNoiseMagnitudes() {
+        return noiseMagnitudes;
+    }
+
+    /**
+     * Gets the frequency axis of the analysis spectrum.
+     * @return frequencies in Hz
+     */
+    public double[] getFrequencies() {
+        return frequencies;
+    }
+
+    /**
+     * Gets the magnitudes of the analysis spectrum.
+     * @return magnitudes
+     */
+    public double[] getMagnitudes() {
+        return magnitudes;
+    }
+}
@@ -0,0 +1,130 @@
+package simulation.software.codebase;
+
+/**
+ * Zero-copy view of part of a signal buffer: samples offset, offset + stride, offset + 2 * stride, ...
+ * Slicing and decimating a view only creates a new view, so analysis windows and display downsampling read the
+ * underlying buffer directly instead of copying it into temporary arrays.
+ */
+public final class SignalView implements SignalBuffer {
+    private final SignalBuffer buffer;
+    private final int offset;
+    private final int length;
+    private final int stride;
+
+    /**
+     * Constructor for SignalView.
+     *
+     * @param buffer Underlying buffer
+     * @param offset Index of the first sample in the buffer
+     * @param length Number of samples in the view
+     * @param stride Distance between consecutive view samples in the buffer (positive)
+     * @throws IllegalArgumentException if the view does not fit in the buffer
+     */
+    public SignalView(SignalBuffer buffer, int offset, int length, int stride) {
+        if (stride < 1) {
+            throw new IllegalArgumentException("Stride must be positive");
+        }
+        if (offset < 0 || length < 0 || (length > 0 && offset + (long) (length - 1) * stride >= buffer.length())) {
+            throw new IllegalArgumentException("View of " + length + " samples from " + offset + " with stride " + stride
+                    + " does not fit in a buffer of " + buffer.length());
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+    }
+
+    /**
+     * Creates a view of a whole buffer.
+     *
+     * @param buffer Underlying buffer
+     * @return view of every sample
+     */
+    public static SignalView of(SignalBuffer buffer) {
+        return buffer instanceof SignalView ? (SignalView) buffer : new SignalView(buffer, 0, buffer.length(), 1);
+    }
+
+    /**
+     * Creates a view of a range of this view.
+     *
+     * @param from  Index of the first sample, relative to this view
+     * @param count Number of samples
+     * @return sub-view sharing the same buffer
+     */
+    public SignalView slice(int from, int count) {
+        if (from < 0 || count < 0 || from + count > length) {
+            throw new IndexOutOfBoundsException("Range " + from + "+" + count + " out of bounds for length " + length);
+        }
+        return new SignalView(buffer, offset + from * stride, count, stride);
+    }
+
+    /**
+     * Creates a view keeping every factor-th sample of this view (plain downsampling, no anti-alias filter).
+     *
+     * @param factor Decimation factor (positive)
+     * @return decimated view sharing the same buffer
+     */
+    public SignalView decimate(int factor) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Decimation factor must be positive");
+        }
+        return new SignalView(buffer, offset, (length + factor - 1) / factor, stride * factor);
+    }
+
+    /**
+     * Gets the stride between consecutive view samples in the underlying buffer.
+     * @return stride
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public double get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        return buffer.get(offset + index * stride);
+    }
+
+    @Override
+    public void copyTo(int srcOffset, double[] destination, int destOffset, int count) {
+        if (srcOffset < 0 || count < 0 || srcOffset + count > length) {
+            throw new IndexOutOfBoundsException("Range " + srcOffset + "+" + count + " out of bounds for length " + length);
+        }
+        if (stride == 1) {
+            buffer.copyTo(offset + srcOffset, destination, destOffset, count);
+            return;
+        }
+        int index = offset + srcOffset * stride;
+        for (int i = 0; i < count; i++, index += stride) {
+            destination[destOffset + i] = buffer.get(index);
+        }
+    }
+
+    /**
+     * Gets the samples as a double array. A view covering a whole double buffer returns its backing array;
+     * any other view is copied.
+     *
+     * @return samples
+     */
+    @Override
+    public double[] toDoubleArray() {
+        if (offset == 0 && stride == 1 && length == buffer.length()) {
+            return buffer.toDoubleArray();
+        }
+        double[] values = new double[length];
+        copyTo(0, values, 0, length);
+        return values;
+    }
+
+    @Override
+    public SignalStorage storage() {
+        return buffer.storage();
+    }
+}
@@ -0,0 +1,163 @@
+package simulation.software.codebase;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Logging facade over java.util.logging for code on hot paths. Every call checks the level before doing any work,
+ * messages take MessageFormat parameters ({0}, {1,number,0.00}) instead of being concatenated, and the primitive
+ * overloads box nothing when the level is disabled, so a disabled call costs one level comparison. Messages are
+ * formatted by the handler, which runs on a background thread once {@link AsyncLogHandler#install()} has been called.
+ */
+public final class SimulationLogger {
+    private final Logger logger;
+    private final String sourceClassName;
+
+    private SimulationLogger(Class<?> owner) {
+        this.logger = Logger.getLogger(owner.getName());
+        this.sourceClassName = owner.getName();
+    }
+
+    /**
+     * Gets the logger for a class.
+     *
+     * @param owner Class that logs
+     * @return logger named after the class
+     */
+    public static SimulationLogger getLogger(Class<?> owner) {
+        return new SimulationLogger(owner);
+    }
+
+    /**
+     * Checks whether messages at a level are published. Guard calls whose arguments are expensive to compute with it.
+     *
+     * @param level Message level
+     * @return true if the level is enabled
+     */
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    /**
+     * Logs a fixed message at FINE.
+     * @param message Message text
+     */
+    public void fine(String message) {
+        log(Level.FINE, message);
+    }
+
+    /**
+     * Logs a fixed message at INFO.
+     * @param message Message text
+     */
+    public void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    /**
+     * Logs a fixed message at WARNING.
+     * @param message Message text
+     */
+    public void warning(String message) {
+        log(Level.WARNING, message);
+    }
+
+    /**
+     * Logs a fixed message.
+     * @param level   Message level
+     * @param message Message text
+     */
+    public void log(Level level, String message) {
+        if (logger.isLoggable(level)) {
+            publish(level, message, null, null);
+        }
+    }
+
+    /**
+     * Logs a message with one integral parameter, boxed only if the level is enabled.
+     * @param level   Message level
+     * @param pattern MessageFormat pattern referring to {0}
+     * @param arg     Parameter
+     */
+    public void log(Level level, String pattern, long arg) {
+        if (logger.isLoggable(level)) {
+            publish(level, pattern, new Object[]{arg}, null);
+        }
+    }
+
+    /**
+     * Logs a message with one floating-point parameter, boxed only if the level is enabled.
+     * @param level   Message level
+     * @param pattern MessageFormat pattern referring to {0}
+     * @param arg     Parameter
+     */
+    public void log(Level level, String pattern, double arg) {
+        if (logger.isLoggable(level)) {
+            publish(level, pattern, new Object[]{arg}, null);
+        }
+    }
+
+    /**
+     * Logs a message with parameters. Primitive arguments are boxed at the call site, so guard calls on hot paths
+     * with {@link #isLoggable(Level)} or use the primitive overloads.
+     * @param level   Message level
+     * @param pattern MessageFormat pattern referring to {0}
+     * @param arg     Parameter
+     */
+    public void log(Level level, String pattern, Object arg) {
+        if (logger.isLoggable(level)) {
+            publish(level, pattern, new Object[]{arg}, null);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters.
+     * @param level   Message level
+     * @param pattern MessageFormat pattern referring to {0} and {1}
+     * @param arg1    First parameter
+     * @param arg2    Second parameter
+     */
+    public void log(Level level, String pattern, Object arg1, Object arg2) {
+        if (logger.isLoggable(level)) {
+            publish(level, pattern, new Object[]{arg1, arg2}, null);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters.
+     * @param level   Message level
+     * @param pattern MessageFormat pattern referring to {0} to {2}
+     * @param arg1    First parameter
+     * @param arg2    Second parameter
+     * @param arg3    Third parameter
+     */
+    public void log(Level level, String pattern, Object arg1, Object arg2, Object arg3) {
+        if (logger.isLoggable(level)) {
+            publish(level, pattern, new Object[]{arg1, arg2, arg3}, null);
+        }
+    }
+
+    /**
+     * Logs a message with an exception.
+     * @param level   Message level
+     * @param message Message text
+     * @param thrown  Exception to report
+     */
+    public void log(Level level, String message, Throwable thrown) {
+        if (logger.isLoggable(level)) {
+            publish(level, message, null, thrown);
+        }
+    }
+
+    private void publish(Level level, String pattern, Object[] parameters, Throwable thrown) {
+        LogRecord record = new LogRecord(level, pattern);
+        record.setLoggerName(logger.getName());
+        // Naming the source up front skips the stack walk JUL would otherwise do to find the caller
+        record.setSourceClassName(sourceClassName);
+        record.setSourceMethodName(null);
+        record.setParameters(parameters);
+        record.setThrown(thrown);
+        logger.log(record);
+    }
+}
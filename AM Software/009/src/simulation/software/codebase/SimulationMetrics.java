@@ -0,0 +1,96 @@
+package simulation.software.codebase;
+
+/**
+ * Operational metrics of the simulator, registered in the default {@link MetricsRegistry}.
+ */
+final class SimulationMetrics {
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    // Values of the engine label of the simulation metrics
+    static final String PASSBAND = "passband";
+    static final String COMPLEX_BASEBAND = "complex_baseband";
+    static final MetricsRegistry.Counter FFT_TWIDDLE_LOOKUPS = cacheLookups("fft_twiddles");
+    static final MetricsRegistry.Counter FFT_TWIDDLE_MISSES = cacheMisses("fft_twiddles");
+    static final MetricsRegistry.Counter FILTER_DESIGN_LOOKUPS = cacheLookups("filter_designs");
+    static final MetricsRegistry.Counter FILTER_DESIGN_MISSES = cacheMisses("filter_designs");
+
+    static {
+        for (String engine : new String[]{PASSBAND, COMPLEX_BASEBAND}) {
+            simulations(engine);
+            pipelineDuration(engine);
+        }
+        REGISTRY.gauge("am_live_signals", "Signals not yet reclaimed by the garbage collector",
+                AMSignal::getLiveSignalCount);
+        REGISTRY.gauge("am_live_signal_bytes", "Sample memory held by signals not yet reclaimed",
+                AMSignal::getLiveSignalBytes);
+    }
+
+    private SimulationMetrics() {
+    }
+
+    /**
+     * Gets the registry holding these metrics, with all of them registered.
+     * @return metrics registry
+     */
+    static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Registers the open-window gauges. Called by the Swing application only, so that headless runs
+     * ({@link BatchRunner}) never load the window classes.
+     */
+    static void registerWindowGauges() {
+        REGISTRY.gauge("am_open_windows", "Open analysis windows",
+                TimeDomainSimulationWindow::getOpenWindowCount, "window", "time_domain");
+        REGISTRY.gauge("am_open_windows", "Open analysis windows",
+                SpectrumAnalysisFFT::getOpenWindowCount, "window", "spectrum");
+    }
+
+    /**
+     * Records a completed simulation. Called where simulations are started ({@link AMSignal} and {@link SweepPoint}),
+     * so every engine is counted the same way.
+     *
+     * @param engine Engine label ({@link #PASSBAND} or {@link #COMPLEX_BASEBAND})
+     * @param nanos  Time to simulate the signal, including upconversion for the complex-baseband engine
+     */
+    static void recordSimulation(String engine, long nanos) {
+        simulations(engine).increment();
+        pipelineDuration(engine).record(nanos);
+    }
+
+    /**
+     * Records a completed export; throughput is the rate of exported bytes over the rate of export seconds.
+     *
+     * @param format Export format
+     * @param bytes  Size of the written file
+     * @param nanos  Time the export took
+     */
+    static void recordExport(ExportFormat format, long bytes, long nanos) {
+        REGISTRY.counter("am_exports_total", "Completed exports", "format", format.name()).increment();
+        REGISTRY.counter("am_export_bytes_total", "Bytes written by exports", "format", format.name()).add(bytes);
+        REGISTRY.summary("am_export_duration_seconds", "Time per export", "format", format.name()).record(nanos);
+    }
+
+    private static MetricsRegistry.Counter simulations(String engine) {
+        return REGISTRY.counter("am_simulations_total", "Signals generated by the simulation engines", "engine", engine);
+    }
+
+    private static LatencyHistogram pipelineDuration(String engine) {
+        return REGISTRY.summary("am_pipeline_duration_seconds",
+                "Time to modulate, demodulate and compute the spectrum of one signal", "engine", engine);
+    }
+
+    private static MetricsRegistry.Counter cacheLookups(String cache) {
+        MetricsRegistry.Counter lookups = REGISTRY.counter("am_cache_lookups_total", "Lookups in a precomputation cache",
+                "cache", cache);
+        MetricsRegistry.Counter misses = cacheMisses(cache);
+        REGISTRY.gauge("am_cache_hit_ratio", "Fraction of cache lookups served without recomputation",
+                () -> lookups.get() == 0 ? Double.NaN : 1 - (double) misses.get() / lookups.get(), "cache", cache);
+        return lookups;
+    }
+
+    private static MetricsRegistry.Counter cacheMisses(String cache) {
+        return REGISTRY.counter("am_cache_misses_total", "Cache lookups that had to compute the entry", "cache", cache);
+    }
+}
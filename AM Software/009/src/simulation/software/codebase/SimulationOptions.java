@@ -0,0 +1,135 @@
+package simulation.software.codebase;
+
+/**
+ * Optional simulation settings that go beyond the signal parameters entered in the control panel.
+ * The defaults reproduce the single-rate simulation.
+ */
+public class SimulationOptions {
+    private static final int MAX_INTERPOLATION_FACTOR = 16;
+
+    private int interpolationFactor = 1;
+    private SignalStorage storage = SignalStorage.DOUBLE;
+    private boolean profilingEnabled;
+    private Long noiseSeed;
+    private SimulationScratch scratch;
+    private boolean complexBaseband;
+
+    /**
+     * Gets the multirate interpolation factor.
+     * @return interpolation factor (1 when multirate mode is off)
+     */
+    public int getInterpolationFactor() {
+        return interpolationFactor;
+    }
+
+    /**
+     * Sets the multirate interpolation factor. With a factor L above 1, the message and noise are generated at
+     * 1/L of the simulation rate and upsampled by a polyphase interpolator right before mixing with the carrier,
+     * so only the mixer and demodulator run at the full rate. Noise is then band-limited to the baseband rate.
+     *
+     * @param interpolationFactor Power of two between 1 and 16
+     * @throws IllegalArgumentException if the factor is invalid
+     */
+    public void setInterpolationFactor(int interpolationFactor) {
+        if (interpolationFactor < 1 || interpolationFactor > MAX_INTERPOLATION_FACTOR
+                || Integer.bitCount(interpolationFactor) != 1) {
+            throw new IllegalArgumentException("Interpolation factor must be a power of two between 1 and " + MAX_INTERPOLATION_FACTOR);
+        }
+        this.interpolationFactor = interpolationFactor;
+    }
+
+    /**
+     * Gets the precision used to store the computed signals.
+     * @return storage precision
+     */
+    public SignalStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Sets the precision used to store the computed signals. Computation always runs in double; FLOAT rounds the
+     * retained buffers, halving their memory (see {@link SignalStorage} for the accuracy trade-off).
+     *
+     * @param storage Storage precision
+     * @throws IllegalArgumentException if the storage is null
+     */
+    public void setStorage(SignalStorage storage) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage precision must not be null");
+        }
+        this.storage = storage;
+    }
+
+    /**
+     * Checks whether the pipeline records per-stage timing and allocation.
+     * @return true if profiling is enabled
+     */
+    public boolean isProfilingEnabled() {
+        return profilingEnabled;
+    }
+
+    /**
+     * Enables per-stage timing and allocation measurement of the modulation pipeline (see {@link PipelineProfile}).
+     * When disabled, the pipeline reads no clocks or counters.
+     *
+     * @param profilingEnabled true to record a profile
+     */
+    public void setProfilingEnabled(boolean profilingEnabled) {
+        this.profilingEnabled = profilingEnabled;
+    }
+
+    /**
+     * Gets the seed of the channel noise generator.
+     * @return noise seed, or null if every simulation draws fresh noise
+     */
+    public Long getNoiseSeed() {
+        return noiseSeed;
+    }
+
+    /**
+     * Sets the seed of the channel noise generator. Simulations with the same parameters and seed produce identical
+     * signals, which makes noisy configurations reproducible (e.g. for golden-output comparisons).
+     *
+     * @param noiseSeed Noise seed, or null to draw fresh noise for every simulation
+     */
+    public void setNoiseSeed(Long noiseSeed) {
+        this.noiseSeed = noiseSeed;
+    }
+
+    /**
+     * Gets the working memory reused across simulations.
+     * @return scratch, or null if each simulation allocates its own
+     */
+    public SimulationScratch getScratch() {
+        return scratch;
+    }
+
+    /**
+     * Sets working memory to reuse across simulations run by the same thread. The results do not depend on it.
+     *
+     * @param scratch Scratch owned by the calling thread, or null to allocate per simulation
+     */
+    public void setScratch(SimulationScratch scratch) {
+        this.scratch = scratch;
+    }
+
+    /**
+     * Checks whether signals are simulated through their complex envelope.
+     * @return true for the complex-baseband (I/Q) engine
+     */
+    public boolean isComplexBaseband() {
+        return complexBaseband;
+    }
+
+    /**
+     * Selects the complex-baseband (I/Q) engine, {@link ComplexBasebandModulation}. The sample count and duration
+     * then set the baseband rate, which only has to cover the message band; the sample count must be a power of
+     * two. {@link AMSignal} upconverts the envelope to passband only for display and export. The multirate factor
+     * does not apply to this engine.
+     *
+     * @param complexBaseband True for the I/Q engine, false for the passband engine
+     */
+    public void setComplexBaseband(boolean complexBaseband) {
+        this.complexBaseband = complexBaseband;
+    }
+}
@@ -0,0 +1,32 @@
+package simulation.software.codebase;
+
+/**
+ * Reusable working memory for {@link ModulationAndDemodulation}: the spectrum FFT buffers and the intermediate
+ * signals of the modulators and demodulators. None of them outlives a simulation, so a worker that runs many
+ * simulations can pass the same scratch to each one through {@link SimulationOptions#setScratch(SimulationScratch)}
+ * and stop allocating them. The trial kernel of {@link TrialExecutor} also keeps its message and modulated signal
+ * here, so a trial allocates no signal arrays at all. Not thread-safe: every thread needs its own.
+ */
+public final class SimulationScratch {
+    static final int SPECTRUM_RE = 0;
+    static final int SPECTRUM_IM = 1;
+    static final int DEMODULATION = 2;
+    static final int VSB_INPUT = 3;
+    static final int MESSAGE = 4;
+    static final int MODULATED = 5;
+    private static final int SLOTS = 6;
+
+    private final double[][] slots = new double[SLOTS][];
+
+    /**
+     * Gets a working array of exactly the given length. Its contents are left over from earlier use.
+     */
+    double[] array(int slot, int length) {
+        double[] array = slots[slot];
+        if (array == null || array.length != length) {
+            array = new double[length];
+            slots[slot] = array;
+        }
+        return array;
+    }
+}
@@ -4,16 +4,15 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 /**
  * Window for displaying dynamic FFT-based frequency spectrum analysis of AM signals.
  */
 public class SpectrumAnalysisFFT extends JFrame {
-    private static final Logger LOGGER = Logger.getLogger(SpectrumAnalysisFFT.class.getName());
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(SpectrumAnalysisFFT.class);
     private static final int FPS = 60;
     private static final int WINDOW_SIZE = 1024; // FFT window size
     private AMSignal signal;
@@ -24,9 +23,13 @@ public class SpectrumAnalysisFFT extends JFrame {
     private int windowIndex = 0;
     private boolean isPaused = false;
     private Timer animationTimer;
+    private final RenderStatistics renderStatistics = new RenderStatistics(1000 / FPS);
+    private boolean hudVisible;
     private double[] currentFreq;
     private double[] currentSpectrum;
-    private static List<WeakReference<SpectrumAnalysisFFT>> openWindows = new ArrayList<>();
+    private double[] fftRe = new double[0]; // FFT scratch, resized only when the FFT size changes
+    private double[] fftIm = new double[0];
+    private static List<WeakReference<SpectrumAnalysisFFT>> openWindows = new CopyOnWriteArrayList<>(); // Also read by the metrics endpoint
 
     /**
      * Constructor for SpectrumAnalysisFFT.
@@ -37,7 +40,7 @@ public class SpectrumAnalysisFFT extends JFrame {
     public SpectrumAnalysisFFT(AMSignal signal, String variant) {
         this.signal = signal;
         this.variant = variant;
-        if (signal == null || signal.getSignal() == null || signal.getSignal().length < WINDOW_SIZE) {
+        if (signal == null || signal.getSignalBuffer().length() < WINDOW_SIZE) {
             LOGGER.warning("Invalid or insufficient signal data for spectrum analysis.");
             JOptionPane.showMessageDialog(null, "Invalid or insufficient signal data for spectrum analysis.", "Error", JOptionPane.ERROR_MESSAGE);
             dispose();
@@ -60,7 +63,12 @@ public class SpectrumAnalysisFFT extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                drawSpectrumPlot(g);
+                long paintStart = renderStatistics.beginPaint();
+                PaintEvent.record("SpectrumAnalysisFFT", () -> drawSpectrumPlot(g));
+                renderStatistics.endPaint(paintStart);
+                if (hudVisible) {
+                    renderStatistics.paintHud(g, 55, 55);
+                }
             }
         };
         plotPanel.setBackground(new Color(60, 60, 60));
@@ -109,7 +117,7 @@ public class SpectrumAnalysisFFT extends JFrame {
         pauseResumeButton.addActionListener(e -> {
             isPaused = !isPaused;
             pauseResumeButton.setText(isPaused ? "Resume" : "Pause");
-            LOGGER.info("Spectrum animation " + (isPaused ? "paused" : "resumed"));
+            LOGGER.log(Level.INFO, "Spectrum animation {0}", isPaused ? "paused" : "resumed");
         });
         controlPanel.add(pauseResumeButton);
 
@@ -129,6 +137,17 @@ public class SpectrumAnalysisFFT extends JFrame {
         });
         controlPanel.add(resetButton);
 
+        JToggleButton hudButton = new JToggleButton("HUD");
+        hudButton.setBackground(new Color(80, 80, 80));
+        hudButton.setForeground(new Color(180, 180, 180));
+        hudButton.setFont(new Font("Bahnschrift", Font.BOLD, 13));
+        hudButton.setToolTipText("Show frame rate, paint time, dropped ticks and event queue latency");
+        hudButton.addActionListener(e -> {
+            hudVisible = hudButton.isSelected();
+            repaint();
+        });
+        controlPanel.add(hudButton);
+
         mainPanel.add(controlPanel, BorderLayout.SOUTH);
 
         // Mouse interaction
@@ -168,12 +187,13 @@ public class SpectrumAnalysisFFT extends JFrame {
                 if (animationTimer != null) {
                     animationTimer.stop();
                 }
+                renderStatistics.stopProbe();
                 openWindows.removeIf(ref -> ref.get() == null || ref.get() == SpectrumAnalysisFFT.this);
-                LOGGER.info("SpectrumAnalysisFFT window closed for " + variant);
+                LOGGER.log(Level.INFO, "SpectrumAnalysisFFT window closed for {0}", variant);
             }
         });
 
-        LOGGER.info("Dynamic SpectrumAnalysis window initialized for " + variant);
+        LOGGER.log(Level.INFO, "Dynamic SpectrumAnalysis window initialized for {0}", variant);
         setVisible(true);
     }
 
@@ -182,9 +202,10 @@ public class SpectrumAnalysisFFT extends JFrame {
      */
     private void initAnimation() {
         animationTimer = new Timer(1000 / FPS, e -> {
+            renderStatistics.tick();
             if (!isPaused) {
                 windowIndex += WINDOW_SIZE / 4; // Advance window by 1/4 for overlap
-                if (windowIndex > signal.getSignal().length - WINDOW_SIZE) {
+                if (windowIndex > signal.getSignalBuffer().length() - WINDOW_SIZE) {
                     windowIndex = 0; // Loop back
                 }
                 updateSpectrum();
@@ -192,31 +213,28 @@ public class SpectrumAnalysisFFT extends JFrame {
             }
         });
         animationTimer.start();
+        renderStatistics.startProbe();
     }
 
     /**
      * Updates the spectrum for the current window.
      */
     private void updateSpectrum() {
-        double[] modulatedSignal = signal.getSignal();
-        double duration = signal.getTime()[signal.getTime().length - 1];
-        int signalLength = modulatedSignal.length;
+        SignalBuffer modulatedSignal = signal.getSignalBuffer();
+        SignalBuffer time = signal.getTimeBuffer();
+        double duration = time.get(time.length() - 1);
+        int signalLength = modulatedSignal.length();
         if (windowIndex + WINDOW_SIZE > signalLength) {
             windowIndex = 0; // Reset if window exceeds signal
         }
 
-        // Extract windowed signal with Hamming window
-        double[] windowedSignal = new double[WINDOW_SIZE];
-        for (int i = 0; i < WINDOW_SIZE; i++) {
-            // Apply Hamming window
-            double window = 0.54 - 0.46 * Math.cos(2 * Math.PI * i / (WINDOW_SIZE - 1));
-            windowedSignal[i] = modulatedSignal[windowIndex + i] * window;
-        }
+        // Current window of the signal, Hamming-weighted inside the FFT
+        SignalView window = SignalView.of(modulatedSignal).slice(windowIndex, WINDOW_SIZE);
 
         try {
             // Compute FFT
             double samplingRate = signalLength / duration;
-            double[][] fftResult = computeFFT(windowedSignal, samplingRate);
+            double[][] fftResult = computeFFT(window, samplingRate);
             currentFreq = fftResult[0];
             currentSpectrum = fftResult[1];
         } catch (IllegalArgumentException e) {
@@ -227,106 +245,48 @@ public class SpectrumAnalysisFFT extends JFrame {
     }
 
     /**
-     * Computes the FFT of a signal and returns frequency and magnitude arrays.
+     * Computes the FFT of a Hamming-windowed view and returns frequency and magnitude arrays.
+     * The view is read straight into the FFT scratch kept by the window, so only the output arrays are allocated.
      *
-     * @param signal       The input signal (time-domain)
+     * @param window       The time-domain samples to analyze
      * @param samplingRate The sampling rate in Hz
      * @return A double[][] where result[0] is frequencies, result[1] is magnitudes
      */
-    private double[][] computeFFT(double[] signal, double samplingRate) {
-        if (signal == null || signal.length == 0) {
+    private double[][] computeFFT(SignalBuffer window, double samplingRate) {
+        if (window.length() == 0) {
             LOGGER.warning("Invalid signal for FFT computation");
             throw new IllegalArgumentException("Signal cannot be null or empty");
         }
 
-        int n = signal.length;
+        int n = window.length();
         // Ensure power of 2 for FFT (pad with zeros if needed)
         int fftSize = 1;
         while (fftSize < n) {
             fftSize <<= 1;
         }
-        double[] paddedSignal = new double[fftSize];
-        System.arraycopy(signal, 0, paddedSignal, 0, n);
-
-        // Compute FFT
-        Complex[] fft = new Complex[fftSize];
-        for (int i = 0; i < fftSize; i++) {
-            fft[i] = new Complex(i < n ? paddedSignal[i] : 0, 0);
-        }
-        fft = fft(fft); // Recursive FFT
-
-        // Compute frequencies and magnitudes
         double[] frequencies = new double[fftSize / 2];
         double[] magnitudes = new double[fftSize / 2];
+        if (fftRe.length != fftSize) {
+            fftRe = new double[fftSize];
+            fftIm = new double[fftSize];
+        }
+        FastFourierTransform.hammingSpectrum(window, fftRe, fftIm, magnitudes);
         double nyquist = samplingRate / 2.0;
         for (int i = 0; i < fftSize / 2; i++) {
             frequencies[i] = i * nyquist / (fftSize / 2.0);
-            magnitudes[i] = fft[i].abs() / fftSize * 2; // Normalize
         }
 
-        LOGGER.info("FFT computed for signal of length " + n);
+        // Runs on every animation tick, so FINE only (disabled by default, no formatting when off)
+        LOGGER.log(Level.FINE, "FFT computed for signal of length {0,number,#}", n);
         return new double[][]{frequencies, magnitudes};
     }
 
-    // Helper FFT implementation (Cooley-Tukey)
-    private Complex[] fft(Complex[] x) {
-        int n = x.length;
-        if (n <= 1) return x;
-
-        // Divide
-        Complex[] even = new Complex[n / 2];
-        Complex[] odd = new Complex[n / 2];
-        for (int i = 0; i < n / 2; i++) {
-            even[i] = x[2 * i];
-            odd[i] = x[2 * i + 1];
-        }
-
-        // Conquer
-        even = fft(even);
-        odd = fft(odd);
-
-        // Combine
-        Complex[] result = new Complex[n];
-        for (int k = 0; k < n / 2; k++) {
-            double angle = -2 * Math.PI * k / n;
-            Complex t = new Complex(Math.cos(angle), Math.sin(angle)).times(odd[k]);
-            result[k] = even[k].plus(t);
-            result[k + n / 2] = even[k].minus(t);
-        }
-        return result;
-    }
-
-    // Helper Complex class for FFT
-    private static class Complex {
-        private final double re;
-        private final double im;
-
-        public Complex(double real, double imag) {
-            this.re = real;
-            this.im = imag;
-        }
-
-        public Complex plus(Complex b) {
-            return new Complex(re + b.re, im + b.im);
-        }
-
-        public Complex minus(Complex b) {
-            return new Complex(re - b.re, im - b.im);
-        }
-
-        public Complex times(Complex b) {
-            return new Complex(re * b.re - im * b.im, re * b.im + im * b.re);
-        }
-
-        public double abs() {
-            return Math.sqrt(re * re + im * im);
-        }
-    }
-
     /**
      * Draws the dynamic frequency spectrum plot.
+     *
+     * @return number of spectrum points plotted
      */
-    private void drawSpectrumPlot(Graphics g) {
+    private int drawSpectrumPlot(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -334,7 +294,7 @@ public class SpectrumAnalysisFFT extends JFrame {
             g2d.setColor(new Color(180, 180, 180));
             g2d.setFont(new Font("Bahnschrift", Font.BOLD, 14));
             g2d.drawString("No spectrum data", getWidth() / 2 - 50, getHeight() / 2);
-            return;
+            return 0;
         }
 
         int width = getWidth();
@@ -351,13 +311,9 @@ public class SpectrumAnalysisFFT extends JFrame {
         // Downsample for performance
         int displayPoints = Math.min(currentFreq.length, 1000);
         int step = Math.max(1, currentFreq.length / displayPoints);
-        double[] sampledFreq = new double[displayPoints];
-        double[] sampledSpectrum = new double[displayPoints];
-        for (int i = 0; i < displayPoints; i++) {
-            int idx = i * step;
-            sampledFreq[i] = currentFreq[idx];
-            sampledSpectrum[i] = currentSpectrum[idx];
-        }
+        // Strided views of the spectrum instead of copies
+        SignalView sampledFreq = SignalView.of(new DoubleSignalBuffer(currentFreq)).decimate(step).slice(0, displayPoints);
+        SignalView sampledSpectrum = SignalView.of(new DoubleSignalBuffer(currentSpectrum)).decimate(step).slice(0, displayPoints);
 
         // Draw white grid
         g2d.setColor(Color.WHITE);
@@ -403,10 +359,10 @@ public class SpectrumAnalysisFFT extends JFrame {
         // Plot spectrum
         g2d.setColor(Color.MAGENTA);
         for (int i = 0; i < displayPoints - 1; i++) {
-            double x1 = margin + ((sampledFreq[i] / maxFreq) * (width - 2 * margin) + pan) * zoom;
-            double x2 = margin + ((sampledFreq[i + 1] / maxFreq) * (width - 2 * margin) + pan) * zoom;
-            double y1 = height - margin - (sampledSpectrum[i] / maxSpectrum * (height / 2 - margin));
-            double y2 = height - margin - (sampledSpectrum[i + 1] / maxSpectrum * (height / 2 - margin));
+            double x1 = margin + ((sampledFreq.get(i) / maxFreq) * (width - 2 * margin) + pan) * zoom;
+            double x2 = margin + ((sampledFreq.get(i + 1) / maxFreq) * (width - 2 * margin) + pan) * zoom;
+            double y1 = height - margin - (sampledSpectrum.get(i) / maxSpectrum * (height / 2 - margin));
+            double y2 = height - margin - (sampledSpectrum.get(i + 1) / maxSpectrum * (height / 2 - margin));
             int x1Int = (int) Math.round(x1);
             int x2Int = (int) Math.round(x2);
             int y1Int = (int) Math.round(y1);
@@ -419,16 +375,25 @@ public class SpectrumAnalysisFFT extends JFrame {
         // Peak detection
         g2d.setColor(Color.WHITE);
         for (int i = 1; i < displayPoints - 1; i++) {
-            if (sampledSpectrum[i] > sampledSpectrum[i - 1] && sampledSpectrum[i] > sampledSpectrum[i + 1] && sampledSpectrum[i] / maxSpectrum > 0.1) {
-                double x = margin + ((sampledFreq[i] / maxFreq) * (width - 2 * margin) + pan) * zoom;
-                double y = height - margin - (sampledSpectrum[i] / maxSpectrum * (height / 2 - margin));
+            if (sampledSpectrum.get(i) > sampledSpectrum.get(i - 1) && sampledSpectrum.get(i) > sampledSpectrum.get(i + 1) && sampledSpectrum.get(i) / maxSpectrum > 0.1) {
+                double x = margin + ((sampledFreq.get(i) / maxFreq) * (width - 2 * margin) + pan) * zoom;
+                double y = height - margin - (sampledSpectrum.get(i) / maxSpectrum * (height / 2 - margin));
                 int xInt = (int) Math.round(x);
                 int yInt = (int) Math.round(y);
                 if (xInt >= margin && xInt <= width - margin) {
-                    g2d.drawString(String.format("%.0f Hz", sampledFreq[i]), xInt + 5, yInt - 5);
+                    g2d.drawString(String.format("%.0f Hz", sampledFreq.get(i)), xInt + 5, yInt - 5);
                 }
             }
         }
+        return displayPoints;
+    }
+
+    /**
+     * Gets the frame statistics of this window's animation.
+     * @return render statistics
+     */
+    public RenderStatistics getRenderStatistics() {
+        return renderStatistics;
     }
 
     /**
@@ -449,11 +414,26 @@ public class SpectrumAnalysisFFT extends JFrame {
         openWindows.removeIf(ref -> ref.get() == null);
     }
 
+    /**
+     * Counts the open windows of this kind. Safe to call from any thread.
+     * @return number of open windows
+     */
+    public static int getOpenWindowCount() {
+        int count = 0;
+        for (WeakReference<SpectrumAnalysisFFT> ref : openWindows) {
+            if (ref.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public void dispose() {
         if (animationTimer != null) {
             animationTimer.stop();
         }
+        renderStatistics.stopProbe();
         openWindows.removeIf(ref -> ref.get() == null || ref.get() == this);
         super.dispose();
     }
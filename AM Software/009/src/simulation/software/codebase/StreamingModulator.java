@@ -0,0 +1,322 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Block-by-block counterpart of {@link ModulationAndDemodulation} for long runs. Every stage keeps its state between
+ * blocks, so a signal of any length can be generated in fixed memory and handed to a {@link SignalBlockSink}
+ * while it is produced. Blocks hold the channels of {@link #COLUMNS} in that order.
+ * <p>
+ * SSB forms its Hilbert pair at a reduced rate and interpolates it, and VSB runs the shaping filter causally, so
+ * those variants start after a short filter latency instead of being aligned to t = 0.
+ */
+public class StreamingModulator {
+    /** Channels produced by {@link #nextBlock}, in block order. */
+    public static final SignalColumn[] COLUMNS = SignalColumn.values();
+
+    private static final double HILBERT_RATE_MULTIPLE = 10; // Hilbert rate relative to the highest message frequency
+    private static final int MAX_HILBERT_DECIMATION = 16;
+
+    private final String variant;
+    private final double carrierFreq;
+    private final double modulationIndex;
+    private final double phaseShift;
+    private final String demodulationType;
+    private final double sampleRate;
+    private final double dt;
+    private final double filterAlpha;
+    private final MessageGenerator generator;
+    private final CarrierRecoveryLoop loop;
+    private final FirFilter vsbFilter;
+
+    // SSB: message generated at sampleRate / ssbFactor, Hilbert pair formed there and interpolated back up
+    private final int ssbFactor;
+    private final FirFilter hilbertFilter;
+    private final double[] ssbDelayLine;
+    private final PolyphaseInterpolator ssbInPhase;
+    private final PolyphaseInterpolator ssbQuadrature;
+    private final double[] ssbI;
+    private final double[] ssbQ;
+    private double[] hilbertBlock = new double[0];
+    private int ssbDelayPosition;
+    private int ssbCursor;
+    private long ssbInputIndex;
+
+    private final double[] scratch = new double[1];
+    private double lastFiltered;
+    private long sampleIndex;
+
+    /**
+     * Constructor for StreamingModulator.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq    Carrier frequency in Hz (50–5000)
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift     Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param demodulationType Demodulation type (None, Coherent, Non-Coherent)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param sampleRate     Sample rate in Hz (above twice the carrier frequency)
+     * @param filterAlpha    Low-pass filter alpha (0.01–1)
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public StreamingModulator(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                              double modulationIndex, double phaseShift, String waveformType, String noiseType,
+                              double noiseAmplitude, String demodulationType, double pulseDutyCycle,
+                              double sampleRate, double filterAlpha) {
+        this(variant, carrierFreq, messageFreqs, amplitudes, modulationIndex, phaseShift, waveformType, noiseType,
+                noiseAmplitude, demodulationType, pulseDutyCycle, sampleRate, filterAlpha, null);
+    }
+
+    /**
+     * Constructor for StreamingModulator with seeded noise.
+     *
+     * @param variant         AM variant (DSB-AM, DSB-SC, SSB, VSB, QAM)
+     * @param carrierFreq    Carrier frequency in Hz (50–5000)
+     * @param messageFreqs   Array of message frequencies in Hz
+     * @param amplitudes     Array of message amplitudes
+     * @param modulationIndex Modulation index (0–2)
+     * @param phaseShift     Phase shift in degrees (0–360, used for QAM)
+     * @param waveformType   Waveform type (Sine, Square, Triangle, Sawtooth, Pulse)
+     * @param noiseType      Noise type (None, White, Gaussian, Pink)
+     * @param noiseAmplitude Noise amplitude (0–1)
+     * @param demodulationType Demodulation type (None, Coherent, Non-Coherent)
+     * @param pulseDutyCycle Pulse duty cycle (0–100%)
+     * @param sampleRate     Sample rate in Hz (above twice the carrier frequency)
+     * @param filterAlpha    Low-pass filter alpha (0.01–1)
+     * @param noiseSeed      Seed of the channel noise, or null for fresh noise
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public StreamingModulator(String variant, double carrierFreq, double[] messageFreqs, double[] amplitudes,
+                              double modulationIndex, double phaseShift, String waveformType, String noiseType,
+                              double noiseAmplitude, String demodulationType, double pulseDutyCycle,
+                              double sampleRate, double filterAlpha, Long noiseSeed) {
+        if (carrierFreq < 50 || carrierFreq > 5000) {
+            throw new IllegalArgumentException("Carrier frequency must be between 50 and 5000 Hz");
+        }
+        if (messageFreqs.length == 0 || messageFreqs.length != amplitudes.length) {
+            throw new IllegalArgumentException("Message frequencies and amplitudes must be non-empty and match in length");
+        }
+        if (modulationIndex < 0 || modulationIndex > 2) {
+            throw new IllegalArgumentException("Modulation index must be between 0 and 2");
+        }
+        if (variant.equalsIgnoreCase("QAM") && (phaseShift < 0 || phaseShift > 360)) {
+            throw new IllegalArgumentException("Phase shift must be between 0 and 360 degrees for QAM");
+        }
+        if (pulseDutyCycle < 0 || pulseDutyCycle > 100) {
+            throw new IllegalArgumentException("Pulse duty cycle must be between 0 and 100%");
+        }
+        if (noiseAmplitude < 0 || noiseAmplitude > 1) {
+            throw new IllegalArgumentException("Noise amplitude must be between 0 and 1");
+        }
+        if (sampleRate <= 2 * carrierFreq) {
+            throw new IllegalArgumentException("Sample rate must exceed twice the carrier frequency");
+        }
+        if (filterAlpha < 0.01 || filterAlpha > 1) {
+            throw new IllegalArgumentException("Filter alpha must be between 0.01 and 1");
+        }
+
+        this.variant = variant.toLowerCase();
+        this.carrierFreq = carrierFreq;
+        this.modulationIndex = modulationIndex;
+        this.phaseShift = phaseShift;
+        this.demodulationType = demodulationType;
+        this.sampleRate = sampleRate;
+        this.dt = 1 / sampleRate;
+        this.filterAlpha = filterAlpha;
+        this.generator = ModulationAndDemodulation.messageGenerator(messageFreqs, amplitudes, waveformType,
+                pulseDutyCycle, noiseType, noiseAmplitude, noiseSeed);
+        double maxFreq = generator.getMaxFrequency();
+        this.loop = demodulationType.equals("Coherent")
+                ? new CarrierRecoveryLoop(carrierFreq, sampleRate,
+                        ModulationAndDemodulation.LOOP_BANDWIDTH_FRACTION * carrierFreq,
+                        ModulationAndDemodulation.LOOP_DAMPING)
+                : null;
+        this.vsbFilter = this.variant.equals("vsb")
+                ? new FirFilter(FirFilterDesign.vestigialSideband(carrierFreq,
+                        ModulationAndDemodulation.VESTIGE_FRACTION * maxFreq, sampleRate))
+                : null;
+
+        if (this.variant.equals("ssb")) {
+            int factor = 1;
+            while (factor < MAX_HILBERT_DECIMATION && sampleRate / (2 * factor) >= 2 * HILBERT_RATE_MULTIPLE * maxFreq) {
+                factor *= 2;
+            }
+            double minFreq = maxFreq;
+            for (double freq : messageFreqs) {
+                if (freq > 0) {
+                    minFreq = Math.min(minFreq, freq);
+                }
+            }
+            this.ssbFactor = factor;
+            this.hilbertFilter = new FirFilter(FirFilterDesign.hilbert(minFreq, sampleRate / factor));
+            this.ssbDelayLine = new double[hilbertFilter.getGroupDelay() + 1];
+            this.ssbInPhase = new PolyphaseInterpolator(factor);
+            this.ssbQuadrature = new PolyphaseInterpolator(factor);
+            this.ssbI = new double[factor];
+            this.ssbQ = new double[factor];
+            this.ssbCursor = factor;
+        } else {
+            this.ssbFactor = 1;
+            this.hilbertFilter = null;
+            this.ssbDelayLine = null;
+            this.ssbInPhase = null;
+            this.ssbQuadrature = null;
+            this.ssbI = null;
+            this.ssbQ = null;
+        }
+    }
+
+    /**
+     * Generates the next block of samples.
+     *
+     * @param block  Channel arrays in {@link #COLUMNS} order, each at least length long
+     * @param length Number of samples to generate
+     */
+    public void nextBlock(double[][] block, int length) {
+        if (block.length != COLUMNS.length) {
+            throw new IllegalArgumentException("Expected " + COLUMNS.length + " channels, got " + block.length);
+        }
+        double[] time = block[SignalColumn.TIME.ordinal()];
+        double[] message = block[SignalColumn.MESSAGE.ordinal()];
+        double[] carrier = block[SignalColumn.CARRIER.ordinal()];
+        double[] modulated = block[SignalColumn.MODULATED.ordinal()];
+        double[] demodulated = block[SignalColumn.DEMODULATED.ordinal()];
+        double omega = 2 * Math.PI * carrierFreq;
+
+        for (int i = 0; i < length; i++) {
+            double t = (sampleIndex + i) * dt;
+            time[i] = t;
+            carrier[i] = Math.cos(omega * t);
+            if (hilbertFilter == null) {
+                message[i] = generator.message(t) + generator.noise();
+            }
+        }
+
+        double[] hilbert = null;
+        if (hilbertFilter != null) {
+            if (hilbertBlock.length < length) {
+                hilbertBlock = new double[length];
+            }
+            hilbert = hilbertBlock;
+            for (int i = 0; i < length; i++) {
+                if (ssbCursor == ssbFactor) {
+                    nextSsbFrame();
+                }
+                message[i] = ssbI[ssbCursor];
+                hilbert[i] = ssbQ[ssbCursor];
+                ssbCursor++;
+            }
+        }
+        ModulationAndDemodulation.modulate(variant, message, hilbert, modulated, length, sampleIndex, dt, carrierFreq,
+                modulationIndex, phaseShift);
+        if (vsbFilter != null) {
+            vsbFilter.process(modulated, 0, modulated, 0, length);
+        }
+
+        if (demodulationType.equals("Coherent")) {
+            loop.process(modulated, 0, demodulated, 0, length);
+            lowPass(demodulated, length);
+        } else if (demodulationType.equals("Non-Coherent")) {
+            for (int i = 0; i < length; i++) {
+                demodulated[i] = Math.abs(modulated[i]);
+            }
+            lowPass(demodulated, length);
+        } else {
+            Arrays.fill(demodulated, 0, length, 0);
+        }
+        sampleIndex += length;
+    }
+
+    /**
+     * Generates totalSamples samples in blocks and writes each block to the sink as soon as it is ready.
+     * The sink is not closed.
+     *
+     * @param totalSamples Number of samples to generate
+     * @param blockSize    Samples per block
+     * @param sink         Destination of the blocks
+     * @throws IOException if the sink fails
+     */
+    public void run(long totalSamples, int blockSize, SignalBlockSink sink) throws IOException {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        double[][] block = new double[COLUMNS.length][blockSize];
+        long remaining = totalSamples;
+        while (remaining > 0) {
+            int length = (int) Math.min(blockSize, remaining);
+            nextBlock(block, length);
+            sink.write(block, 0, length);
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Produces the next SSB frame: one low-rate message sample and its Hilbert transform, interpolated to
+     * ssbFactor full-rate samples. The in-phase path is delayed to match the Hilbert filter.
+     */
+    private void nextSsbFrame() {
+        double x = generator.message(ssbInputIndex * ssbFactor * dt) + generator.noise();
+        ssbInputIndex++;
+        scratch[0] = x;
+        hilbertFilter.process(scratch, 0, scratch, 0, 1);
+        double q = scratch[0];
+        ssbDelayLine[ssbDelayPosition] = x;
+        ssbDelayPosition = (ssbDelayPosition + 1) % ssbDelayLine.length;
+        double i = ssbDelayLine[ssbDelayPosition]; // Oldest entry: x delayed by the Hilbert group delay
+        scratch[0] = i;
+        ssbInPhase.process(scratch, 0, ssbI, 0, 1);
+        scratch[0] = q;
+        ssbQuadrature.process(scratch, 0, ssbQ, 0, 1);
+        ssbCursor = 0;
+    }
+
+    /**
+     * Applies the same one-pole low-pass as the batch demodulators, continuing across blocks.
+     */
+    private void lowPass(double[] signal, int length) {
+        int start = 0;
+        if (sampleIndex == 0 && length > 0) {
+            lastFiltered = signal[0];
+            start = 1;
+        }
+        lastFiltered = ModulationAndDemodulation.lowPass(signal, signal, start, length, filterAlpha, lastFiltered);
+    }
+
+    /**
+     * Gets the sample rate.
+     * @return sample rate in Hz
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Gets the number of samples generated so far.
+     * @return sample count
+     */
+    public long getSamplesGenerated() {
+        return sampleIndex;
+    }
+
+    /**
+     * Gets the carrier recovery lock time.
+     * @return lock time in seconds, or NaN if not coherently demodulated or not locked
+     */
+    public double getCarrierLockTime() {
+        return loop != null ? loop.getLockTime() : Double.NaN;
+    }
+
+    /**
+     * Gets the RMS phase error of the carrier recovery loop while locked.
+     * @return RMS phase error in radians, or NaN if not coherently demodulated or not locked
+     */
+    public double getCarrierPhaseErrorRms() {
+        return loop != null ? loop.getPhaseErrorRms() : Double.NaN;
+    }
+}
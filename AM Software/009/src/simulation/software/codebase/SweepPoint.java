@@ -0,0 +1,97 @@
+package simulation.software.codebase;
+
+import java.util.logging.Level;
+
+/**
+ * One configuration of a parameter sweep (see {@link SweepSpecification}), with the settings shared by all of them.
+ */
+public final class SweepPoint {
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(SweepPoint.class);
+    private final String variant;
+    private final String demodulationType;
+    private final double carrierFreq;
+    private final double modulationIndex;
+    private final double noiseAmplitude;
+    private final int samples;
+    private final SweepSpecification specification;
+
+    SweepPoint(String variant, String demodulationType, double carrierFreq, double modulationIndex,
+               double noiseAmplitude, int samples, SweepSpecification specification) {
+        this.variant = variant;
+        this.demodulationType = demodulationType;
+        this.carrierFreq = carrierFreq;
+        this.modulationIndex = modulationIndex;
+        this.noiseAmplitude = noiseAmplitude;
+        this.samples = samples;
+        this.specification = specification;
+    }
+
+    /**
+     * Simulates the configuration and analyzes the result. Invalid combinations (e.g. a VSB carrier too close to the
+     * Nyquist frequency) and any other failure of the simulation are reported in the result instead of being thrown,
+     * so one bad point never aborts a sweep.
+     *
+     * @param noiseSeed Seed of the channel noise, or null for fresh noise
+     * @return THD, SNR and timing of this configuration
+     */
+    public SweepResult evaluate(Long noiseSeed) {
+        return evaluate(noiseSeed, null);
+    }
+
+    /**
+     * Simulates the configuration and analyzes the result, reusing the caller's working memory. Only the modulated
+     * signal, which is all the analyses read, is simulated, and it is written to the scratch, so repeated trials
+     * allocate no signal arrays.
+     *
+     * @param noiseSeed Seed of the channel noise, or null for fresh noise
+     * @param scratch   Working memory owned by the calling thread, or null to allocate it
+     * @return THD, SNR and timing of this configuration
+     */
+    public SweepResult evaluate(Long noiseSeed, SimulationScratch scratch) {
+        long started = System.nanoTime();
+        try {
+            double[] signal = ModulationAndDemodulation.modulatedTrial(variant, carrierFreq,
+                    specification.getMessageFrequencies(), specification.getMessageAmplitudes(), modulationIndex,
+                    specification.getPhaseShift(), specification.getWaveformType(), specification.getNoiseType(),
+                    noiseAmplitude, specification.getPulseDutyCycle(), samples, specification.getDuration(),
+                    specification.getFilterAlpha(), noiseSeed, scratch != null ? scratch : new SimulationScratch());
+            SimulationMetrics.recordSimulation(SimulationMetrics.PASSBAND, System.nanoTime() - started);
+            SignalBuffer modulated = new DoubleSignalBuffer(signal);
+            ComputedSignalBuffer time = ComputedSignalBuffer.time(samples, specification.getDuration() / samples);
+            long simulated = System.nanoTime();
+            double thd = new HarmonicDistortionAnalysis(modulated, time).getThdPercentage();
+            double snr = new SignalToNoiseAnalysis(modulated, time).getSnrDb();
+            return new SweepResult(this, thd, snr, simulated - started, System.nanoTime() - simulated, null);
+        } catch (IllegalArgumentException e) {
+            return new SweepResult(this, Double.NaN, Double.NaN, System.nanoTime() - started, 0, e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Sweep point " + variant + " / " + demodulationType + " at " + carrierFreq
+                    + " Hz, m = " + modulationIndex + " failed", e);
+            return new SweepResult(this, Double.NaN, Double.NaN, System.nanoTime() - started, 0, e.toString());
+        }
+    }
+
+    /**
+     * Simulates the configuration into a full signal, e.g. for export.
+     *
+     * @param noiseSeed Seed of the channel noise, or null for fresh noise
+     * @return simulated signal
+     * @throws IllegalArgumentException if the configuration cannot be simulated
+     */
+    public AMSignal toSignal(Long noiseSeed) {
+        SimulationOptions options = new SimulationOptions();
+        options.setNoiseSeed(noiseSeed);
+        return new AMSignal(variant, carrierFreq, specification.getMessageFrequencies(),
+                specification.getMessageAmplitudes(), modulationIndex, specification.getPhaseShift(),
+                specification.getWaveformType(), specification.getNoiseType(), noiseAmplitude, demodulationType,
+                specification.getPulseDutyCycle(), samples, specification.getDuration(),
+                specification.getFilterAlpha(), options);
+    }
+
+    public String getVariant() { return variant; }
+    public String getDemodulationType() { return demodulationType; }
+    public double getCarrierFrequency() { return carrierFreq; }
+    public double getModulationIndex() { return modulationIndex; }
+    public double getNoiseAmplitude() { return noiseAmplitude; }
+    public int getSamples() { return samples; }
+}
@@ -0,0 +1,37 @@
+package simulation.software.codebase;
+
+/**
+ * Outcome of one {@link SweepPoint}: the THD and SNR of the simulated signal and the time spent on it.
+ */
+public final class SweepResult {
+    private final SweepPoint point;
+    private final double thdPercentage;
+    private final double snrDb;
+    private final long simulationNanos;
+    private final long analysisNanos;
+    private final String error;
+
+    SweepResult(SweepPoint point, double thdPercentage, double snrDb, long simulationNanos, long analysisNanos,
+                String error) {
+        this.point = point;
+        this.thdPercentage = thdPercentage;
+        this.snrDb = snrDb;
+        this.simulationNanos = simulationNanos;
+        this.analysisNanos = analysisNanos;
+        this.error = error;
+    }
+
+    public SweepPoint getPoint() { return point; }
+    public double getThdPercentage() { return thdPercentage; }
+    public double getSnrDb() { return snrDb; }
+    public long getSimulationNanos() { return simulationNanos; }
+    public long getAnalysisNanos() { return analysisNanos; }
+
+    /**
+     * Gets the reason the configuration could not be simulated.
+     * @return error message, or null if the simulation succeeded
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,272 @@
+package simulation.software.codebase;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes sweep results as a table, one row per {@link SweepResult} or per {@link TrialSummary}, in CSV or a compact
+ * little-endian binary form. A file holds one kind of row; the header follows the first row written.
+ * <p>
+ * Binary layout: an 8-byte header (magic "AMSW", version, row kind: 0 for results, 1 for trial summaries) followed by
+ * one record per row. Both kinds start with variant and demodulation (u8 length + UTF-8), carrier frequency,
+ * modulation index and noise amplitude (f64) and samples (i32). Results continue with THD and SNR (f64), simulation
+ * and analysis time in nanoseconds (i64) and the error message (u16 length + UTF-8, empty on success). Trial
+ * summaries continue with trials and failures (i32), mean, standard deviation, minimum and maximum of THD and of SNR
+ * (f64), mean simulation time in milliseconds (f64) and the first error message.
+ */
+public abstract class SweepResultWriter implements Closeable {
+    /** Magic number at the start of binary result files ("AMSW"). */
+    public static final int BINARY_MAGIC = 0x57534D41;
+    /** Version of the binary result layout. */
+    public static final short BINARY_VERSION = 1;
+    /** Binary row kind of {@link SweepResult} rows. */
+    public static final short ROW_KIND_RESULT = 0;
+    /** Binary row kind of {@link TrialSummary} rows. */
+    public static final short ROW_KIND_TRIAL_SUMMARY = 1;
+
+    private static final String CSV_POINT_HEADER =
+            "variant,demodulation,carrier_hz,modulation_index,noise_amplitude,samples,";
+    private static final String CSV_RESULT_HEADER = CSV_POINT_HEADER
+            + "thd_percent,snr_db,simulation_ms,analysis_ms,error";
+    private static final String CSV_TRIAL_HEADER = CSV_POINT_HEADER + "trials,failures,"
+            + "thd_mean,thd_stddev,thd_min,thd_max,snr_mean,snr_stddev,snr_min,snr_max,simulation_ms_mean,error";
+
+    private short rowKind = -1;
+
+    /**
+     * Writes one result row.
+     *
+     * @param result Result to write
+     * @throws IOException if the row cannot be written
+     * @throws IllegalStateException if trial summaries were written before
+     */
+    public void write(SweepResult result) throws IOException {
+        startRows(ROW_KIND_RESULT);
+        writeResult(result);
+    }
+
+    /**
+     * Writes one trial summary row.
+     *
+     * @param summary Summary to write
+     * @throws IOException if the row cannot be written
+     * @throws IllegalStateException if results were written before
+     */
+    public void write(TrialSummary summary) throws IOException {
+        startRows(ROW_KIND_TRIAL_SUMMARY);
+        writeTrialSummary(summary);
+    }
+
+    /**
+     * Writes the header (an empty file gets the result header), then closes the output.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowKind < 0) {
+                startRows(ROW_KIND_RESULT);
+            }
+        } finally {
+            closeOutput();
+        }
+    }
+
+    abstract void writeHeader(short kind) throws IOException;
+
+    abstract void writeResult(SweepResult result) throws IOException;
+
+    abstract void writeTrialSummary(TrialSummary summary) throws IOException;
+
+    abstract void closeOutput() throws IOException;
+
+    private void startRows(short kind) throws IOException {
+        if (rowKind == kind) {
+            return;
+        }
+        if (rowKind >= 0) {
+            throw new IllegalStateException("Results and trial summaries cannot be mixed in one file");
+        }
+        writeHeader(kind);
+        rowKind = kind;
+    }
+
+    /**
+     * Opens a CSV result writer.
+     *
+     * @param path Output file (created or truncated)
+     * @return result writer
+     * @throws IOException if the file cannot be opened
+     */
+    public static SweepResultWriter csv(Path path) throws IOException {
+        return new Csv(path);
+    }
+
+    /**
+     * Opens a binary result writer.
+     *
+     * @param path Output file (created or truncated)
+     * @return result writer
+     * @throws IOException if the file cannot be opened
+     */
+    public static SweepResultWriter binary(Path path) throws IOException {
+        return new Binary(path);
+    }
+
+    private static final class Csv extends SweepResultWriter {
+        private final BufferedWriter writer;
+
+        Csv(Path path) throws IOException {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        void writeHeader(short kind) throws IOException {
+            writer.write(kind == ROW_KIND_RESULT ? CSV_RESULT_HEADER : CSV_TRIAL_HEADER);
+            writer.newLine();
+        }
+
+        @Override
+        void writeResult(SweepResult result) throws IOException {
+            // Double.toString is locale-independent and round-trips, unlike String.format
+            writePoint(result.getPoint());
+            writer.write(result.getThdPercentage() + "," + result.getSnrDb() + ","
+                    + result.getSimulationNanos() / 1e6 + "," + result.getAnalysisNanos() / 1e6 + ",");
+            writeError(result.getError());
+        }
+
+        @Override
+        void writeTrialSummary(TrialSummary summary) throws IOException {
+            writePoint(summary.getPoint());
+            writer.write(summary.getTrials() + "," + summary.getFailures() + ",");
+            writeStatistics(summary.getThdStatistics());
+            writeStatistics(summary.getSnrStatistics());
+            writer.write(summary.getSimulationMillisStatistics().getMean() + ",");
+            writeError(summary.getFirstError());
+        }
+
+        private void writePoint(SweepPoint point) throws IOException {
+            writer.write(point.getVariant() + "," + point.getDemodulationType() + "," + point.getCarrierFrequency()
+                    + "," + point.getModulationIndex() + "," + point.getNoiseAmplitude() + "," + point.getSamples()
+                    + ",");
+        }
+
+        private void writeStatistics(RunningStatistics statistics) throws IOException {
+            writer.write(statistics.getMean() + "," + statistics.getStandardDeviation() + "," + statistics.getMin()
+                    + "," + statistics.getMax() + ",");
+        }
+
+        private void writeError(String error) throws IOException {
+            if (error != null) {
+                writer.write("\"" + error.replace("\"", "\"\"") + "\"");
+            }
+            writer.newLine();
+        }
+
+        @Override
+        void closeOutput() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class Binary extends SweepResultWriter {
+        private static final int BUFFER_SIZE = 1 << 16;
+        private static final int MAX_ROW_SIZE = 2 * 256 + 3 * 8 + 4 + 2 * 4 + 9 * 8 + 2 + 0xFFFF;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE + MAX_ROW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        Binary(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        @Override
+        void writeHeader(short kind) {
+            buffer.putInt(BINARY_MAGIC);
+            buffer.putShort(BINARY_VERSION);
+            buffer.putShort(kind);
+        }
+
+        @Override
+        void writeResult(SweepResult result) throws IOException {
+            putPoint(result.getPoint());
+            buffer.putDouble(result.getThdPercentage());
+            buffer.putDouble(result.getSnrDb());
+            buffer.putLong(result.getSimulationNanos());
+            buffer.putLong(result.getAnalysisNanos());
+            putString(result.getError() == null ? "" : result.getError(), 0xFFFF, true);
+            if (buffer.position() >= BUFFER_SIZE) {
+                drain();
+            }
+        }
+
+        @Override
+        void writeTrialSummary(TrialSummary summary) throws IOException {
+            putPoint(summary.getPoint());
+            buffer.putInt(summary.getTrials());
+            buffer.putInt(summary.getFailures());
+            putStatistics(summary.getThdStatistics());
+            putStatistics(summary.getSnrStatistics());
+            buffer.putDouble(summary.getSimulationMillisStatistics().getMean());
+            putString(summary.getFirstError() == null ? "" : summary.getFirstError(), 0xFFFF, true);
+            if (buffer.position() >= BUFFER_SIZE) {
+                drain();
+            }
+        }
+
+        private void putPoint(SweepPoint point) {
+            putString(point.getVariant(), 0xFF, false);
+            putString(point.getDemodulationType(), 0xFF, false);
+            buffer.putDouble(point.getCarrierFrequency());
+            buffer.putDouble(point.getModulationIndex());
+            buffer.putDouble(point.getNoiseAmplitude());
+            buffer.putInt(point.getSamples());
+        }
+
+        private void putStatistics(RunningStatistics statistics) {
+            buffer.putDouble(statistics.getMean());
+            buffer.putDouble(statistics.getStandardDeviation());
+            buffer.putDouble(statistics.getMin());
+            buffer.putDouble(statistics.getMax());
+        }
+
+        /**
+         * Writes a length-prefixed UTF-8 string, truncated to the largest length the prefix can hold.
+         */
+        private void putString(String value, int maxLength, boolean wide) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, maxLength);
+            if (wide) {
+                buffer.putShort((short) length);
+            } else {
+                buffer.put((byte) length);
+            }
+            buffer.put(bytes, 0, length);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        void closeOutput() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
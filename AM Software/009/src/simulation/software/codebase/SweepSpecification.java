@@ -0,0 +1,210 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Parameter sweep read from a properties file. The swept keys take a comma-separated list of values or an inclusive
+ * range written start:stop:step; every combination becomes one {@link SweepPoint}. The remaining keys are shared by
+ * all points. Missing keys take the control panel's initial settings, except that the noise type defaults to
+ * Gaussian so that a noise amplitude sweep has an effect.
+ * <pre>
+ * variants = DSB-AM, SSB, VSB
+ * demodulations = Coherent, Non-Coherent
+ * carrierFrequencies = 500:2000:250
+ * modulationIndices = 0.25, 0.5, 1
+ * noiseAmplitudes = 0:0.2:0.05
+ * samples = 4096, 16384
+ * # Shared settings
+ * messageFrequencies = 100, 200
+ * messageAmplitudes = 1, 0.5
+ * waveform = Sine
+ * noiseType = Gaussian
+ * seed = 42
+ * </pre>
+ */
+public final class SweepSpecification {
+    private static final double RANGE_EPSILON = 1e-9;
+
+    private final List<String> variants;
+    private final List<String> demodulationTypes;
+    private final double[] carrierFrequencies;
+    private final double[] modulationIndices;
+    private final double[] noiseAmplitudes;
+    private final int[] samples;
+    private final double[] messageFrequencies;
+    private final double[] messageAmplitudes;
+    private final String waveformType;
+    private final String noiseType;
+    private final double phaseShift;
+    private final double pulseDutyCycle;
+    private final double duration;
+    private final double filterAlpha;
+    private final Long noiseSeed;
+
+    /**
+     * Constructor for SweepSpecification.
+     *
+     * @param properties Sweep settings
+     * @throws IllegalArgumentException if a value cannot be parsed or a swept key is empty
+     */
+    public SweepSpecification(Properties properties) {
+        variants = strings(properties, "variants", "DSB-AM");
+        demodulationTypes = strings(properties, "demodulations", "Coherent");
+        carrierFrequencies = numbers(properties, "carrierFrequencies", "1000");
+        modulationIndices = numbers(properties, "modulationIndices", "0.5");
+        noiseAmplitudes = numbers(properties, "noiseAmplitudes", "0.1");
+        double[] sampleCounts = numbers(properties, "samples", "4096");
+        samples = new int[sampleCounts.length];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (int) sampleCounts[i];
+            if (samples[i] != sampleCounts[i]) {
+                throw new IllegalArgumentException("Sample counts must be integers: " + sampleCounts[i]);
+            }
+        }
+        messageFrequencies = numbers(properties, "messageFrequencies", "100, 200");
+        messageAmplitudes = numbers(properties, "messageAmplitudes", "1, 1");
+        waveformType = properties.getProperty("waveform", "Sine").trim();
+        noiseType = properties.getProperty("noiseType", "Gaussian").trim();
+        phaseShift = number(properties, "phaseShift", "90");
+        pulseDutyCycle = number(properties, "pulseDutyCycle", "50");
+        duration = number(properties, "duration", "0.05");
+        filterAlpha = number(properties, "filterAlpha", "0.1");
+        String seed = properties.getProperty("seed");
+        try {
+            noiseSeed = seed == null || seed.isBlank() ? null : Long.valueOf(seed.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid seed: " + seed);
+        }
+    }
+
+    /**
+     * Reads a specification from a properties file.
+     *
+     * @param path Properties file (UTF-8)
+     * @return sweep specification
+     * @throws IOException if the file cannot be read
+     */
+    public static SweepSpecification load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return new SweepSpecification(properties);
+    }
+
+    /**
+     * Expands the sweep into its combinations, varying the sample count fastest and the variant slowest.
+     * @return sweep points in a fixed order
+     */
+    public List<SweepPoint> points() {
+        List<SweepPoint> points = new ArrayList<>(size());
+        for (String variant : variants) {
+            for (String demodulation : demodulationTypes) {
+                for (double carrier : carrierFrequencies) {
+                    for (double index : modulationIndices) {
+                        for (double noise : noiseAmplitudes) {
+                            for (int n : samples) {
+                                points.add(new SweepPoint(variant, demodulation, carrier, index, noise, n, this));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Counts the combinations.
+     * @return number of sweep points
+     */
+    public int size() {
+        long size = (long) variants.size() * demodulationTypes.size() * carrierFrequencies.length
+                * modulationIndices.length * noiseAmplitudes.length * samples.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sweep has too many combinations: " + size);
+        }
+        return (int) size;
+    }
+
+    private static List<String> strings(Properties properties, String key, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : properties.getProperty(key, defaultValue).split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No values for " + key);
+        }
+        return values;
+    }
+
+    /**
+     * Parses a list of numbers, expanding start:stop:step ranges.
+     */
+    private static double[] numbers(Properties properties, String key, String defaultValue) {
+        List<Double> values = new ArrayList<>();
+        for (String item : strings(properties, key, defaultValue)) {
+            try {
+                String[] range = item.split(":");
+                if (range.length == 1) {
+                    values.add(Double.parseDouble(item));
+                } else if (range.length == 3) {
+                    double start = Double.parseDouble(range[0].trim());
+                    double stop = Double.parseDouble(range[1].trim());
+                    double step = Double.parseDouble(range[2].trim());
+                    if (!(step > 0) || stop < start) {
+                        throw new IllegalArgumentException("Range " + item + " of " + key + " needs start <= stop and a positive step");
+                    }
+                    // Multiplying instead of accumulating keeps the last value on the stop when it is a whole step away
+                    long count = (long) Math.floor((stop - start) / step * (1 + RANGE_EPSILON) + RANGE_EPSILON) + 1;
+                    for (long i = 0; i < count; i++) {
+                        values.add(start + i * step);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Invalid value " + item + " for " + key);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number " + item + " for " + key);
+            }
+        }
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private static double number(Properties properties, String key, String defaultValue) {
+        double[] values = numbers(properties, key, defaultValue);
+        if (values.length != 1) {
+            throw new IllegalArgumentException(key + " takes a single value");
+        }
+        return values[0];
+    }
+
+    public double[] getMessageFrequencies() { return messageFrequencies; }
+    public double[] getMessageAmplitudes() { return messageAmplitudes; }
+    public String getWaveformType() { return waveformType; }
+    public String getNoiseType() { return noiseType; }
+    public double getPhaseShift() { return phaseShift; }
+    public double getPulseDutyCycle() { return pulseDutyCycle; }
+    public double getDuration() { return duration; }
+    public double getFilterAlpha() { return filterAlpha; }
+
+    /**
+     * Gets the noise seed shared by every point, so points differ only in their swept parameters.
+     * @return noise seed, or null for fresh noise per point
+     */
+    public Long getNoiseSeed() {
+        return noiseSeed;
+    }
+}
@@ -4,8 +4,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Window for real-time time-domain simulation of AM signals.
@@ -19,7 +19,9 @@ public class TimeDomainSimulationWindow extends JFrame {
     private int windowSize;
     private int currentOffset = 0;
     private Timer animationTimer;
-    private static List<WeakReference<TimeDomainSimulationWindow>> openWindows = new ArrayList<>();
+    private final RenderStatistics renderStatistics = new RenderStatistics(1000 / 60);
+    private boolean hudVisible;
+    private static List<WeakReference<TimeDomainSimulationWindow>> openWindows = new CopyOnWriteArrayList<>(); // Also read by the metrics endpoint
 
     /**
      * Constructor for TimeDomainSimulationWindow.
@@ -30,12 +32,12 @@ public class TimeDomainSimulationWindow extends JFrame {
     public TimeDomainSimulationWindow(AMSignal signal, String variant) {
         this.signal = signal;
         this.variant = variant;
-        if (signal == null || signal.getTime() == null || signal.getTime().length == 0) {
+        if (signal == null || signal.getTimeBuffer().length() == 0) {
             JOptionPane.showMessageDialog(null, "Invalid or empty signal data.", "Error", JOptionPane.ERROR_MESSAGE);
             dispose();
             return;
         }
-        this.windowSize = signal.getTime().length / 4; // Show 1/4 of the signal
+        this.windowSize = signal.getTimeBuffer().length() / 4; // Show 1/4 of the signal
         openWindows.add(new WeakReference<>(this));
 
         setTitle(variant + " Time-Domain Simulation");
@@ -53,7 +55,12 @@ public class TimeDomainSimulationWindow extends JFrame {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                drawTimePlot(g);
+                long paintStart = renderStatistics.beginPaint();
+                PaintEvent.record("TimeDomainSimulationWindow", () -> drawTimePlot(g));
+                renderStatistics.endPaint(paintStart);
+                if (hudVisible) {
+                    renderStatistics.paintHud(g, 55, 55);
+                }
             }
         };
         plotPanel.setBackground(new Color(60, 60, 60));
@@ -84,6 +91,17 @@ public class TimeDomainSimulationWindow extends JFrame {
         });
         controlPanel.add(zoomOutButton);
 
+        JToggleButton hudButton = new JToggleButton("HUD");
+        hudButton.setBackground(new Color(80, 80, 80));
+        hudButton.setForeground(new Color(180, 180, 180));
+        hudButton.setFont(new Font("Bahnschrift", Font.BOLD, 13));
+        hudButton.setToolTipText("Show frame rate, paint time, dropped ticks and event queue latency");
+        hudButton.addActionListener(e -> {
+            hudVisible = hudButton.isSelected();
+            repaint();
+        });
+        controlPanel.add(hudButton);
+
         mainPanel.add(controlPanel, BorderLayout.SOUTH);
 
         // Mouse interaction
@@ -114,15 +132,18 @@ public class TimeDomainSimulationWindow extends JFrame {
 
         // Animation timer (60 FPS)
         animationTimer = new Timer(1000 / 60, e -> {
-            currentOffset = (currentOffset + 10) % (signal.getTime().length - windowSize);
+            renderStatistics.tick();
+            currentOffset = (currentOffset + 10) % (signal.getTimeBuffer().length() - windowSize);
             repaint();
         });
         animationTimer.start();
+        renderStatistics.startProbe();
 
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
                 animationTimer.stop();
+                renderStatistics.stopProbe();
                 openWindows.removeIf(ref -> ref.get() == null || ref.get() == TimeDomainSimulationWindow.this);
             }
         });
@@ -133,8 +154,10 @@ public class TimeDomainSimulationWindow extends JFrame {
 
     /**
      * Draws the animated time-domain plot.
+     *
+     * @return number of signal points plotted
      */
-    private void drawTimePlot(Graphics g) {
+    private int drawTimePlot(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -142,14 +165,15 @@ public class TimeDomainSimulationWindow extends JFrame {
             g2d.setColor(new Color(180, 180, 180));
             g2d.setFont(new Font("Bahnschrift", Font.BOLD, 14));
             g2d.drawString("No signal data", getWidth() / 2 - 50, getHeight() / 2);
-            return;
+            return 0;
         }
 
-        double[] time = signal.getTime();
-        double[] message = signal.getMessage();
-        double[] carrier = signal.getCarrier();
-        double[] modulated = signal.getSignal();
-        double[] demodulated = signal.getDemodulatedSignal();
+        // Read the stored buffers directly; widening them to arrays on every frame would copy the whole signal
+        SignalBuffer time = signal.getTimeBuffer();
+        SignalBuffer message = signal.getMessageBuffer();
+        SignalBuffer carrier = signal.getCarrierBuffer();
+        SignalBuffer modulated = signal.getSignalBuffer();
+        SignalBuffer demodulated = signal.getDemodulatedBuffer();
 
         int width = getWidth();
         int height = getHeight();
@@ -157,12 +181,12 @@ public class TimeDomainSimulationWindow extends JFrame {
 
         // Compute max amplitude for dynamic scaling
         double maxAmplitude = 1.0;
-        for (int i = currentOffset; i < currentOffset + windowSize && i < time.length; i++) {
-            maxAmplitude = Math.max(maxAmplitude, Math.abs(message[i]));
-            maxAmplitude = Math.max(maxAmplitude, Math.abs(carrier[i]));
-            maxAmplitude = Math.max(maxAmplitude, Math.abs(modulated[i]));
-            if (demodulated[i] != 0) {
-                maxAmplitude = Math.max(maxAmplitude, Math.abs(demodulated[i]));
+        for (int i = currentOffset; i < currentOffset + windowSize && i < time.length(); i++) {
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(message.get(i)));
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(carrier.get(i)));
+            maxAmplitude = Math.max(maxAmplitude, Math.abs(modulated.get(i)));
+            if (demodulated.get(i) != 0) {
+                maxAmplitude = Math.max(maxAmplitude, Math.abs(demodulated.get(i)));
             }
         }
         if (maxAmplitude == 0) maxAmplitude = 1.0;
@@ -170,21 +194,13 @@ public class TimeDomainSimulationWindow extends JFrame {
         // Downsample for performance
         int displayPoints = Math.min(windowSize, 1000);
         int step = Math.max(1, (int) Math.ceil((double) windowSize / displayPoints));
-        double[] sampledTime = new double[displayPoints];
-        double[] sampledMessage = new double[displayPoints];
-        double[] sampledCarrier = new double[displayPoints];
-        double[] sampledModulated = new double[displayPoints];
-        double[] sampledDemodulated = new double[displayPoints];
-        for (int i = 0; i < displayPoints; i++) {
-            int idx = currentOffset + i * step;
-            if (idx < time.length) {
-                sampledTime[i] = time[idx];
-                sampledMessage[i] = message[idx];
-                sampledCarrier[i] = carrier[idx];
-                sampledModulated[i] = modulated[idx];
-                sampledDemodulated[i] = demodulated[idx];
-            }
-        }
+        // Strided views of the animated window, clipped to the end of the signal
+        int remaining = time.length() - currentOffset;
+        displayPoints = Math.min(displayPoints, (remaining + step - 1) / step);
+        SignalView sampledMessage = SignalView.of(message).slice(currentOffset, remaining).decimate(step).slice(0, displayPoints);
+        SignalView sampledCarrier = SignalView.of(carrier).slice(currentOffset, remaining).decimate(step).slice(0, displayPoints);
+        SignalView sampledModulated = SignalView.of(modulated).slice(currentOffset, remaining).decimate(step).slice(0, displayPoints);
+        SignalView sampledDemodulated = SignalView.of(demodulated).slice(currentOffset, remaining).decimate(step).slice(0, displayPoints);
 
         // Draw white grid
         g2d.setColor(Color.WHITE);
@@ -212,9 +228,9 @@ public class TimeDomainSimulationWindow extends JFrame {
         // Draw axis labels
         g2d.setFont(new Font("Bahnschrift", Font.PLAIN, 12));
         g2d.setColor(new Color(180, 180, 180));
-        double maxTime = time[Math.min(currentOffset + windowSize - 1, time.length - 1)] - time[currentOffset];
+        double maxTime = time.get(Math.min(currentOffset + windowSize - 1, time.length() - 1)) - time.get(currentOffset);
         for (int i = 0; i <= numVertical; i++) {
-            double t = time[currentOffset] + i * maxTime / numVertical;
+            double t = time.get(currentOffset) + i * maxTime / numVertical;
             double x = margin + (i * (width - 2 * margin) / (double) numVertical + pan) * zoom;
             int xInt = (int) Math.round(x);
             if (xInt >= margin && xInt <= width - margin) {
@@ -232,8 +248,8 @@ public class TimeDomainSimulationWindow extends JFrame {
         for (int i = 0; i < displayPoints - 1; i++) {
             double x1 = margin + ((i / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
             double x2 = margin + (((i + 1) / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
-            double y1 = height / 2.0 - (sampledMessage[i] / maxAmplitude * (height / 4.0));
-            double y2 = height / 2.0 - (sampledMessage[i + 1] / maxAmplitude * (height / 4.0));
+            double y1 = height / 2.0 - (sampledMessage.get(i) / maxAmplitude * (height / 4.0));
+            double y2 = height / 2.0 - (sampledMessage.get(i + 1) / maxAmplitude * (height / 4.0));
             int x1Int = (int) Math.round(x1);
             int x2Int = (int) Math.round(x2);
             int y1Int = (int) Math.round(y1);
@@ -249,8 +265,8 @@ public class TimeDomainSimulationWindow extends JFrame {
         for (int i = 0; i < displayPoints - 1; i++) {
             double x1 = margin + ((i / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
             double x2 = margin + (((i + 1) / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
-            double y1 = height / 2.0 - (sampledCarrier[i] / maxAmplitude * (height / 4.0));
-            double y2 = height / 2.0 - (sampledCarrier[i + 1] / maxAmplitude * (height / 4.0));
+            double y1 = height / 2.0 - (sampledCarrier.get(i) / maxAmplitude * (height / 4.0));
+            double y2 = height / 2.0 - (sampledCarrier.get(i + 1) / maxAmplitude * (height / 4.0));
             int x1Int = (int) Math.round(x1);
             int x2Int = (int) Math.round(x2);
             int y1Int = (int) Math.round(y1);
@@ -266,8 +282,8 @@ public class TimeDomainSimulationWindow extends JFrame {
         for (int i = 0; i < displayPoints - 1; i++) {
             double x1 = margin + ((i / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
             double x2 = margin + (((i + 1) / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
-            double y1 = height / 2.0 - (sampledModulated[i] / maxAmplitude * (height / 4.0));
-            double y2 = height / 2.0 - (sampledModulated[i + 1] / maxAmplitude * (height / 4.0));
+            double y1 = height / 2.0 - (sampledModulated.get(i) / maxAmplitude * (height / 4.0));
+            double y2 = height / 2.0 - (sampledModulated.get(i + 1) / maxAmplitude * (height / 4.0));
             int x1Int = (int) Math.round(x1);
             int x2Int = (int) Math.round(x2);
             int y1Int = (int) Math.round(y1);
@@ -279,13 +295,13 @@ public class TimeDomainSimulationWindow extends JFrame {
         }
 
         // Plot demodulated signal
-        if (demodulated != null && demodulated.length > 0 && demodulated[0] != 0) {
+        if (demodulated.length() > 0 && demodulated.get(0) != 0) {
             g2d.setColor(Color.YELLOW);
             for (int i = 0; i < displayPoints - 1; i++) {
                 double x1 = margin + ((i / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
                 double x2 = margin + (((i + 1) / (double)(displayPoints - 1)) * (width - 2 * margin) + pan) * zoom;
-                double y1 = height / 2.0 - (sampledDemodulated[i] / maxAmplitude * (height / 4.0));
-                double y2 = height / 2.0 - (sampledDemodulated[i + 1] / maxAmplitude * (height / 4.0));
+                double y1 = height / 2.0 - (sampledDemodulated.get(i) / maxAmplitude * (height / 4.0));
+                double y2 = height / 2.0 - (sampledDemodulated.get(i + 1) / maxAmplitude * (height / 4.0));
                 int x1Int = (int) Math.round(x1);
                 int x2Int = (int) Math.round(x2);
                 int y1Int = (int) Math.round(y1);
@@ -296,6 +312,15 @@ public class TimeDomainSimulationWindow extends JFrame {
                 }
             }
         }
+        return displayPoints * (demodulated.length() > 0 && demodulated.get(0) != 0 ? 4 : 3);
+    }
+
+    /**
+     * Gets the frame statistics of this window's animation.
+     * @return render statistics
+     */
+    public RenderStatistics getRenderStatistics() {
+        return renderStatistics;
     }
 
     /**
@@ -313,9 +338,24 @@ public class TimeDomainSimulationWindow extends JFrame {
         openWindows.removeIf(ref -> ref.get() == null);
     }
 
+    /**
+     * Counts the open windows of this kind. Safe to call from any thread.
+     * @return number of open windows
+     */
+    public static int getOpenWindowCount() {
+        int count = 0;
+        for (WeakReference<TimeDomainSimulationWindow> ref : openWindows) {
+            if (ref.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public void dispose() {
         animationTimer.stop();
+        renderStatistics.stopProbe();
         openWindows.removeIf(ref -> ref.get() == null || ref.get() == this);
         super.dispose();
     }
@@ -3,15 +3,13 @@ package simulation.software.codebase;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * Window for displaying Total Harmonic Distortion (THD) analysis of AM signals.
  */
 public class TotalHarmonicDistortion extends JFrame {
-    private static final Logger LOGGER = Logger.getLogger(TotalHarmonicDistortion.class.getName());
-    private static final int WINDOW_SIZE = 1024; // FFT window size
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(TotalHarmonicDistortion.class);
     private AMSignal signal;
     private String variant;
     private double thdPercentage;
@@ -29,7 +27,7 @@ public class TotalHarmonicDistortion extends JFrame {
     public TotalHarmonicDistortion(AMSignal signal, String variant) {
         this.signal = signal;
         this.variant = variant;
-        if (signal == null || signal.getSignal() == null || signal.getSignal().length < WINDOW_SIZE) {
+        if (signal == null || signal.getSignalBuffer().length() < HarmonicDistortionAnalysis.WINDOW_SIZE) {
             LOGGER.warning("Invalid or insufficient signal data for THD analysis.");
             JOptionPane.showMessageDialog(null, "Invalid or insufficient signal data for THD analysis.", "Error", JOptionPane.ERROR_MESSAGE);
             dispose();
@@ -82,103 +80,38 @@ public class TotalHarmonicDistortion extends JFrame {
         add(mainPanel);
 
         // Compute THD
-        computeTHD();
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        HarmonicDistortionAnalysis analysis = new HarmonicDistortionAnalysis(signal);
+        event.end();
+        frequencies = analysis.getFrequencies();
+        magnitudes = analysis.getMagnitudes();
+        fundamentalFreq = analysis.getFundamentalFrequency();
+        harmonicMagnitudes = analysis.getHarmonicMagnitudes();
+        thdPercentage = analysis.getThdPercentage();
+        LOGGER.log(Level.FINE, "THD computed: {0,number,0.###}% for fundamental frequency {1,number,0.##} Hz", thdPercentage,
+                fundamentalFreq);
+        if (event.shouldCommit()) {
+            event.analysis = "THD";
+            event.variant = variant;
+            event.samples = Math.min(HarmonicDistortionAnalysis.WINDOW_SIZE, signal.getSignalBuffer().length());
+            event.result = thdPercentage;
+            event.commit();
+        }
         thdLabel.setText(String.format("THD: %.2f%%", thdPercentage));
 
         // Window closing event
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
-                LOGGER.info("TotalHarmonicDistortion window closed for " + variant);
+                LOGGER.log(Level.INFO, "TotalHarmonicDistortion window closed for {0}", variant);
             }
         });
 
-        LOGGER.info("TotalHarmonicDistortion window initialized for " + variant);
+        LOGGER.log(Level.INFO, "TotalHarmonicDistortion window initialized for {0}", variant);
         setVisible(true);
     }
 
-    /**
-     * Computes the THD based on the signal's FFT spectrum.
-     */
-    private void computeTHD() {
-        double[] modulatedSignal = signal.getSignal();
-        double duration = signal.getTime()[signal.getTime().length - 1];
-        int signalLength = modulatedSignal.length;
-
-        // Extract first window of signal
-        double[] windowedSignal = new double[WINDOW_SIZE];
-        for (int i = 0; i < WINDOW_SIZE && i < signalLength; i++) {
-            // Apply Hamming window
-            double window = 0.54 - 0.46 * Math.cos(2 * Math.PI * i / (WINDOW_SIZE - 1));
-            windowedSignal[i] = modulatedSignal[i] * window;
-        }
-
-        // Compute FFT
-        double samplingRate = signalLength / duration;
-        double[][] fftResult = computeFFT(windowedSignal, samplingRate);
-        frequencies = fftResult[0];
-        magnitudes = fftResult[1];
-
-        // Find fundamental frequency (strongest peak in plausible range)
-        fundamentalFreq = findFundamentalFrequency(frequencies, magnitudes);
-        if (fundamentalFreq == 0) {
-            LOGGER.warning("Could not identify fundamental frequency for THD.");
-            thdPercentage = 0;
-            harmonicMagnitudes = new double[0];
-            return;
-        }
-
-        // Identify harmonic magnitudes (up to 10th harmonic or Nyquist)
-        harmonicMagnitudes = new double[10];
-        double fundamentalMagnitude = 0;
-        double frequencyResolution = frequencies[1] - frequencies[0];
-        for (int i = 0; i < frequencies.length; i++) {
-            if (Math.abs(frequencies[i] - fundamentalFreq) < frequencyResolution) {
-                fundamentalMagnitude = magnitudes[i];
-            }
-            for (int h = 2; h <= 10; h++) {
-                if (Math.abs(frequencies[i] - h * fundamentalFreq) < frequencyResolution) {
-                    harmonicMagnitudes[h - 1] = magnitudes[i];
-                }
-            }
-        }
-
-        // Compute THD
-        double harmonicPowerSum = 0;
-        for (double mag : harmonicMagnitudes) {
-            harmonicPowerSum += mag * mag;
-        }
-        double fundamentalPower = fundamentalMagnitude * fundamentalMagnitude;
-        if (fundamentalPower == 0) {
-            thdPercentage = 0;
-        } else {
-            thdPercentage = Math.sqrt(harmonicPowerSum / fundamentalPower) * 100;
-        }
-
-        LOGGER.info("THD computed: " + thdPercentage + "% for fundamental frequency: " + fundamentalFreq + " Hz");
-    }
-
-    /**
-     * Finds the fundamental frequency by selecting the strongest peak in the spectrum.
-     */
-    private double findFundamentalFrequency(double[] frequencies, double[] magnitudes) {
-        double maxMagnitude = 0;
-        int maxIndex = 0;
-        double minFreq = 10.0; // Minimum plausible frequency (based on ControlPanel constraints)
-        double maxFreq = 5000.0; // Maximum plausible frequency
-        for (int i = 0; i < frequencies.length; i++) {
-            if (frequencies[i] >= minFreq && frequencies[i] <= maxFreq && magnitudes[i] > maxMagnitude) {
-                maxMagnitude = magnitudes[i];
-                maxIndex = i;
-            }
-        }
-
-        if (maxMagnitude > 0) {
-            return frequencies[maxIndex];
-        }
-        return 0; // No valid fundamental found
-    }
-
     /**
      * Draws the spectrum plot with fundamental and harmonic peaks highlighted.
      */
@@ -207,13 +140,9 @@ public class TotalHarmonicDistortion extends JFrame {
         // Downsample for performance
         int displayPoints = Math.min(frequencies.length, 1000);
         int step = Math.max(1, frequencies.length / displayPoints);
-        double[] sampledFreq = new double[displayPoints];
-        double[] sampledMag = new double[displayPoints];
-        for (int i = 0; i < displayPoints; i++) {
-            int idx = i * step;
-            sampledFreq[i] = frequencies[idx];
-            sampledMag[i] = magnitudes[idx];
-        }
+        // Strided views of the spectrum instead of copies
+        SignalView sampledFreq = SignalView.of(new DoubleSignalBuffer(frequencies)).decimate(step).slice(0, displayPoints);
+        SignalView sampledMag = SignalView.of(new DoubleSignalBuffer(magnitudes)).decimate(step).slice(0, displayPoints);
 
         // Draw grid
         g2d.setColor(Color.WHITE);
@@ -253,10 +182,10 @@ public class TotalHarmonicDistortion extends JFrame {
         // Plot spectrum
         g2d.setColor(Color.MAGENTA);
         for (int i = 0; i < displayPoints - 1; i++) {
-            int x1 = margin + (int) (sampledFreq[i] / maxFreq * (width - 2 * margin));
-            int x2 = margin + (int) (sampledFreq[i + 1] / maxFreq * (width - 2 * margin));
-            int y1 = height - margin - (int) (sampledMag[i] / maxMagnitude * (height / 2 - margin));
-            int y2 = height - margin - (int) (sampledMag[i + 1] / maxMagnitude * (height / 2 - margin));
+            int x1 = margin + (int) (sampledFreq.get(i) / maxFreq * (width - 2 * margin));
+            int x2 = margin + (int) (sampledFreq.get(i + 1) / maxFreq * (width - 2 * margin));
+            int y1 = height - margin - (int) (sampledMag.get(i) / maxMagnitude * (height / 2 - margin));
+            int y2 = height - margin - (int) (sampledMag.get(i + 1) / maxMagnitude * (height / 2 - margin));
             g2d.drawLine(x1, y1, x2, y2);
         }
 
@@ -264,118 +193,22 @@ public class TotalHarmonicDistortion extends JFrame {
         g2d.setFont(new Font("Bahnschrift", Font.BOLD, 12));
         double frequencyResolution = frequencies[1] - frequencies[0];
         for (int i = 0; i < displayPoints; i++) {
-            double freq = sampledFreq[i];
+            double freq = sampledFreq.get(i);
             if (Math.abs(freq - fundamentalFreq) < frequencyResolution) {
                 g2d.setColor(Color.GREEN);
                 int x = margin + (int) (freq / maxFreq * (width - 2 * margin));
-                int y = height - margin - (int) (sampledMag[i] / maxMagnitude * (height / 2 - margin));
+                int y = height - margin - (int) (sampledMag.get(i) / maxMagnitude * (height / 2 - margin));
                 g2d.drawString("F1: " + String.format("%.0f Hz", freq), x + 5, y - 5);
             }
             for (int h = 2; h <= 10; h++) {
                 if (Math.abs(freq - h * fundamentalFreq) < frequencyResolution && harmonicMagnitudes[h - 1] > 0) {
                     g2d.setColor(Color.RED);
                     int x = margin + (int) (freq / maxFreq * (width - 2 * margin));
-                    int y = height - margin - (int) (sampledMag[i] / maxMagnitude * (height / 2 - margin));
+                    int y = height - margin - (int) (sampledMag.get(i) / maxMagnitude * (height / 2 - margin));
                     g2d.drawString("H" + h + ": " + String.format("%.0f Hz", freq), x + 5, y - 5);
                 }
             }
         }
     }
 
-    /**
-     * Computes the FFT of a signal and returns frequency and magnitude arrays.
-     *
-     * @param signal       The input signal (time-domain)
-     * @param samplingRate The sampling rate in Hz
-     * @return A double[][] where result[0] is frequencies, result[1] is magnitudes
-     */
-    private double[][] computeFFT(double[] signal, double samplingRate) {
-        if (signal == null || signal.length == 0) {
-            LOGGER.warning("Invalid signal for FFT computation");
-            throw new IllegalArgumentException("Signal cannot be null or empty");
-        }
-
-        int n = signal.length;
-        // Ensure power of 2 for FFT (pad with zeros if needed)
-        int fftSize = 1;
-        while (fftSize < n) {
-            fftSize <<= 1;
-        }
-        double[] paddedSignal = new double[fftSize];
-        System.arraycopy(signal, 0, paddedSignal, 0, n);
-
-        // Compute FFT
-        Complex[] fft = new Complex[fftSize];
-        for (int i = 0; i < fftSize; i++) {
-            fft[i] = new Complex(i < n ? paddedSignal[i] : 0, 0);
-        }
-        fft = fft(fft); // Recursive FFT
-
-        // Compute frequencies and magnitudes
-        double[] frequencies = new double[fftSize / 2];
-        double[] magnitudes = new double[fftSize / 2];
-        double nyquist = samplingRate / 2.0;
-        for (int i = 0; i < fftSize / 2; i++) {
-            frequencies[i] = i * nyquist / (fftSize / 2.0);
-            magnitudes[i] = fft[i].abs() / fftSize * 2; // Normalize
-        }
-
-        LOGGER.info("FFT computed for signal of length " + n);
-        return new double[][]{frequencies, magnitudes};
-    }
-
-    // Helper FFT implementation (Cooley-Tukey)
-    private Complex[] fft(Complex[] x) {
-        int n = x.length;
-        if (n <= 1) return x;
-
-        // Divide
-        Complex[] even = new Complex[n / 2];
-        Complex[] odd = new Complex[n / 2];
-        for (int i = 0; i < n / 2; i++) {
-            even[i] = x[2 * i];
-            odd[i] = x[2 * i + 1];
-        }
-
-        // Conquer
-        even = fft(even);
-        odd = fft(odd);
-
-        // Combine
-        Complex[] result = new Complex[n];
-        for (int k = 0; k < n / 2; k++) {
-            double angle = -2 * Math.PI * k / n;
-            Complex t = new Complex(Math.cos(angle), Math.sin(angle)).times(odd[k]);
-            result[k] = even[k].plus(t);
-            result[k + n / 2] = even[k].minus(t);
-        }
-        return result;
-    }
-
-    // Helper Complex class for FFT
-    private static class Complex {
-        private final double re;
-        private final double im;
-
-        public Complex(double real, double imag) {
-            this.re = real;
-            this.im = imag;
-        }
-
-        public Complex plus(Complex b) {
-            return new Complex(re + b.re, im + b.im);
-        }
-
-        public Complex minus(Complex b) {
-            return new Complex(re - b.re, im - b.im);
-        }
-
-        public Complex times(Complex b) {
-            return new Complex(re * b.re - im * b.im, re * b.im + im * b.re);
-        }
-
-        public double abs() {
-            return Math.sqrt(re * re + im * im);
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package simulation.software.codebase;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs Monte Carlo trials of sweep points: many seeded simulations of the same configuration, summarized as
+ * streaming statistics. CPU-bound trials run on a work-stealing {@link ForkJoinPool}; each worker keeps its own
+ * {@link SimulationScratch}, and the trial range is split recursively so that idle workers steal whole sub-ranges
+ * and partial statistics are merged without shared state. File exports run on a separate I/O executor — virtual
+ * threads where the runtime provides them (JDK 21+), otherwise a cached pool of daemon threads — so slow disks never
+ * occupy a CPU worker.
+ */
+public final class TrialExecutor implements AutoCloseable {
+    private static final SimulationLogger LOGGER = SimulationLogger.getLogger(TrialExecutor.class);
+    // Fixed leaf size: the split tree, and with it the merge order of the statistics, does not depend on parallelism
+    private static final int TRIALS_PER_TASK = 8;
+
+    private final ForkJoinPool pool;
+    private final ExecutorService io;
+    private final ThreadLocal<SimulationScratch> scratch = ThreadLocal.withInitial(SimulationScratch::new);
+    private final LongAdder completedTrials = new LongAdder();
+
+    /**
+     * Constructor for TrialExecutor.
+     *
+     * @param parallelism Number of CPU worker threads
+     * @throws IllegalArgumentException if the parallelism is not positive
+     */
+    public TrialExecutor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = owner -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+            thread.setName("am-trial-" + thread.getPoolIndex());
+            return thread;
+        };
+        this.pool = new ForkJoinPool(parallelism, factory, null, false);
+        this.io = newIoExecutor();
+    }
+
+    /**
+     * Runs the trials of one sweep point and aggregates their results. Trial i uses the noise seed
+     * {@link #trialSeed(long, int) trialSeed(seed, i)} and partial statistics are merged in a fixed order, so a run
+     * gives bit-identical statistics whatever the parallelism.
+     *
+     * @param point  Configuration to simulate
+     * @param trials Number of trials
+     * @param seed   Base noise seed
+     * @return statistics over all trials
+     * @throws IllegalArgumentException if the trial count is not positive
+     */
+    public TrialSummary run(SweepPoint point, int trials, long seed) {
+        return submit(point, trials, seed).join();
+    }
+
+    /**
+     * Starts the trials of one sweep point without waiting for them. Several points may be in flight at once, so a
+     * small trial count still keeps every worker busy; the statistics of each point are the same as from
+     * {@link #run(SweepPoint, int, long)}.
+     *
+     * @param point  Configuration to simulate
+     * @param trials Number of trials
+     * @param seed   Base noise seed
+     * @return future completed with the statistics over all trials
+     * @throws IllegalArgumentException if the trial count is not positive
+     */
+    public CompletableFuture<TrialSummary> submit(SweepPoint point, int trials, long seed) {
+        if (trials < 1) {
+            throw new IllegalArgumentException("Trial count must be positive");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Accumulator result = new TrialRange(point, seed, 0, trials, scratch, completedTrials).invoke();
+            return new TrialSummary(point, trials, result.failures, result.thd, result.snr, result.simulationMillis,
+                    result.firstError);
+        }, pool);
+    }
+
+    /**
+     * Exports a signal on the I/O executor.
+     *
+     * @param signal   Signal to export
+     * @param filename Output file
+     * @param format   Export format
+     * @return future completed when the file is written, or exceptionally with an {@link UncheckedIOException}
+     */
+    public CompletableFuture<Void> export(AMSignal signal, String filename, ExportFormat format) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                DataExporter.export(signal, filename, format);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export to " + filename + " failed", e);
+            }
+        }, io);
+    }
+
+    /**
+     * Simulates the first trial of a sweep point again on a CPU worker and exports its signal on the I/O executor,
+     * so neither step runs on the caller's thread. Nothing is written if the configuration cannot be simulated.
+     *
+     * @param point    Configuration to simulate
+     * @param seed     Base noise seed of the trials
+     * @param filename Output file
+     * @param format   Export format
+     * @return future completed when the file is written or skipped, or exceptionally with an
+     * {@link UncheckedIOException}
+     */
+    public CompletableFuture<Void> exportFirstTrial(SweepPoint point, long seed, String filename,
+                                                    ExportFormat format) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return point.toSignal(trialSeed(seed, 0));
+            } catch (IllegalArgumentException e) {
+                return null; // The first trial failed, so there is no signal to export
+            }
+        }, pool).thenCompose(signal -> signal == null
+                ? CompletableFuture.completedFuture(null) : export(signal, filename, format));
+    }
+
+    /**
+     * Derives the noise seed of one trial. The base seed and trial index are scrambled (SplitMix64 finalizer), so
+     * consecutive trials do not get the nearly identical seeds that correlate the first outputs of
+     * {@link java.util.Random}.
+     *
+     * @param seed  Base noise seed
+     * @param trial Trial index
+     * @return noise seed of the trial
+     */
+    public static long trialSeed(long seed, int trial) {
+        long z = seed + (trial + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets the number of trials finished since the executor was created, for progress reporting.
+     * @return completed trials
+     */
+    public long getCompletedTrials() {
+        return completedTrials.sum();
+    }
+
+    /**
+     * Gets the number of CPU worker threads.
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops the CPU workers and waits for pending exports to finish. If the calling thread is interrupted while
+     * waiting, the pending exports are cancelled and the interrupt status is restored.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.warning("Pending exports did not finish within a minute");
+                io.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            io.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newIoExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "am-io-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Partial statistics of a range of trials.
+     */
+    private static final class Accumulator {
+        final RunningStatistics thd = new RunningStatistics();
+        final RunningStatistics snr = new RunningStatistics();
+        final RunningStatistics simulationMillis = new RunningStatistics();
+        int failures;
+        String firstError;
+
+        void add(SweepResult result) {
+            if (result.getError() != null) {
+                if (failures++ == 0) {
+                    firstError = result.getError();
+                }
+                return;
+            }
+            thd.add(result.getThdPercentage());
+            snr.add(result.getSnrDb());
+            simulationMillis.add(result.getSimulationNanos() / 1e6);
+        }
+
+        /**
+         * Merges a later range into this one, keeping the error of the earliest failed trial.
+         */
+        Accumulator merge(Accumulator later) {
+            thd.merge(later.thd);
+            snr.merge(later.snr);
+            simulationMillis.merge(later.simulationMillis);
+            if (failures == 0) {
+                firstError = later.firstError;
+            }
+            failures += later.failures;
+            return this;
+        }
+    }
+
+    /**
+     * Trials {@code from} to {@code to - 1} of one point, split in halves down to {@link #TRIALS_PER_TASK}.
+     */
+    private static final class TrialRange extends RecursiveTask<Accumulator> {
+        private static final long serialVersionUID = 1L;
+        private final SweepPoint point;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final ThreadLocal<SimulationScratch> scratch;
+        private final LongAdder completedTrials;
+
+        TrialRange(SweepPoint point, long seed, int from, int to, ThreadLocal<SimulationScratch> scratch,
+                   LongAdder completedTrials) {
+            this.point = point;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.scratch = scratch;
+            this.completedTrials = completedTrials;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= TRIALS_PER_TASK) {
+                Accumulator accumulator = new Accumulator();
+                SimulationScratch workerScratch = scratch.get();
+                for (int trial = from; trial < to; trial++) {
+                    accumulator.add(point.evaluate(trialSeed(seed, trial), workerScratch));
+                    completedTrials.increment();
+                }
+                return accumulator;
+            }
+            int middle = (from + to) >>> 1;
+            TrialRange upper = new TrialRange(point, seed, middle, to, scratch, completedTrials);
+            upper.fork();
+            Accumulator lower = new TrialRange(point, seed, from, middle, scratch, completedTrials).compute();
+            return lower.merge(upper.join());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package simulation.software.codebase;
+
+/**
+ * Aggregate of the seeded trials of one {@link SweepPoint}: streaming statistics of the THD, SNR and simulation time
+ * over all trials that could be simulated.
+ */
+public final class TrialSummary {
+    private final SweepPoint point;
+    private final int trials;
+    private final int failures;
+    private final RunningStatistics thd;
+    private final RunningStatistics snr;
+    private final RunningStatistics simulationMillis;
+    private final String firstError;
+
+    TrialSummary(SweepPoint point, int trials, int failures, RunningStatistics thd, RunningStatistics snr,
+                 RunningStatistics simulationMillis, String firstError) {
+        this.point = point;
+        this.trials = trials;
+        this.failures = failures;
+        this.thd = thd;
+        this.snr = snr;
+        this.simulationMillis = simulationMillis;
+        this.firstError = firstError;
+    }
+
+    public SweepPoint getPoint() { return point; }
+    public int getTrials() { return trials; }
+    public int getFailures() { return failures; }
+    public RunningStatistics getThdStatistics() { return thd; }
+    public RunningStatistics getSnrStatistics() { return snr; }
+    public RunningStatistics getSimulationMillisStatistics() { return simulationMillis; }
+
+    /**
+     * Gets the reason the first failed trial could not be simulated.
+     * @return error message, or null if every trial succeeded
+     */
+    public String getFirstError() {
+        return firstError;
+    }
+}
@@ -0,0 +1,192 @@
+package simulation.software.codebase;
+
+import java.util.Arrays;
+
+/**
+ * Lossless float-XOR (Gorilla-style) compression for blocks of doubles. Each value is XORed with a prediction and
+ * only the meaningful bits of the result are stored, reusing the previous bit window when it still fits.
+ * Two predictors are tried per block, the previous value (smooth signals) and linear extrapolation (evenly spaced
+ * values such as time), and the block falls back to plain storage when neither pays off.
+ */
+public final class XorFloatCodec {
+    private static final byte RAW = 0;
+    private static final byte PREVIOUS = 1;
+    private static final byte LINEAR = 2;
+
+    private XorFloatCodec() {
+    }
+
+    /**
+     * Compresses a block of values.
+     *
+     * @param values Source values
+     * @param offset Index of the first value
+     * @param length Number of values
+     * @return compressed block (starting with a codec byte)
+     */
+    public static byte[] encode(double[] values, int offset, int length) {
+        byte[] previous = encode(values, offset, length, PREVIOUS);
+        byte[] linear = encode(values, offset, length, LINEAR);
+        byte[] best = previous.length <= linear.length ? previous : linear;
+        if (best.length < 1 + 8 * length) {
+            return best;
+        }
+        BitWriter raw = new BitWriter(1 + 8 * length);
+        raw.write(RAW, 8);
+        for (int i = 0; i < length; i++) {
+            raw.write(Double.doubleToRawLongBits(values[offset + i]), 64);
+        }
+        return raw.toByteArray();
+    }
+
+    /**
+     * Decompresses a block.
+     *
+     * @param data      Compressed block
+     * @param output    Array receiving the values
+     * @param outOffset Index of the first value in the output
+     * @param length    Number of values in the block
+     */
+    public static void decode(byte[] data, double[] output, int outOffset, int length) {
+        BitReader in = new BitReader(data);
+        int codec = (int) in.read(8);
+        if (codec == RAW) {
+            for (int i = 0; i < length; i++) {
+                output[outOffset + i] = Double.longBitsToDouble(in.read(64));
+            }
+            return;
+        }
+        int leading = 0;
+        int meaningful = 64;
+        double last = 0;
+        double beforeLast = 0;
+        for (int i = 0; i < length; i++) {
+            long prediction = Double.doubleToRawLongBits(predict(codec, i, last, beforeLast));
+            long xor = 0;
+            if (in.read(1) != 0) {
+                if (in.read(1) != 0) {
+                    leading = (int) in.read(5);
+                    meaningful = (int) in.read(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                }
+                xor = in.read(meaningful) << (64 - leading - meaningful);
+            }
+            double value = Double.longBitsToDouble(prediction ^ xor);
+            output[outOffset + i] = value;
+            beforeLast = last;
+            last = value;
+        }
+    }
+
+    private static byte[] encode(double[] values, int offset, int length, byte codec) {
+        BitWriter out = new BitWriter(8 + 2 * length);
+        out.write(codec, 8);
+        int leading = -1;
+        int meaningful = 0;
+        double last = 0;
+        double beforeLast = 0;
+        for (int i = 0; i < length; i++) {
+            double value = values[offset + i];
+            long xor = Double.doubleToRawLongBits(value)
+                    ^ Double.doubleToRawLongBits(predict(codec, i, last, beforeLast));
+            if (xor == 0) {
+                out.write(0, 1);
+            } else {
+                int lead = Math.min(31, Long.numberOfLeadingZeros(xor));
+                int trail = Long.numberOfTrailingZeros(xor);
+                out.write(1, 1);
+                if (leading >= 0 && lead >= leading && trail >= 64 - leading - meaningful) {
+                    // Fits in the previous bit window
+                    out.write(0, 1);
+                    out.write(xor >>> (64 - leading - meaningful), meaningful);
+                } else {
+                    leading = lead;
+                    meaningful = 64 - lead - trail;
+                    out.write(1, 1);
+                    out.write(leading, 5);
+                    out.write(meaningful & 63, 6); // 64 is stored as 0
+                    out.write(xor >>> trail, meaningful);
+                }
+            }
+            beforeLast = last;
+            last = value;
+        }
+        return out.toByteArray();
+    }
+
+    private static double predict(int codec, int index, double last, double beforeLast) {
+        if (codec == LINEAR && index >= 2) {
+            return 2 * last - beforeLast;
+        }
+        return last;
+    }
+
+    private static final class BitWriter {
+        private byte[] bytes;
+        private int size;
+        private long buffer;
+        private int bits;
+
+        BitWriter(int capacity) {
+            this.bytes = new byte[Math.max(16, capacity)];
+        }
+
+        void write(long value, int count) {
+            if (count == 0) {
+                return;
+            }
+            if (count < 64) {
+                value &= (1L << count) - 1;
+            }
+            // Emit the high part first if the value does not fit the 64-bit accumulator
+            int free = 64 - bits;
+            if (count > free) {
+                int high = count - free;
+                write(value >>> high, free);
+                write(value, high);
+                return;
+            }
+            buffer = count == 64 ? value : (buffer << count) | value;
+            bits += count;
+            while (bits >= 8) {
+                if (size == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                bytes[size++] = (byte) (buffer >>> (bits - 8));
+                bits -= 8;
+            }
+        }
+
+        byte[] toByteArray() {
+            if (bits > 0) {
+                write(0, 8 - bits);
+            }
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] bytes;
+        private long position;
+
+        BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long read(int count) {
+            long value = 0;
+            for (int remaining = count; remaining > 0; ) {
+                int index = (int) (position >>> 3);
+                int offset = (int) (position & 7);
+                int take = Math.min(8 - offset, remaining);
+                int chunk = ((bytes[index] & 0xFF) >>> (8 - offset - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                remaining -= take;
+                position += take;
+            }
+            return value;
+        }
+    }
+}